@@ -1,13 +1,22 @@
 package dk.mosberg.client;
 
+import dk.mosberg.item.BeverageFreshness;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.minecraft.client.MinecraftClient;
 
 @Environment(EnvType.CLIENT)
 public class AlchemyClient implements ClientModInitializer {
 
 	@Override
 	public void onInitializeClient() {
+		// Tooltips have no world at hand; derive beverage quality from the client world's time
+		BeverageFreshness.setTooltipClock(() -> {
+			MinecraftClient client = MinecraftClient.getInstance();
+			return client.world != null ? client.world.getTime() : -1L;
+		});
+		LiquidTintSource.register();
+		AmbientParticles.register();
 	}
 }
@@ -0,0 +1,307 @@
+package dk.mosberg.client;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import dk.mosberg.Alchemy;
+import dk.mosberg.block.ContainerBlockEntity;
+import dk.mosberg.block.EquipmentBlockEntity;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.data.EquipmentData;
+import dk.mosberg.registry.ModBlocks;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientBlockEntityEvents;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.client.MinecraftClient;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.Entity;
+import net.minecraft.particle.ParticleEffect;
+import net.minecraft.particle.ParticleTypes;
+import net.minecraft.particle.SimpleParticleType;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Vec3d;
+import net.minecraft.util.math.random.Random;
+
+/**
+ * Ambient particles of placed containers and equipment. Containers emit their beverage's
+ * {@code visuals.particle} at a rate set by {@code visuals.bubbles}, plus glow particles for
+ * {@code visuals.glow}; equipment emits one of its {@code client.particle_types} while it is
+ * processing. Equipment that names no usable particle type emits nothing.
+ *
+ * <p>Emitters are tracked as their block entities load and unload, so a tick never searches the
+ * world for them. Each tick spawns at most {@code alchemy.particles.budget} particles (default 48)
+ * however many emitters are in view. The budget is per client tick rather than per frame, so the
+ * particle rate does not grow with the frame rate. Emitters beyond {@code alchemy.particles.range}
+ * blocks (default 32) or outside the camera's view cone are skipped before any random roll, and
+ * the chance to emit falls off quadratically beyond {@value #FULL_DENSITY_RANGE} blocks. When the
+ * budget runs out, the next tick resumes with the emitter after the last one visited, so a large
+ * cellar shares the budget instead of starving the emitters at the end of the list.
+ *
+ * <p>Beverage particles are resolved once per content snapshot into arrays indexed by beverage
+ * index, like {@link LiquidTintSource}'s colors.
+ */
+@Environment(EnvType.CLIENT)
+public final class AmbientParticles {
+	private static final int BUDGET = Integer.getInteger("alchemy.particles.budget", 48);
+	private static final double RANGE =
+			Double.parseDouble(System.getProperty("alchemy.particles.range", "32"));
+	private static final double FULL_DENSITY_RANGE = 8.0;
+	/** Radius of a sphere around a block's center that contains the block. */
+	private static final double BLOCK_RADIUS = 0.87;
+	/** Emission chance per tick by {@link BeverageData.Bubbles} ordinal. */
+	private static final float[] BUBBLE_RATES = {0.02f, 0.05f, 0.1f, 0.2f};
+	/** Glow particle chance per tick by {@link BeverageData.Glow} ordinal. */
+	private static final float[] GLOW_RATES = {0.0f, 0.02f, 0.06f};
+	private static final float EQUIPMENT_RATE = 0.08f;
+
+	private static final Map<BlockEntity, Emitter> byEntity = new HashMap<>();
+	private static final List<Emitter> emitters = new ArrayList<>();
+	/** Particle ids already reported as unusable, so each is logged once. */
+	private static final Set<Identifier> skipped = new HashSet<>();
+	private static int cursor;
+	private static ClientWorld trackedWorld;
+	private static Effects effects = new Effects(-1, new ParticleEffect[0], new float[0],
+			new float[0]);
+
+	private AmbientParticles() {}
+
+	/** One tracked block; {@code particles} is null for containers, which use their beverage. */
+	private static final class Emitter {
+		final BlockEntity entity;
+		final double x;
+		final double y;
+		final double z;
+		final ParticleEffect[] particles;
+		int slot;
+
+		Emitter(BlockEntity entity, ParticleEffect[] particles) {
+			BlockPos pos = entity.getPos();
+			this.entity = entity;
+			this.x = pos.getX() + 0.5;
+			this.y = pos.getY() + 0.5;
+			this.z = pos.getZ() + 0.5;
+			this.particles = particles;
+		}
+	}
+
+	/** Particle, particle rate and glow rate by beverage index; rates are 0 for no particles. */
+	private record Effects(int generation, ParticleEffect[] particles, float[] rates,
+			float[] glowRates) {}
+
+	/** Starts tracking placed blocks and emitting their particles. */
+	public static void register() {
+		if (BUDGET <= 0 || RANGE <= 0.0) {
+			return;
+		}
+		ClientBlockEntityEvents.BLOCK_ENTITY_LOAD.register(AmbientParticles::load);
+		ClientBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((entity, world) -> unload(entity));
+		ClientTickEvents.END_CLIENT_TICK.register(AmbientParticles::tick);
+	}
+
+	private static void load(BlockEntity entity, ClientWorld world) {
+		ParticleEffect[] particles = null;
+		if (entity instanceof EquipmentBlockEntity) {
+			particles = equipmentParticles(ModBlocks.equipmentData(entity.getCachedState()
+					.getBlock()));
+			if (particles.length == 0) {
+				return;
+			}
+		} else if (!(entity instanceof ContainerBlockEntity)) {
+			return;
+		}
+		if (world != trackedWorld) {
+			clear();
+			trackedWorld = world;
+		}
+		Emitter emitter = new Emitter(entity, particles);
+		Emitter previous = byEntity.put(entity, emitter);
+		if (previous != null) {
+			emitter.slot = previous.slot;
+			emitters.set(previous.slot, emitter);
+		} else {
+			emitter.slot = emitters.size();
+			emitters.add(emitter);
+		}
+	}
+
+	private static void unload(BlockEntity entity) {
+		Emitter emitter = byEntity.remove(entity);
+		if (emitter == null) {
+			return;
+		}
+		Emitter last = emitters.remove(emitters.size() - 1);
+		if (last != emitter) {
+			last.slot = emitter.slot;
+			emitters.set(emitter.slot, last);
+		}
+	}
+
+	private static void clear() {
+		byEntity.clear();
+		emitters.clear();
+		cursor = 0;
+	}
+
+	private static void tick(MinecraftClient client) {
+		ClientWorld world = client.world;
+		if (world != trackedWorld) {
+			clear();
+			trackedWorld = world;
+		}
+		Entity camera = client.getCameraEntity();
+		int count = emitters.size();
+		if (world == null || camera == null || count == 0 || client.isPaused()) {
+			return;
+		}
+		Effects beverages = effects();
+		Vec3d eye = camera.getCameraPosVec(1.0f);
+		Vec3d look = camera.getRotationVec(1.0f);
+		double cosHalfFov = cosHalfFov(client);
+		double rangeSq = RANGE * RANGE;
+		Random random = world.getRandom();
+
+		int budget = BUDGET;
+		int index = cursor % count;
+		for (int visited = 0; visited < count && budget > 0; visited++) {
+			Emitter emitter = emitters.get(index);
+			index = index + 1 == count ? 0 : index + 1;
+
+			double dx = emitter.x - eye.x;
+			double dy = emitter.y - eye.y;
+			double dz = emitter.z - eye.z;
+			double distanceSq = dx * dx + dy * dy + dz * dz;
+			if (distanceSq > rangeSq) {
+				continue;
+			}
+			double distance = Math.sqrt(distanceSq);
+			// Off screen when the block's bounding sphere lies outside the view cone
+			if (dx * look.x + dy * look.y + dz * look.z < cosHalfFov * distance - BLOCK_RADIUS) {
+				continue;
+			}
+			float density = density(distance);
+			budget -= emitter.particles != null
+					? emitEquipment(world, random, emitter, density)
+					: emitContainer(world, random, emitter, beverages, density, budget);
+		}
+		cursor = index;
+	}
+
+	private static int emitEquipment(ClientWorld world, Random random, Emitter emitter,
+			float density) {
+		if (!((EquipmentBlockEntity) emitter.entity).isProcessing()
+				|| random.nextFloat() >= EQUIPMENT_RATE * density) {
+			return 0;
+		}
+		ParticleEffect particle = emitter.particles[random.nextInt(emitter.particles.length)];
+		spawn(world, random, emitter, particle, 0.5);
+		return 1;
+	}
+
+	private static int emitContainer(ClientWorld world, Random random, Emitter emitter,
+			Effects beverages, float density, int budget) {
+		int beverage = ((ContainerBlockEntity) emitter.entity).beverage();
+		if (beverage < 0 || beverage >= beverages.rates().length) {
+			return 0;
+		}
+		int spawned = 0;
+		if (random.nextFloat() < beverages.rates()[beverage] * density) {
+			spawn(world, random, emitter, beverages.particles()[beverage], 0.4);
+			spawned++;
+		}
+		if (spawned < budget && random.nextFloat() < beverages.glowRates()[beverage] * density) {
+			spawn(world, random, emitter, ParticleTypes.GLOW, 0.4);
+			spawned++;
+		}
+		return spawned;
+	}
+
+	private static void spawn(ClientWorld world, Random random, Emitter emitter,
+			ParticleEffect particle, double top) {
+		world.addParticleClient(particle, emitter.x + (random.nextDouble() - 0.5) * 0.5,
+				emitter.y + top, emitter.z + (random.nextDouble() - 0.5) * 0.5, 0.0, 0.02, 0.0);
+	}
+
+	/** Full density up close, falling off quadratically to nothing at the range. */
+	private static float density(double distance) {
+		if (distance <= FULL_DENSITY_RANGE) {
+			return 1.0f;
+		}
+		double falloff = (RANGE - distance) / (RANGE - FULL_DENSITY_RANGE);
+		return (float) (falloff * falloff);
+	}
+
+	/** Cosine of half the view's diagonal field of view, which bounds everything on screen. */
+	private static double cosHalfFov(MinecraftClient client) {
+		double tanHalfVertical = Math.tan(Math.toRadians(client.options.getFov().getValue()) / 2);
+		int height = Math.max(1, client.getWindow().getFramebufferHeight());
+		double aspect = (double) client.getWindow().getFramebufferWidth() / height;
+		double tanHalfDiagonal = tanHalfVertical * Math.sqrt(1.0 + aspect * aspect);
+		return 1.0 / Math.sqrt(1.0 + tanHalfDiagonal * tanHalfDiagonal);
+	}
+
+	private static Effects effects() {
+		Effects current = effects;
+		BeverageManager.Snapshot snapshot = BeverageManager.snapshot();
+		if (current.generation() != snapshot.generation()) {
+			current = build(snapshot);
+			effects = current;
+		}
+		return current;
+	}
+
+	private static Effects build(BeverageManager.Snapshot snapshot) {
+		int count = snapshot.beverages().size();
+		ParticleEffect[] particles = new ParticleEffect[count];
+		float[] rates = new float[count];
+		float[] glowRates = new float[count];
+		for (int index = 0; index < count; index++) {
+			BeverageData data = snapshot.get(BeverageManager.idAt(index));
+			if (data == null) {
+				continue;
+			}
+			BeverageData.Visuals visuals = data.visuals();
+			particles[index] = particle(visuals.particle());
+			rates[index] = particles[index] != null ? BUBBLE_RATES[visuals.bubbles().ordinal()]
+					: 0.0f;
+			glowRates[index] = GLOW_RATES[visuals.glow().ordinal()];
+		}
+		return new Effects(snapshot.generation(), particles, rates, glowRates);
+	}
+
+	private static ParticleEffect[] equipmentParticles(EquipmentData data) {
+		if (data == null || !data.client().particles()) {
+			return new ParticleEffect[0];
+		}
+		List<ParticleEffect> particles = new ArrayList<>();
+		for (Identifier id : data.client().particleTypes()) {
+			ParticleEffect particle = particle(id);
+			if (particle != null) {
+				particles.add(particle);
+			}
+		}
+		return particles.toArray(ParticleEffect[]::new);
+	}
+
+	/** The particle type {@code id} names, or null if it is unknown or takes parameters. */
+	private static ParticleEffect particle(Identifier id) {
+		if (id == null) {
+			return null;
+		}
+		if (Registries.PARTICLE_TYPE.get(id) instanceof SimpleParticleType simple) {
+			return simple;
+		}
+		if (skipped.add(id)) {
+			Alchemy.LOGGER.warn("Skipping ambient particle {}: unknown or not a simple particle type",
+					id);
+		}
+		return null;
+	}
+}
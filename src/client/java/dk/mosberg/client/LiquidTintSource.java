@@ -0,0 +1,82 @@
+package dk.mosberg.client;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.MapCodec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import dk.mosberg.Alchemy;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.item.BeverageItem;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.client.render.item.tint.TintSource;
+import net.minecraft.client.render.item.tint.TintSourceTypes;
+import net.minecraft.client.world.ClientWorld;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.Identifier;
+
+/**
+ * Item model tint source {@code alchemy:liquid}, which colors a beverage's liquid layer with its
+ * {@code visuals.liquid_color}. The colors of all beverages are resolved once per content snapshot
+ * into an array indexed by {@link BeverageItem#beverageIndex()}, so tinting a stack is a field read
+ * and an array load: no hashing, allocation or definition access per rendered stack.
+ *
+ * <p>Beverages that do not set {@code client.use_liquid_tint} get {@code default}, which is white
+ * (no tint) unless the model says otherwise.
+ */
+@Environment(EnvType.CLIENT)
+public record LiquidTintSource(int defaultColor) implements TintSource {
+	public static final MapCodec<LiquidTintSource> CODEC = RecordCodecBuilder.mapCodec(
+			instance -> instance.group(Codec.INT.optionalFieldOf("default", -1)
+					.forGetter(LiquidTintSource::defaultColor))
+					.apply(instance, LiquidTintSource::new));
+
+	/** Opaque ARGB colors by beverage index; 0 marks beverages that use the default. */
+	private static volatile Tints tints = new Tints(-1, new int[0]);
+
+	private record Tints(int generation, int[] colors) {}
+
+	/** Registers the tint source type for item model definitions. */
+	public static void register() {
+		TintSourceTypes.ID_MAPPER.put(Identifier.of(Alchemy.MOD_ID, "liquid"), CODEC);
+	}
+
+	@Override
+	public int getTint(ItemStack stack, ClientWorld world, LivingEntity user) {
+		if (stack.getItem() instanceof BeverageItem beverage) {
+			int[] colors = colors();
+			int index = beverage.beverageIndex();
+			if (index >= 0 && index < colors.length && colors[index] != 0) {
+				return colors[index];
+			}
+		}
+		return defaultColor;
+	}
+
+	@Override
+	public MapCodec<LiquidTintSource> getCodec() {
+		return CODEC;
+	}
+
+	private static int[] colors() {
+		Tints current = tints;
+		BeverageManager.Snapshot snapshot = BeverageManager.snapshot();
+		if (current.generation() != snapshot.generation()) {
+			current = build(snapshot);
+			tints = current;
+		}
+		return current.colors();
+	}
+
+	private static Tints build(BeverageManager.Snapshot snapshot) {
+		int[] colors = new int[snapshot.beverages().size()];
+		for (int index = 0; index < colors.length; index++) {
+			BeverageData data = snapshot.get(BeverageManager.idAt(index));
+			if (data != null && data.visuals().useLiquidTint()) {
+				colors[index] = 0xFF000000 | data.visuals().liquidColor();
+			}
+		}
+		return new Tints(snapshot.generation(), colors);
+	}
+}
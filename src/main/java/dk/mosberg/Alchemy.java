@@ -2,12 +2,23 @@ package dk.mosberg;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import dk.mosberg.block.SlotLayout;
+import dk.mosberg.command.AlchemyCommand;
+import dk.mosberg.data.BeverageReloadListener;
 import dk.mosberg.data.ContentPack;
 import dk.mosberg.data.DataLoader;
+import dk.mosberg.effect.IntoxicationEngine;
+import dk.mosberg.fluid.FluidNetworks;
+import dk.mosberg.loot.BeverageLoot;
+import dk.mosberg.profiling.ConsumptionMetrics;
+import dk.mosberg.profiling.StartupProfiler;
+import dk.mosberg.recipe.RecipeIndex;
 import dk.mosberg.registry.ModBlocks;
+import dk.mosberg.registry.ModComponents;
 import dk.mosberg.registry.ModEffects;
 import dk.mosberg.registry.ModItemGroups;
 import dk.mosberg.registry.ModItems;
+import dk.mosberg.schedule.MachineScheduler;
 import net.fabricmc.api.ModInitializer;
 
 /**
@@ -21,17 +32,39 @@ public class Alchemy implements ModInitializer {
     /** Logger instance for mod-wide logging. */
     public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
 
+    /** Definitions loaded at startup, or null before initialization. */
+    private static volatile ContentPack content;
+
     @Override
     public void onInitialize() {
         // Load data-driven definitions first before item registration
-        ContentPack content = DataLoader.loadAll();
+        ContentPack content = StartupProfiler.phase("data", DataLoader::loadAll, ContentPack::size);
+        Alchemy.content = content;
 
         // Register game content
-        ModEffects.register();
-        ModBlocks.register(content);
-        ModItems.register(content);
-        ModItemGroups.register();
+        StartupProfiler.phase("effects", ModEffects::register);
+        IntoxicationEngine.register();
+        ModComponents.register();
+        StartupProfiler.phase("blocks", () -> ModBlocks.register(content), ModBlocks::blockCount);
+        StartupProfiler.phase("items", () -> ModItems.register(content), ModItems::itemCount);
+        StartupProfiler.phase("item groups", ModItemGroups::register);
+
+        // Datapack reloads replace beverage stats, effects and config in place
+        BeverageReloadListener.register();
+        AlchemyCommand.register();
+        MachineScheduler.register();
+        FluidNetworks.register();
+        SlotLayout.register();
+        RecipeIndex.register();
+        BeverageLoot.register();
+        ConsumptionMetrics.startPeriodicDump();
+        StartupProfiler.logSummary();
 
         LOGGER.info("{} initialized successfully.", MOD_ID);
     }
+
+    /** Returns the definitions loaded at startup, or null before initialization. */
+    public static ContentPack content() {
+        return content;
+    }
 }
@@ -1,18 +1,34 @@
 package dk.mosberg.block;
 
 import com.mojang.serialization.MapCodec;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.ContainerData;
+import dk.mosberg.item.BeverageFreshness;
+import dk.mosberg.item.BeverageItem;
+import dk.mosberg.item.BeverageStamp;
+import dk.mosberg.item.ContainerItem;
+import dk.mosberg.registry.ModComponents;
+import dk.mosberg.registry.ModItems;
 import net.minecraft.block.BlockRenderType;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.BlockWithEntity;
 import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.ItemUsage;
 import net.minecraft.util.ActionResult;
+import net.minecraft.util.Hand;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.hit.BlockHitResult;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
 /**
- * Basic container block driven by JSON metadata. Behavior is minimal for now and primarily exists
- * to back the placeholder items with a placeable block + block entity that can be extended later.
+ * Basic container block driven by JSON metadata, backed by a {@link ContainerBlockEntity}. Using a
+ * beverage item on it empties the item into the container, and using an empty container item on it
+ * pours one serving of the contents into that item when the contained beverage comes in it. A
+ * serving is the item's {@link ContainerData.Liquid#servingMb}, and both directions move it whole
+ * or not at all, however it compares to the container's per-tick transfer rates; brew time and
+ * quality travel with the liquid.
  */
 public class ContainerBlock extends BlockWithEntity {
     public static final MapCodec<ContainerBlock> CODEC = createCodec(ContainerBlock::new);
@@ -36,6 +52,83 @@ public class ContainerBlock extends BlockWithEntity {
         return new ContainerBlockEntity(pos, state);
     }
 
+    @Override
+    protected ActionResult onUseWithItem(ItemStack stack, BlockState state, World world,
+            BlockPos pos, PlayerEntity player, Hand hand, BlockHitResult hit) {
+        if (!(stack.getItem() instanceof ContainerItem || stack.getItem() instanceof BeverageItem)
+                || !(world.getBlockEntity(pos) instanceof ContainerBlockEntity container)) {
+            return ActionResult.PASS_TO_DEFAULT_BLOCK_ACTION;
+        }
+        if (world.isClient()) {
+            return ActionResult.SUCCESS;
+        }
+        long now = world.getTime();
+        ItemStack result;
+        if (stack.getItem() instanceof BeverageItem beverage) {
+            if (!fill(container, beverage, stack, now)) {
+                return ActionResult.FAIL;
+            }
+            result = beverage.returnItem() != null ? new ItemStack(beverage.returnItem())
+                    : ItemStack.EMPTY;
+        } else {
+            result = pour(container, ((ContainerItem) stack.getItem()).definition(), now);
+            if (result.isEmpty()) {
+                return ActionResult.FAIL;
+            }
+        }
+        if (result.isEmpty()) {
+            stack.decrementUnlessCreative(1, player);
+        } else {
+            player.setStackInHand(hand, ItemUsage.exchangeStack(stack, player, result));
+        }
+        return ActionResult.SUCCESS;
+    }
+
+    /**
+     * Empties one serving of {@code stack} into the container, if it can hold the beverage and
+     * has room for the whole serving now.
+     */
+    private static boolean fill(ContainerBlockEntity container, BeverageItem item, ItemStack stack,
+            long now) {
+        int index = item.beverageIndex();
+        int serving = item.containerData() != null ? item.containerData().liquid().servingMb() : 0;
+        if (serving <= 0) {
+            return false;
+        }
+        BeverageData data = item.getData();
+        BeverageStamp stamp = stack.get(ModComponents.BEVERAGE_STAMP);
+        float quality = stamp != null ? BeverageFreshness.quality(data, stamp, now)
+                : data.freshness().quality().onBrew();
+        long brewedAt = stamp != null ? stamp.brewedAt() : now;
+        return container.fillServing(index, serving, quality, brewedAt, now) == serving;
+    }
+
+    /**
+     * Pours one serving into an empty {@code vessel} if the contained beverage comes in it and a
+     * whole serving can be poured now. The serving keeps the contents' brew time and their current
+     * quality, which includes any barrel aging.
+     *
+     * @return the filled beverage, or an empty stack
+     */
+    static ItemStack pour(ContainerBlockEntity container, ContainerData vessel, long now) {
+        Identifier beverage = container.beverageId();
+        if (beverage == null || !(ModItems.beverage(beverage) instanceof BeverageItem item)
+                || item.containerData() == null
+                || !item.containerData().id().equals(vessel.id())) {
+            return ItemStack.EMPTY;
+        }
+        int serving = vessel.liquid().servingMb();
+        // Read before pouring, which clears the contents when it takes the last of them
+        long brewedAt = container.brewedAt();
+        float quality = container.quality(now);
+        if (serving <= 0 || container.pourServing(serving, now) != serving) {
+            return ItemStack.EMPTY;
+        }
+        ItemStack filled = new ItemStack(item);
+        item.stamp(filled, brewedAt, now, quality);
+        return filled;
+    }
+
     @Override
     public ActionResult onUse(BlockState state, World world, BlockPos pos, PlayerEntity player,
             BlockHitResult hit) {
@@ -1,19 +1,93 @@
 package dk.mosberg.block;
 
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.entity.BlockEntity;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.storage.ReadView;
+import net.minecraft.storage.WriteView;
+import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
+import dk.mosberg.Alchemy;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.data.ContainerData;
+import dk.mosberg.data.TagIndex;
+import dk.mosberg.fluid.FluidNetwork;
 import dk.mosberg.registry.ModBlocks;
 
 /**
- * Lightweight container block entity that just persists a payload NBT blob for future use.
+ * Container block entity holding one beverage as a liquid. The contents are plain fields: the
+ * beverage as its {@link BeverageManager#indexOf index}, the amount in millibuckets, the quality
+ * and the brew and open times, so filling and pouring allocate nothing. Capacity and the per-tick
+ * fill and pour limits come from the container's {@code liquid} block; the limits pace transfer
+ * networks, while a serving moved by hand goes through whole. Also persists a payload NBT blob for
+ * future use.
+ *
+ * <p>Barrels age their contents with {@link ContainerData.Barrel}. The stored amount and quality
+ * are the values at {@code agedAt} and are only re-anchored when the contents change; reading them
+ * evaluates the closed form for the elapsed time. A barrel in an unloaded chunk therefore needs no
+ * catch-up work when it loads, and its contents are the same as if it had stayed loaded.
+ *
+ * <p>Saves use a compact layout: the beverage id plus one {@code long[]} holding the
+ * {@link #SAVE_FORMAT format version}, the amount and quality in one word, then the brew time, the
+ * aging anchor and, only once opened, the open time. Contents saved in another format are dropped
+ * with a warning rather than misread. Empty containers write nothing. The packed array is kept
+ * between saves and rebuilt only after the contents change, so saving a chunk full of untouched
+ * barrels costs one reference copy each.
+ *
+ * <p>Containers whose placed block sets {@code sync_to_client} send their contents with the chunk
+ * and again whenever the contained beverage changes, so clients can show its ambient particles.
+ * Amount changes alone are not sent.
  */
 public class ContainerBlockEntity extends BlockEntity {
+    /** Beverage index of an empty container. */
+    public static final int EMPTY = -1;
+    /** Open time of a container that has not been poured from since it was filled. */
+    public static final long SEALED = -1L;
+    /** Leading word of the saved {@code state} array; bump it when the layout changes. */
+    static final long SAVE_FORMAT = 1L;
+
     private NbtCompound payload = new NbtCompound();
+    private final ContainerData.Liquid liquid;
+    private final ContainerData.Barrel barrel;
+    /** This container's number in the {@link TagIndex}, which is the same in every rebuild. */
+    private final int container;
+    private final boolean syncToClient;
+
+    private int beverage = EMPTY;
+    /** Amount and quality as of {@link #agedAt}. */
+    private int amountMb;
+    private float quality;
+    private long agedAt;
+    private long brewedAt;
+    private long openedAt = SEALED;
+
+    /** Game tick the per-tick transfer budgets below belong to. */
+    private long transferTick = Long.MIN_VALUE;
+    private int filledThisTick;
+    private int pouredThisTick;
+
+    /** Packed contents for the next save, or null if the contents changed since it was built. */
+    private Saved saved;
+    /** Transfer network this container belongs to while loaded, or null. */
+    private FluidNetwork network;
+    /** Beverage clients were last told about. */
+    private int syncedBeverage = EMPTY;
+
+    private record Saved(String beverage, long[] state) {}
 
     public ContainerBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlocks.containerBlockEntityType(state.getBlock()), pos, state);
+        ContainerData data = ModBlocks.containerData(state.getBlock());
+        this.liquid = data != null ? data.liquid() : ContainerData.Liquid.NONE;
+        this.barrel = data != null ? data.barrel() : ContainerData.Barrel.NONE;
+        this.container = data != null ? TagIndex.current().container(data.id()) : -1;
+        ContainerData.PlacedBlock placed = data != null && data.stateStorage() != null
+                ? data.stateStorage().placedBlock()
+                : null;
+        this.syncToClient = placed != null && placed.syncToClient();
     }
 
     public NbtCompound payload() {
@@ -22,6 +96,346 @@ public class ContainerBlockEntity extends BlockEntity {
 
     public void setPayload(NbtCompound payload) {
         this.payload = payload == null ? new NbtCompound() : payload.copy();
+        changed();
+    }
+
+    /**
+     * Fills up to {@code offeredMb} of the beverage at {@code beverageIndex}, limited by the free
+     * capacity and what is left of this tick's fill rate. A container only holds one beverage;
+     * filling it with a different one, or with one its accepted tags do not match, is refused.
+     * Mixing with the current contents averages the quality and brew time by volume. Containers
+     * that do not allow partial transfers accept the whole amount or nothing.
+     *
+     * @return the millibuckets actually accepted
+     */
+    public int fill(int beverageIndex, int offeredMb, float offeredQuality, long offeredBrewedAt,
+            long now) {
+        return fill(beverageIndex, offeredMb, offeredQuality, offeredBrewedAt, now,
+                liquid.fillRateMbPerTick(), liquid.allowPartial());
+    }
+
+    /**
+     * Fills exactly {@code servingMb} of the beverage at {@code beverageIndex}, or nothing, like
+     * {@link #fill} but not limited by the fill rate. Used for servings emptied in by hand.
+     *
+     * @return {@code servingMb}, or 0 if the container cannot take the whole serving
+     */
+    public int fillServing(int beverageIndex, int servingMb, float quality, long brewedAt,
+            long now) {
+        return fill(beverageIndex, servingMb, quality, brewedAt, now, Integer.MAX_VALUE, false);
+    }
+
+    private int fill(int beverageIndex, int offeredMb, float offeredQuality, long offeredBrewedAt,
+            long now, int rateMb, boolean allowPartial) {
+        if (!canHold(beverageIndex) || offeredMb <= 0) {
+            return 0;
+        }
+        // Settle first: a barrel that evaporated dry accepts any beverage again
+        settle(now);
+        if (beverage != EMPTY && beverage != beverageIndex) {
+            return 0;
+        }
+        resetBudgets(now);
+        int room = Math.min(liquid.capacityMb() - amountMb, rateMb - filledThisTick);
+        int accepted = Math.min(offeredMb, room);
+        if (accepted <= 0 || (!allowPartial && accepted < offeredMb)) {
+            return 0;
+        }
+        if (amountMb == 0) {
+            beverage = beverageIndex;
+            quality = offeredQuality;
+            brewedAt = offeredBrewedAt;
+            agedAt = now;
+            openedAt = SEALED;
+        } else {
+            int total = amountMb + accepted;
+            quality = (quality * amountMb + offeredQuality * accepted) / total;
+            brewedAt += (offeredBrewedAt - brewedAt) * accepted / total;
+        }
+        amountMb += accepted;
+        filledThisTick += accepted;
+        changed();
+        return accepted;
+    }
+
+    /**
+     * Pours up to {@code requestedMb}, limited by the contents and what is left of this tick's
+     * pour rate. The first pour opens the container; pouring the last millibucket empties it.
+     *
+     * @return the millibuckets actually poured
+     */
+    public int pour(int requestedMb, long now) {
+        return pour(requestedMb, now, liquid.pourRateMbPerTick(), liquid.allowPartial());
+    }
+
+    /**
+     * Pours exactly {@code servingMb}, or nothing, like {@link #pour} but not limited by the pour
+     * rate. Used for servings poured out by hand.
+     *
+     * @return {@code servingMb}, or 0 if the container does not hold a whole serving
+     */
+    public int pourServing(int servingMb, long now) {
+        return pour(servingMb, now, Integer.MAX_VALUE, false);
+    }
+
+    private int pour(int requestedMb, long now, int rateMb, boolean allowPartial) {
+        settle(now);
+        if (amountMb == 0 || requestedMb <= 0) {
+            return 0;
+        }
+        resetBudgets(now);
+        int poured = Math.min(Math.min(requestedMb, amountMb), rateMb - pouredThisTick);
+        if (poured <= 0 || (!allowPartial && poured < requestedMb)) {
+            return 0;
+        }
+        amountMb -= poured;
+        pouredThisTick += poured;
+        if (amountMb == 0) {
+            clearContents();
+        } else if (openedAt == SEALED) {
+            openedAt = now;
+        }
+        changed();
+        return poured;
+    }
+
+    /**
+     * Millibuckets of the beverage at {@code beverageIndex} that {@link #fill} would accept at
+     * {@code now}, ignoring {@code allow_partial}.
+     */
+    public int fillableMb(int beverageIndex, long now) {
+        if (!canHold(beverageIndex)) {
+            return 0;
+        }
+        int current = amountMb(now);
+        if (current > 0 && beverage != beverageIndex) {
+            return 0;
+        }
+        int filled = now == transferTick ? filledThisTick : 0;
+        return Math.max(0, Math.min(liquid.capacityMb() - current,
+                liquid.fillRateMbPerTick() - filled));
+    }
+
+    /** Millibuckets that {@link #pour} would hand out at {@code now}. */
+    public int pourableMb(long now) {
+        int poured = now == transferTick ? pouredThisTick : 0;
+        return Math.max(0, Math.min(amountMb(now), liquid.pourRateMbPerTick() - poured));
+    }
+
+    /** Returns whether the beverage at {@code beverageIndex} may go into this container. */
+    public boolean canHold(int beverageIndex) {
+        return liquid.canContainLiquid() && TagIndex.current().canHold(container, beverageIndex);
+    }
+
+    /** Returns whether this container can hold liquid at all. */
+    public boolean holdsLiquid() {
+        return liquid.canContainLiquid() && liquid.capacityMb() > 0;
+    }
+
+    /** Faces this container joins transfer networks through, as a bit mask of directions. */
+    public int pipeSides() {
+        return holdsLiquid() ? liquid.pipeSides() : 0;
+    }
+
+    /** Called by the transfer network when this container joins or leaves it. */
+    public void setFluidNetwork(FluidNetwork network) {
+        this.network = network;
+    }
+
+    /** Empties the container without pouring. */
+    public void clearContents() {
+        beverage = EMPTY;
+        amountMb = 0;
+        quality = 0.0f;
+        agedAt = 0L;
+        brewedAt = 0L;
+        openedAt = SEALED;
+        changed();
+    }
+
+    public boolean isEmpty() {
+        return amountMb() == 0;
+    }
+
+    /** Index of the contained beverage, or {@link #EMPTY}. */
+    public int beverage() {
+        return beverage;
+    }
+
+    /** Id of the contained beverage, or null when empty. */
+    public Identifier beverageId() {
+        return BeverageManager.idAt(beverage);
+    }
+
+    /** Current amount, including evaporation since the last change. */
+    public int amountMb() {
+        return amountMb(now());
+    }
+
+    /** Amount at game time {@code now}. */
+    public int amountMb(long now) {
+        return barrel.amountAfter(amountMb, days(now));
+    }
+
+    public int capacityMb() {
+        return liquid.capacityMb();
+    }
+
+    /** Current quality, including barrel aging since the last change. */
+    public float quality() {
+        return quality(now());
+    }
+
+    /** Quality at game time {@code now}. */
+    public float quality(long now) {
+        if (amountMb == 0) {
+            return quality;
+        }
+        return barrel.qualityAfter(quality, targetQuality(), days(now));
+    }
+
+    public long brewedAt() {
+        return brewedAt;
+    }
+
+    /** Game time of the first pour since filling, or {@link #SEALED}. */
+    public long openedAt() {
+        return openedAt;
+    }
+
+    /**
+     * Re-anchors the aged contents at {@code now} before they change. Only called for fills and
+     * pours, which happen the same way whether or not the chunk was loaded in between.
+     */
+    private void settle(long now) {
+        if (amountMb == 0 || !barrel.ages() || now <= agedAt) {
+            return;
+        }
+        int amount = amountMb(now);
+        quality = quality(now);
+        agedAt = now;
+        amountMb = amount;
+        if (amount == 0) {
+            clearContents();
+        }
+    }
+
+    /** The beverage's quality ceiling when it supports quality, otherwise full quality. */
+    private float targetQuality() {
+        var data = BeverageManager.get(beverageId());
+        if (data == null || !data.freshness().quality().supported()) {
+            return 1.0f;
+        }
+        return data.freshness().quality().ceiling();
+    }
+
+    private double days(long now) {
+        return Math.max(0L, now - agedAt) / 24000.0;
+    }
+
+    /** World time, or the aging anchor when the block entity is not in a world. */
+    private long now() {
+        return getWorld() != null ? getWorld().getTime() : agedAt;
+    }
+
+    private void changed() {
+        saved = null;
         markDirty();
+        if (network != null) {
+            network.wake();
+        }
+        if (syncToClient && beverage != syncedBeverage && getWorld() != null
+                && !getWorld().isClient()) {
+            syncedBeverage = beverage;
+            getWorld().updateListeners(getPos(), getCachedState(), getCachedState(),
+                    Block.NOTIFY_LISTENERS);
+        }
+    }
+
+    private void resetBudgets(long now) {
+        if (now != transferTick) {
+            transferTick = now;
+            filledThisTick = 0;
+            pouredThisTick = 0;
+        }
+    }
+
+    @Override
+    protected void readData(ReadView view) {
+        super.readData(view);
+        payload = view.read("payload", NbtCompound.CODEC).orElseGet(NbtCompound::new);
+        saved = null;
+        beverage = EMPTY;
+        syncedBeverage = EMPTY;
+        amountMb = 0;
+        quality = 0.0f;
+        agedAt = 0L;
+        brewedAt = 0L;
+        openedAt = SEALED;
+
+        String id = view.getOptionalString("beverage").orElse(null);
+        int index = id != null ? BeverageManager.indexOf(Identifier.tryParse(id)) : EMPTY;
+        if (index == EMPTY) {
+            return;
+        }
+        long[] state = view.getOptionalLongArray("state").orElse(null);
+        if (state == null || state.length < 4 || state[0] != SAVE_FORMAT) {
+            Alchemy.LOGGER.warn("Dropping contents of container at {}: unknown save format {}",
+                    getPos(), state != null && state.length > 0 ? state[0] : "none");
+            return;
+        }
+        int amount = (int) (state[1] >>> 32);
+        quality = Float.intBitsToFloat((int) state[1]);
+        brewedAt = state[2];
+        agedAt = state[3];
+        openedAt = state.length > 4 ? state[4] : SEALED;
+        amount = Math.min(amount, liquid.capacityMb());
+        if (amount <= 0) {
+            quality = 0.0f;
+            agedAt = 0L;
+            brewedAt = 0L;
+            openedAt = SEALED;
+            return;
+        }
+        beverage = index;
+        amountMb = amount;
+        syncedBeverage = index;
+    }
+
+    @Override
+    protected void writeData(WriteView view) {
+        super.writeData(view);
+        if (!payload.isEmpty()) {
+            view.put("payload", NbtCompound.CODEC, payload);
+        }
+        if (amountMb == 0 || beverage == EMPTY) {
+            return;
+        }
+        Saved current = saved;
+        if (current == null) {
+            current = pack();
+            saved = current;
+        }
+        view.putString("beverage", current.beverage());
+        view.putLongArray("state", current.state());
+    }
+
+    @Override
+    public BlockEntityUpdateS2CPacket toUpdatePacket() {
+        return syncToClient ? BlockEntityUpdateS2CPacket.create(this) : null;
+    }
+
+    @Override
+    public NbtCompound toInitialChunkDataNbt(RegistryWrapper.WrapperLookup registries) {
+        return syncToClient ? createComponentlessNbt(registries)
+                : super.toInitialChunkDataNbt(registries);
+    }
+
+    /** Packs the anchored contents, so a save is the same no matter when it happens. */
+    private Saved pack() {
+        long head = (long) amountMb << 32 | (Float.floatToRawIntBits(quality) & 0xFFFFFFFFL);
+        long[] state = openedAt == SEALED ? new long[] {SAVE_FORMAT, head, brewedAt, agedAt}
+                : new long[] {SAVE_FORMAT, head, brewedAt, agedAt, openedAt};
+        return new Saved(beverageId().toString(), state);
     }
 }
@@ -11,7 +11,7 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
 /**
- * Minimal equipment block with a backing block entity; ready to be extended with processing logic.
+ * Equipment block with a backing block entity. Using it opens the equipment's inventory.
  */
 public class EquipmentBlock extends BlockWithEntity {
     public static final MapCodec<EquipmentBlock> CODEC = createCodec(EquipmentBlock::new);
@@ -38,6 +38,10 @@ public class EquipmentBlock extends BlockWithEntity {
     @Override
     public ActionResult onUse(BlockState state, World world, BlockPos pos, PlayerEntity player,
             BlockHitResult hit) {
-        return world.isClient() ? ActionResult.SUCCESS : ActionResult.PASS;
+        if (!world.isClient()
+                && world.getBlockEntity(pos) instanceof EquipmentBlockEntity equipment) {
+            player.openHandledScreen(equipment);
+        }
+        return ActionResult.SUCCESS;
     }
 }
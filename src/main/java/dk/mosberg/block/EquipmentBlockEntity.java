@@ -1,19 +1,111 @@
 package dk.mosberg.block;
 
+import java.util.Arrays;
+import dk.mosberg.Alchemy;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.item.BeverageItem;
+import dk.mosberg.recipe.RecipeIndex;
 import dk.mosberg.registry.ModBlocks;
+import dk.mosberg.registry.ModItems;
+import dk.mosberg.schedule.MachineScheduler;
+import dk.mosberg.schedule.ScheduledMachine;
+import net.minecraft.block.Block;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.Inventories;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.inventory.SidedInventory;
+import net.minecraft.item.ItemStack;
 import net.minecraft.nbt.NbtCompound;
+import net.minecraft.network.packet.s2c.play.BlockEntityUpdateS2CPacket;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.screen.NamedScreenHandlerFactory;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.storage.ReadView;
+import net.minecraft.storage.WriteView;
+import net.minecraft.text.Text;
+import net.minecraft.util.ItemScatterer;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.collection.DefaultedList;
 import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
 
 /**
- * Stub equipment block entity that persists a small NBT blob for later upgrade to full logic.
+ * Equipment block entity: a slot-role inventory that brews beverages from its inputs. Processes
+ * such as fermentation or distillation run as a fixed number of stages over a duration; each stage
+ * transition is a deadline in the {@link MachineScheduler}, so the block entity never ticks. An
+ * optional NBT {@link #payload()} is kept alongside for add-on data.
+ *
+ * <p>Brewing is driven by inventory changes. When the input slots brew a beverage at this
+ * machine's stations, a process over the beverage's brew time starts; changing the inputs to
+ * something else drops it. When the last stage completes, one batch of ingredients is consumed and
+ * the beverage, stamped with its brew time, goes into the output slots. A full output holds the
+ * finished process until room is made. Breaking the machine cancels its pending deadlines.
+ *
+ * <p>The process is saved as one {@code long[]} of the {@link #SAVE_FORMAT format version}, start,
+ * duration and a word packing the stage count, completed stages and process number; a process
+ * saved in another format is dropped with a warning. Idle machines write nothing, and the
+ * packed array is reused across saves until the process state changes. Clients receive only that
+ * array, with the chunk and again whenever a process starts or stops, so they know which machines
+ * are processing.
+ *
+ * <p>The inventory follows the equipment's {@link SlotLayout}: automation inserts through every
+ * side except the bottom and extracts output slots through the bottom. Players use it through an
+ * {@link EquipmentScreenHandler}, whose shift-clicks go through {@link #quickMove} to fill slots
+ * by role priority. A bit per slot tracks which slots hold items, so searches walk only the slots
+ * of matching roles.
  */
-public class EquipmentBlockEntity extends BlockEntity {
+public class EquipmentBlockEntity extends BlockEntity
+        implements ScheduledMachine, SidedInventory, NamedScreenHandlerFactory {
+    /** Leading word of the saved {@code process} array; bump it when the layout changes. */
+    static final long SAVE_FORMAT = 1L;
+    private static final int STAGE_BITS = 8;
+    private static final int STAGE_MASK = (1 << STAGE_BITS) - 1;
+    private static final int RECENT_MATCHES = 4;
+    /** Stages a brew is split into, so its progress advances in quarters. */
+    private static final int BREW_STAGES = 4;
+
+    private final SlotLayout layout;
+    private final DefaultedList<ItemStack> items;
+    /** One bit per slot that may hold items; bits over stacks emptied elsewhere clear lazily. */
+    private final long[] occupied;
+    /** Bumped by every change; the last brewing match is reused while it is unchanged. */
+    private int contentsVersion;
+    private int matchedVersion = -1;
+    private int matchedGeneration = -1;
+    private RecipeIndex.Match match = RecipeIndex.Match.NONE;
+    /** Input contents recently resolved against the recipe index, with their matches. */
+    private final RecipeIndex.Contents[] recentContents = new RecipeIndex.Contents[RECENT_MATCHES];
+    private final RecipeIndex.Match[] recentMatches = new RecipeIndex.Match[RECENT_MATCHES];
+    private int recentNext;
     private NbtCompound payload = new NbtCompound();
+    /** Game time the running process started at, or -1 when idle. */
+    private long processStart = -1L;
+    private long processDuration;
+    private int stages;
+    /** Number of stages completed so far; the process is finished when it reaches stages. */
+    private int stage;
+    /** Bumped for every started process so deadlines of an earlier process are recognised. */
+    private int process;
+    /** Packed process state for the next save, or null if it changed since it was built. */
+    private long[] saved;
+    /** Beverage the running process brews; null until first checked after loading. */
+    private Identifier brewing;
+    /** Set while brewing updates the inventory, so its own changes do not re-enter it. */
+    private boolean updating;
+    /** Processing state clients were last sent. */
+    private boolean syncedProcessing;
 
     public EquipmentBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlocks.equipmentBlockEntityType(state.getBlock()), pos, state);
+        this.layout = SlotLayout.of(ModBlocks.equipmentData(state.getBlock()));
+        this.items = DefaultedList.ofSize(layout.capacity(), ItemStack.EMPTY);
+        this.occupied = new long[(layout.capacity() + Long.SIZE - 1) / Long.SIZE];
     }
 
     public NbtCompound payload() {
@@ -22,6 +114,495 @@ public class EquipmentBlockEntity extends BlockEntity {
 
     public void setPayload(NbtCompound payload) {
         this.payload = payload == null ? new NbtCompound() : payload.copy();
+        changed();
+    }
+
+    /**
+     * Starts a process of {@code stageCount} equal stages over {@code durationTicks}, replacing any
+     * running one, and schedules the first stage transition.
+     */
+    public void startProcess(long durationTicks, int stageCount) {
+        if (durationTicks <= 0 || stageCount <= 0 || stageCount > STAGE_MASK) {
+            throw new IllegalArgumentException("Process needs a positive duration and 1-"
+                    + STAGE_MASK + " stages, got " + durationTicks + " ticks, " + stageCount);
+        }
+        if (!(getWorld() instanceof ServerWorld world)) {
+            return;
+        }
+        processStart = world.getTime();
+        processDuration = durationTicks;
+        stages = stageCount;
+        stage = 0;
+        process++;
+        scheduleNextStage(world);
+        changed();
+    }
+
+    /** Returns whether a process is running and not yet finished. */
+    public boolean isProcessing() {
+        return processStart >= 0 && stage < stages;
+    }
+
+    /** Returns whether the last process ran to completion. */
+    public boolean isProcessComplete() {
+        return processStart >= 0 && stage >= stages;
+    }
+
+    /** Progress of the running process between 0 and 1 at game time {@code now}. */
+    public float progress(long now) {
+        if (processStart < 0) {
+            return 0.0f;
+        }
+        if (stage >= stages) {
+            return 1.0f;
+        }
+        return Math.min(1.0f, Math.max(0.0f, (now - processStart) / (float) processDuration));
+    }
+
+    /** Clears the process state; pending deadlines of the old process are ignored. */
+    public void resetProcess() {
+        processStart = -1L;
+        stage = 0;
+        stages = 0;
+        changed();
+    }
+
+    @Override
+    public void onDeadline(int tag, long now) {
+        // Deadlines of a replaced or reset process carry an older process number
+        if (!isProcessing() || tag != tag(stage + 1)) {
+            return;
+        }
+        stage++;
+        if (stage < stages && getWorld() instanceof ServerWorld world) {
+            scheduleNextStage(world);
+        }
+        changed();
+        updateBrewing();
+    }
+
+    /**
+     * Moves as much of {@code stack} as fits into the inventory, visiting roles in quick-move
+     * priority and merging into matching stacks before using empty slots. {@code stack} is
+     * decremented by the amount moved.
+     *
+     * @return whether anything was moved
+     */
+    public boolean quickMove(ItemStack stack) {
+        if (!layout.quickMove() || stack.isEmpty()) {
+            return false;
+        }
+        int roles = layout.roles(stack.getItem());
+        int limit = getMaxCount(stack);
+        boolean moved = false;
+        for (int role : layout.priority()) {
+            if ((roles & 1 << role) == 0) {
+                continue;
+            }
+            long[] slots = layout.slots(role);
+            for (int word = 0; word < slots.length && !stack.isEmpty(); word++) {
+                long bits = slots[word] & occupied[word];
+                while (bits != 0 && !stack.isEmpty()) {
+                    int slot = word << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    ItemStack existing = items.get(slot);
+                    if (existing.isEmpty()) {
+                        occupied[word] &= ~(1L << slot);
+                    } else if (existing.getCount() < limit
+                            && ItemStack.areItemsAndComponentsEqual(existing, stack)) {
+                        int amount = Math.min(limit - existing.getCount(), stack.getCount());
+                        existing.increment(amount);
+                        stack.decrement(amount);
+                        moved = true;
+                    }
+                }
+            }
+            for (int word = 0; word < slots.length && !stack.isEmpty(); word++) {
+                long bits = slots[word] & ~occupied[word];
+                while (bits != 0 && !stack.isEmpty()) {
+                    int slot = word << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    setStack(slot, stack.split(limit));
+                    moved = true;
+                }
+            }
+        }
+        if (moved) {
+            markDirty();
+        }
+        return moved;
+    }
+
+    /**
+     * Returns the beverage the input slots brew at this machine's stations. The result is reused
+     * until the inventory changes, and the last few distinct input contents are remembered so an
+     * inventory that returns to an earlier state is not looked up again.
+     */
+    public RecipeIndex.Match brewingMatch() {
+        RecipeIndex index = RecipeIndex.current();
+        if (matchedGeneration != index.generation()) {
+            matchedGeneration = index.generation();
+            Arrays.fill(recentContents, null);
+        } else if (matchedVersion == contentsVersion) {
+            return match;
+        }
+        matchedVersion = contentsVersion;
+        RecipeIndex.Contents contents = inputContents();
+        for (int i = 0; i < RECENT_MATCHES; i++) {
+            if (contents.equals(recentContents[i])) {
+                match = recentMatches[i];
+                return match;
+            }
+        }
+        BlockState state = getCachedState();
+        match = index.find(index.stations(state, ModBlocks.equipmentData(state.getBlock())),
+                contents);
+        recentContents[recentNext] = contents;
+        recentMatches[recentNext] = match;
+        recentNext = (recentNext + 1) % RECENT_MATCHES;
+        return match;
+    }
+
+    /**
+     * Finishes, drops or starts brewing to match the inventory. Runs on the server after every
+     * inventory change and stage completion; the recipe match it starts from is cached.
+     */
+    private void updateBrewing() {
+        if (updating || !(getWorld() instanceof ServerWorld world)) {
+            return;
+        }
+        updating = true;
+        try {
+            if (isProcessComplete() && !finishBrewing(world.getTime())) {
+                return;
+            }
+            RecipeIndex.Match match = brewingMatch();
+            if (isProcessing()) {
+                if (brewing == null) {
+                    brewing = match.beverage();
+                }
+                if (match.matches() && match.beverage().equals(brewing)) {
+                    return;
+                }
+                resetProcess();
+            }
+            BeverageData data = match.matches() ? BeverageManager.get(match.beverage()) : null;
+            if (data != null && ModItems.beverage(data.id()) instanceof BeverageItem) {
+                brewing = data.id();
+                long duration = Math.max(1, data.brewing().brewTimeTicks());
+                startProcess(duration, (int) Math.min(BREW_STAGES, duration));
+            }
+        } finally {
+            updating = false;
+        }
+    }
+
+    /**
+     * Turns one batch of ingredients into the brewed beverage. Drops the process if the inputs no
+     * longer brew it.
+     *
+     * @return false if the output slots have no room, leaving the finished process in place
+     */
+    boolean finishBrewing(long now) {
+        RecipeIndex.Match match = brewingMatch();
+        BeverageData data = match.matches() ? BeverageManager.get(match.beverage()) : null;
+        if (data == null || brewing != null && !brewing.equals(data.id())
+                || !(ModItems.beverage(data.id()) instanceof BeverageItem item)) {
+            resetProcess();
+            return true;
+        }
+        ItemStack output = new ItemStack(item);
+        item.stamp(output, now, now);
+        int slot = outputSlot(output);
+        if (slot < 0) {
+            return false;
+        }
+        for (BeverageData.Ingredient ingredient : data.brewing().ingredients()) {
+            consume(ingredient.item(), ingredient.count());
+        }
+        if (items.get(slot).isEmpty()) {
+            items.set(slot, output);
+            track(slot);
+        } else {
+            items.get(slot).increment(output.getCount());
+        }
+        resetProcess();
         markDirty();
+        return true;
+    }
+
+    /** First output slot that takes all of {@code stack}, preferring merges; -1 if none. */
+    private int outputSlot(ItemStack stack) {
+        long[] slots = layout.outputSlots();
+        int empty = -1;
+        for (int word = 0; word < slots.length; word++) {
+            long bits = slots[word];
+            while (bits != 0) {
+                int slot = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                ItemStack existing = items.get(slot);
+                if (existing.isEmpty()) {
+                    empty = empty < 0 ? slot : empty;
+                } else if (ItemStack.areItemsAndComponentsEqual(existing, stack)
+                        && existing.getCount() + stack.getCount() <= getMaxCount(existing)) {
+                    return slot;
+                }
+            }
+        }
+        return empty;
+    }
+
+    /** Removes {@code count} of {@code item} from the input slots. */
+    private void consume(Identifier item, int count) {
+        long[] slots = layout.inputSlots();
+        for (int word = 0; word < slots.length && count > 0; word++) {
+            long bits = slots[word] & occupied[word];
+            while (bits != 0 && count > 0) {
+                int slot = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                ItemStack stack = items.get(slot);
+                if (!stack.isEmpty() && Registries.ITEM.getId(stack.getItem()).equals(item)) {
+                    int taken = Math.min(count, stack.getCount());
+                    stack.decrement(taken);
+                    count -= taken;
+                    track(slot);
+                }
+            }
+        }
+    }
+
+    private RecipeIndex.Contents inputContents() {
+        long[] slots = layout.inputSlots();
+        RecipeIndex.Contents.Builder builder = new RecipeIndex.Contents.Builder(8);
+        for (int word = 0; word < slots.length; word++) {
+            long bits = slots[word] & occupied[word];
+            while (bits != 0) {
+                int slot = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                ItemStack stack = items.get(slot);
+                if (!stack.isEmpty()) {
+                    builder.add(Registries.ITEM.getId(stack.getItem()), stack.getCount());
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public void markDirty() {
+        contentsVersion++;
+        super.markDirty();
+        updateBrewing();
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (int word = 0; word < occupied.length; word++) {
+            long bits = occupied[word];
+            while (bits != 0) {
+                int slot = word << 6 | Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                if (!items.get(slot).isEmpty()) {
+                    return false;
+                }
+                occupied[word] &= ~(1L << slot);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public ItemStack getStack(int slot) {
+        return items.get(slot);
+    }
+
+    @Override
+    public ItemStack removeStack(int slot, int amount) {
+        ItemStack removed = Inventories.splitStack(items, slot, amount);
+        if (!removed.isEmpty()) {
+            track(slot);
+            markDirty();
+        }
+        return removed;
+    }
+
+    @Override
+    public ItemStack removeStack(int slot) {
+        ItemStack removed = Inventories.removeStack(items, slot);
+        if (!removed.isEmpty()) {
+            track(slot);
+            markDirty();
+        }
+        return removed;
+    }
+
+    @Override
+    public void setStack(int slot, ItemStack stack) {
+        items.set(slot, stack);
+        stack.capCount(getMaxCount(stack));
+        track(slot);
+        markDirty();
+    }
+
+    @Override
+    public int getMaxCountPerStack() {
+        return layout.stackLimit();
+    }
+
+    @Override
+    public boolean isValid(int slot, ItemStack stack) {
+        return layout.accepts(slot, stack);
+    }
+
+    @Override
+    public boolean canPlayerUse(PlayerEntity player) {
+        return Inventory.canPlayerUse(this, player);
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+        Arrays.fill(occupied, 0L);
+        markDirty();
+    }
+
+    @Override
+    public Text getDisplayName() {
+        return getCachedState().getBlock().getName();
+    }
+
+    @Override
+    public ScreenHandler createMenu(int syncId, PlayerInventory playerInventory,
+            PlayerEntity player) {
+        return EquipmentScreenHandler.create(syncId, playerInventory, this);
+    }
+
+    @Override
+    public int[] getAvailableSlots(Direction side) {
+        return side == Direction.DOWN ? layout.extractSlots() : layout.insertSlots();
+    }
+
+    @Override
+    public boolean canInsert(int slot, ItemStack stack, Direction side) {
+        return side != Direction.DOWN && layout.accepts(slot, stack);
+    }
+
+    @Override
+    public boolean canExtract(int slot, ItemStack stack, Direction side) {
+        return side == Direction.DOWN && layout.isOutput(slot);
+    }
+
+    @Override
+    public void onBlockReplaced(BlockPos pos, BlockState oldState) {
+        // Only breaking cancels deadlines; unloading keeps them, so markRemoved is not used
+        if (getWorld() instanceof ServerWorld world) {
+            MachineScheduler.cancel(world, pos);
+        }
+        if (getWorld() != null) {
+            ItemScatterer.spawn(getWorld(), pos, this);
+        }
+    }
+
+    private void track(int slot) {
+        if (items.get(slot).isEmpty()) {
+            occupied[slot >>> 6] &= ~(1L << slot);
+        } else {
+            occupied[slot >>> 6] |= 1L << slot;
+        }
+    }
+
+    private void scheduleNextStage(ServerWorld world) {
+        int next = stage + 1;
+        long deadline = processStart + processDuration * next / stages;
+        MachineScheduler.schedule(world, getPos(), deadline, tag(next));
+    }
+
+    /** Marks a process change; unlike {@link #markDirty} it leaves the inventory match alone. */
+    private void changed() {
+        saved = null;
+        super.markDirty();
+        boolean processing = isProcessing();
+        if (processing != syncedProcessing && getWorld() != null && !getWorld().isClient()) {
+            syncedProcessing = processing;
+            getWorld().updateListeners(getPos(), getCachedState(), getCachedState(),
+                    Block.NOTIFY_LISTENERS);
+        }
+    }
+
+    /** Deadline tag of {@code stage} in the current process. */
+    private int tag(int stage) {
+        return process << STAGE_BITS | stage;
+    }
+
+    @Override
+    protected void readData(ReadView view) {
+        super.readData(view);
+        payload = view.read("payload", NbtCompound.CODEC).orElseGet(NbtCompound::new);
+        items.clear();
+        Inventories.readData(view, items);
+        for (int slot = 0; slot < items.size(); slot++) {
+            track(slot);
+        }
+        saved = null;
+        processStart = -1L;
+        processDuration = 0L;
+        stages = 0;
+        stage = 0;
+        process = 0;
+        brewing = null;
+        long[] state = view.getOptionalLongArray("process").orElse(null);
+        if (state != null && state.length >= 4 && state[0] == SAVE_FORMAT) {
+            processStart = state[1];
+            processDuration = state[2];
+            stages = (int) (state[3] & STAGE_MASK);
+            stage = (int) ((state[3] >>> STAGE_BITS) & STAGE_MASK);
+            process = (int) (state[3] >>> (2 * STAGE_BITS));
+        } else if (state != null) {
+            Alchemy.LOGGER.warn("Dropping process of machine at {}: unknown save format {}",
+                    getPos(), state.length > 0 ? state[0] : "none");
+        }
+        syncedProcessing = isProcessing();
+    }
+
+    @Override
+    protected void writeData(WriteView view) {
+        super.writeData(view);
+        if (!payload.isEmpty()) {
+            view.put("payload", NbtCompound.CODEC, payload);
+        }
+        Inventories.writeData(view, items);
+        if (processStart >= 0 || process != 0) {
+            view.putLongArray("process", processState());
+        }
+    }
+
+    @Override
+    public BlockEntityUpdateS2CPacket toUpdatePacket() {
+        return BlockEntityUpdateS2CPacket.create(this);
+    }
+
+    @Override
+    public NbtCompound toInitialChunkDataNbt(RegistryWrapper.WrapperLookup registries) {
+        NbtCompound nbt = new NbtCompound();
+        if (processStart >= 0) {
+            nbt.putLongArray("process", processState());
+        }
+        return nbt;
+    }
+
+    /** Packed process state, built once per change. */
+    private long[] processState() {
+        long[] state = saved;
+        if (state == null) {
+            state = new long[] {SAVE_FORMAT, processStart, processDuration,
+                    (long) process << (2 * STAGE_BITS) | (long) stage << STAGE_BITS | stages};
+            saved = state;
+        }
+        return state;
     }
 }
@@ -0,0 +1,121 @@
+package dk.mosberg.block;
+
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.entity.player.PlayerInventory;
+import net.minecraft.inventory.Inventory;
+import net.minecraft.inventory.SimpleInventory;
+import net.minecraft.item.ItemStack;
+import net.minecraft.screen.ScreenHandler;
+import net.minecraft.screen.ScreenHandlerType;
+import net.minecraft.screen.slot.Slot;
+
+/**
+ * Equipment inventory shown as a vanilla chest screen of one to six rows, so clients need no
+ * screen of their own. Slots follow the equipment's {@link SlotLayout}: items only go into slots
+ * whose role takes them, and shift-clicking from the player inventory uses
+ * {@link EquipmentBlockEntity#quickMove}. Rows are padded to nine slots with locked empty slots.
+ */
+public final class EquipmentScreenHandler extends ScreenHandler {
+    private static final int COLUMNS = 9;
+    private static final ScreenHandlerType<?>[] TYPES = {ScreenHandlerType.GENERIC_9X1,
+            ScreenHandlerType.GENERIC_9X2, ScreenHandlerType.GENERIC_9X3,
+            ScreenHandlerType.GENERIC_9X4, ScreenHandlerType.GENERIC_9X5,
+            ScreenHandlerType.GENERIC_9X6};
+
+    private final EquipmentBlockEntity equipment;
+    /** Number of equipment and padding slots, which come before the player's slots. */
+    private final int machineSlots;
+
+    private EquipmentScreenHandler(int syncId, PlayerInventory playerInventory,
+            EquipmentBlockEntity equipment, int rows) {
+        super(TYPES[rows - 1], syncId);
+        this.equipment = equipment;
+        this.machineSlots = rows * COLUMNS;
+        int capacity = equipment.size();
+        Inventory padding = new SimpleInventory(machineSlots - capacity);
+        for (int slot = 0; slot < machineSlots; slot++) {
+            int x = 8 + slot % COLUMNS * 18;
+            int y = 18 + slot / COLUMNS * 18;
+            addSlot(slot < capacity ? new MachineSlot(equipment, slot, x, y)
+                    : new LockedSlot(padding, slot - capacity, x, y));
+        }
+        int offset = (rows - 4) * 18;
+        for (int row = 0; row < 3; row++) {
+            for (int column = 0; column < COLUMNS; column++) {
+                addSlot(new Slot(playerInventory, column + row * COLUMNS + COLUMNS,
+                        8 + column * 18, 103 + row * 18 + offset));
+            }
+        }
+        for (int column = 0; column < COLUMNS; column++) {
+            addSlot(new Slot(playerInventory, column, 8 + column * 18, 161 + offset));
+        }
+    }
+
+    /** Opens {@code equipment}, or returns null if its inventory is empty or too large to show. */
+    static EquipmentScreenHandler create(int syncId, PlayerInventory playerInventory,
+            EquipmentBlockEntity equipment) {
+        int rows = (equipment.size() + COLUMNS - 1) / COLUMNS;
+        if (rows < 1 || rows > TYPES.length) {
+            return null;
+        }
+        return new EquipmentScreenHandler(syncId, playerInventory, equipment, rows);
+    }
+
+    @Override
+    public ItemStack quickMove(PlayerEntity player, int index) {
+        Slot source = slots.get(index);
+        if (!source.hasStack()) {
+            return ItemStack.EMPTY;
+        }
+        ItemStack stack = source.getStack();
+        ItemStack original = stack.copy();
+        if (index < machineSlots) {
+            if (!insertItem(stack, machineSlots, slots.size(), true)) {
+                return ItemStack.EMPTY;
+            }
+        } else if (!equipment.quickMove(stack)) {
+            return ItemStack.EMPTY;
+        }
+        if (stack.isEmpty()) {
+            source.setStack(ItemStack.EMPTY);
+        } else {
+            source.markDirty();
+        }
+        source.onTakeItem(player, stack);
+        return original;
+    }
+
+    @Override
+    public boolean canUse(PlayerEntity player) {
+        return equipment.canPlayerUse(player);
+    }
+
+    /** Equipment slot that only takes what its role accepts; output slots take nothing. */
+    private static final class MachineSlot extends Slot {
+        MachineSlot(Inventory inventory, int index, int x, int y) {
+            super(inventory, index, x, y);
+        }
+
+        @Override
+        public boolean canInsert(ItemStack stack) {
+            return inventory.isValid(getIndex(), stack);
+        }
+    }
+
+    /** Padding that fills a row past the equipment's capacity. */
+    private static final class LockedSlot extends Slot {
+        LockedSlot(Inventory inventory, int index, int x, int y) {
+            super(inventory, index, x, y);
+        }
+
+        @Override
+        public boolean canInsert(ItemStack stack) {
+            return false;
+        }
+
+        @Override
+        public boolean canTakeItems(PlayerEntity player) {
+            return false;
+        }
+    }
+}
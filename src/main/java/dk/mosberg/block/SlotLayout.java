@@ -0,0 +1,256 @@
+package dk.mosberg.block;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import dk.mosberg.data.EquipmentData;
+import dk.mosberg.recipe.RecipeIndex;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+
+/**
+ * Compiled form of an equipment {@code inventory} block, shared by every block entity of that
+ * equipment. Each slot role becomes a bit mask over the slots, and each item is resolved once
+ * against the accept/reject tags into a bit mask of the roles that take it. Insertion checks are
+ * then a table lookup and an AND, and searches only visit the slots of matching roles.
+ *
+ * <p>A role whose name matches one of the accepted tags ({@code catalyst} and
+ * {@code alchemy:catalyst}) only takes items in that tag. The {@code input} role also takes any
+ * item a brewing recipe uses, so new recipes work without tagging their ingredients; rejected
+ * tags still apply. Slots in the {@code output} role never take insertions; they are the only
+ * slots automation may extract from. Item results are cached until the next tag or content
+ * reload.
+ */
+public final class SlotLayout {
+    public static final String INPUT = "input";
+    public static final String OUTPUT = "output";
+    private static final Map<Identifier, SlotLayout> LAYOUTS = new ConcurrentHashMap<>();
+    private static final SlotLayout EMPTY = new SlotLayout(EquipmentData.Inventory.NONE);
+
+    private final int capacity;
+    private final int stackLimit;
+    private final boolean quickMove;
+    private final TagKey<Item>[] accepts;
+    private final TagKey<Item>[] rejects;
+    /** Role index of every slot, or -1 for slots without a role. */
+    private final int[] slotRoles;
+    /** Slots of every role, as one bit per slot in 64-bit words. */
+    private final long[][] roleSlots;
+    /** Index of the {@code input} role, or -1 when the layout has none. */
+    private final int inputRole;
+    /** Slots of the {@code input} role, empty when the layout has none. */
+    private final long[] inputSlots;
+    /** Slots of the {@code output} role, empty when the layout has none. */
+    private final long[] outputSlots;
+    /** For every role, the tag an item needs to enter it, or null for any accepted item. */
+    private final TagKey<Item>[] roleTags;
+    /** Roles that take insertions, as one bit per role index. */
+    private final int insertableRoles;
+    /** Role indices in quick-move order. */
+    private final int[] priority;
+    private final int[] insertSlots;
+    private final int[] extractSlots;
+    /** Roles each item may enter, resolved on first use. */
+    private final Map<Item, Integer> itemRoles = new ConcurrentHashMap<>();
+    /** Generation of the recipe index {@link #itemRoles} was resolved against. */
+    private int recipeGeneration = -1;
+
+    @SuppressWarnings("unchecked")
+    SlotLayout(EquipmentData.Inventory inventory) {
+        this.capacity = inventory.capacity();
+        this.stackLimit = inventory.stackLimit();
+        this.quickMove = inventory.quickMove();
+        this.accepts = inventory.acceptsItemTags().stream()
+                .map(id -> TagKey.of(RegistryKeys.ITEM, id)).toArray(TagKey[]::new);
+        this.rejects = inventory.rejectsItemTags().stream()
+                .map(id -> TagKey.of(RegistryKeys.ITEM, id)).toArray(TagKey[]::new);
+
+        List<String> roles = new ArrayList<>();
+        for (EquipmentData.SlotRole role : inventory.slotRoles()) {
+            if (!roles.contains(role.role())) {
+                roles.add(role.role());
+            }
+        }
+        if (roles.size() > Integer.SIZE) {
+            throw new IllegalArgumentException("Inventory has " + roles.size()
+                    + " slot roles, at most " + Integer.SIZE + " are supported");
+        }
+        int words = (capacity + Long.SIZE - 1) / Long.SIZE;
+        this.slotRoles = new int[capacity];
+        Arrays.fill(slotRoles, -1);
+        this.roleSlots = new long[roles.size()][words];
+        for (EquipmentData.SlotRole role : inventory.slotRoles()) {
+            int index = roles.indexOf(role.role());
+            for (int slot = role.first(); slot <= role.last(); slot++) {
+                slotRoles[slot] = index;
+                roleSlots[index][slot >>> 6] |= 1L << slot;
+            }
+        }
+        this.inputRole = roles.indexOf(INPUT);
+        this.inputSlots = inputRole >= 0 ? roleSlots[inputRole] : new long[words];
+        int output = roles.indexOf(OUTPUT);
+        this.outputSlots = output >= 0 ? roleSlots[output] : new long[words];
+
+        this.roleTags = new TagKey[roles.size()];
+        int insertable = 0;
+        for (int i = 0; i < roles.size(); i++) {
+            String role = roles.get(i);
+            if (!OUTPUT.equals(role)) {
+                insertable |= 1 << i;
+            }
+            for (TagKey<Item> tag : accepts) {
+                if (tag.id().getPath().equals(role)) {
+                    roleTags[i] = tag;
+                }
+            }
+        }
+        this.insertableRoles = insertable;
+
+        List<Integer> order = new ArrayList<>();
+        for (String role : inventory.quickMovePriority()) {
+            int index = roles.indexOf(role);
+            if (index >= 0 && !order.contains(index)) {
+                order.add(index);
+            }
+        }
+        this.priority = order.stream().mapToInt(Integer::intValue).toArray();
+
+        List<Integer> insert = new ArrayList<>();
+        List<Integer> extract = new ArrayList<>();
+        for (int slot = 0; slot < capacity; slot++) {
+            if (slotRoles[slot] >= 0) {
+                ((insertable & 1 << slotRoles[slot]) != 0 ? insert : extract).add(slot);
+            }
+        }
+        this.insertSlots = insert.stream().mapToInt(Integer::intValue).toArray();
+        this.extractSlots = extract.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Drops cached item results whenever tags are reloaded. */
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED.register((registries, client) -> {
+            for (SlotLayout layout : LAYOUTS.values()) {
+                layout.itemRoles.clear();
+            }
+        });
+    }
+
+    /** Returns the shared layout of {@code data}, compiling it on first use. */
+    public static SlotLayout of(EquipmentData data) {
+        if (data == null) {
+            return EMPTY;
+        }
+        return LAYOUTS.computeIfAbsent(data.id(), id -> new SlotLayout(data.inventory()));
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int stackLimit() {
+        return stackLimit;
+    }
+
+    /** Slots automation may insert into, in slot order. Callers must not modify the array. */
+    public int[] insertSlots() {
+        return insertSlots;
+    }
+
+    /** Slots automation may extract from, in slot order. Callers must not modify the array. */
+    public int[] extractSlots() {
+        return extractSlots;
+    }
+
+    /** Returns whether {@code stack} may be inserted into {@code slot}. */
+    public boolean accepts(int slot, ItemStack stack) {
+        if (slot < 0 || slot >= capacity || slotRoles[slot] < 0 || stack.isEmpty()) {
+            return false;
+        }
+        return (roles(stack.getItem()) & 1 << slotRoles[slot]) != 0;
+    }
+
+    /** Returns whether automation may extract from {@code slot}. */
+    public boolean isOutput(int slot) {
+        return slot >= 0 && slot < capacity && slotRoles[slot] >= 0
+                && (insertableRoles & 1 << slotRoles[slot]) == 0;
+    }
+
+    boolean quickMove() {
+        return quickMove;
+    }
+
+    /** Role indices in quick-move order. */
+    int[] priority() {
+        return priority;
+    }
+
+    /** Slots of {@code role} as 64-bit words. Callers must not modify the array. */
+    long[] slots(int role) {
+        return roleSlots[role];
+    }
+
+    /** Slots of the {@code input} role as 64-bit words. Callers must not modify the array. */
+    long[] inputSlots() {
+        return inputSlots;
+    }
+
+    /** Slots of the {@code output} role as 64-bit words. Callers must not modify the array. */
+    long[] outputSlots() {
+        return outputSlots;
+    }
+
+    /** Roles {@code item} may enter, as one bit per role index. */
+    int roles(Item item) {
+        RecipeIndex recipes = RecipeIndex.current();
+        if (recipeGeneration != recipes.generation()) {
+            itemRoles.clear();
+            recipeGeneration = recipes.generation();
+        }
+        Integer cached = itemRoles.get(item);
+        if (cached == null) {
+            cached = resolve(item, recipes);
+            itemRoles.put(item, cached);
+        }
+        return cached;
+    }
+
+    private int resolve(Item item, RecipeIndex recipes) {
+        RegistryEntry<Item> entry = item.getRegistryEntry();
+        return resolve(entry::isIn, recipes.isIngredient(Registries.ITEM.getId(item)));
+    }
+
+    /**
+     * Roles of an item that is in the tags {@code isIn} holds for, and that a brewing recipe uses
+     * when {@code ingredient} is set.
+     */
+    int resolve(Predicate<TagKey<Item>> isIn, boolean ingredient) {
+        for (TagKey<Item> tag : rejects) {
+            if (isIn.test(tag)) {
+                return 0;
+            }
+        }
+        boolean accepted = accepts.length == 0;
+        for (TagKey<Item> tag : accepts) {
+            accepted |= isIn.test(tag);
+        }
+        int roles = accepted ? insertableRoles : 0;
+        for (int i = 0; i < roleTags.length; i++) {
+            if (roleTags[i] != null && !isIn.test(roleTags[i])) {
+                roles &= ~(1 << i);
+            }
+        }
+        if (inputRole >= 0 && ingredient) {
+            roles |= 1 << inputRole;
+        }
+        return roles;
+    }
+}
@@ -0,0 +1,40 @@
+package dk.mosberg.command;
+
+import com.mojang.brigadier.Command;
+import com.mojang.brigadier.CommandDispatcher;
+import dk.mosberg.Alchemy;
+import dk.mosberg.profiling.ConsumptionMetrics;
+import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
+import net.minecraft.server.command.CommandManager;
+import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.text.Text;
+
+/**
+ * The {@code /alchemy} operator command. {@code /alchemy stats} prints the consumption and effect
+ * counters collected by {@link ConsumptionMetrics} and resets them.
+ */
+public final class AlchemyCommand {
+    /** Entries listed per section; the full set is in the periodic dump. */
+    private static final int STATS_LIMIT = 10;
+
+    private AlchemyCommand() {}
+
+    /** Registers the command for every server the mod runs on. */
+    public static void register() {
+        CommandRegistrationCallback.EVENT.register(
+                (dispatcher, registryAccess, environment) -> register(dispatcher));
+    }
+
+    private static void register(CommandDispatcher<ServerCommandSource> dispatcher) {
+        dispatcher.register(CommandManager.literal(Alchemy.MOD_ID)
+                .requires(source -> source.hasPermissionLevel(2))
+                .then(CommandManager.literal("stats").executes(context -> {
+                    ServerCommandSource source = context.getSource();
+                    for (String line : ConsumptionMetrics.format(ConsumptionMetrics.report(true),
+                            STATS_LIMIT)) {
+                        source.sendFeedback(() -> Text.literal(line), false);
+                    }
+                    return Command.SINGLE_SUCCESS;
+                })));
+    }
+}
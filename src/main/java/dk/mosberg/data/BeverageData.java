@@ -14,14 +14,20 @@ import net.minecraft.util.math.random.Random;
  * per-effect chance.
  */
 public record BeverageData(Identifier id, String category, String style, Identifier container,
-        String rarity, int stackSize, Stats stats, List<EffectEntry> effects, TextKeys textKeys,
-        Config config) {
+        Rarity rarity, int stackSize, Stats stats, List<EffectEntry> effects, TextKeys textKeys,
+        Config config, Freshness freshness, Brewing brewing, List<Identifier> tags, Loot loot,
+        Visuals visuals) {
 
     public BeverageData {
         Objects.requireNonNull(id, "id");
         Objects.requireNonNull(container, "container");
         Objects.requireNonNull(stats, "stats");
         Objects.requireNonNull(effects, "effects");
+        Objects.requireNonNull(freshness, "freshness");
+        Objects.requireNonNull(brewing, "brewing");
+        Objects.requireNonNull(tags, "tags");
+        Objects.requireNonNull(loot, "loot");
+        Objects.requireNonNull(visuals, "visuals");
     }
 
     /** Convenience accessor for the primary (first) effect. */
@@ -49,6 +55,18 @@ public record BeverageData(Identifier id, String category, String style, Identif
         }
     }
 
+    /**
+     * Weight of this beverage in the loot tables it targets: {@code config.override_loot_weight}
+     * when set, otherwise {@code loot.weight}, and 0 while the beverage is disabled.
+     */
+    public int lootWeight() {
+        if (config != null && !config.enabled()) {
+            return 0;
+        }
+        Integer override = config != null ? config.overrideLootWeight() : null;
+        return Math.max(0, override != null ? override : loot.weight());
+    }
+
     /** Translation key helper with optional suffix. */
     public String translationKey(String suffix) {
         return "item." + id.getNamespace() + "." + id.getPath()
@@ -77,15 +95,101 @@ public record BeverageData(Identifier id, String category, String style, Identif
         }
     }
 
+    /**
+     * Translation keys from the definition's text block. They are unique to each beverage, so they
+     * are kept as parsed rather than pooled.
+     */
     public record TextKeys(String name, String lore, String tooltip, String effect, String brewTime,
             String ingredients, String container, String rarity, String category, String flavor,
             String warning, String crafting) {
     }
 
-    public record Config(boolean enabled, String overrideRarity, Integer overrideStackSize,
+    public record Config(boolean enabled, Rarity overrideRarity, Integer overrideStackSize,
             Integer overrideLootWeight, boolean disableRandomFailures, boolean disableSpoilage) {
     }
 
+    /**
+     * How quality and spoilage evolve after brewing, from the {@code quality}, {@code aging} and
+     * {@code spoilage} blocks. Values are rates per in-game day and are evaluated in closed form
+     * against the timestamps on each stack.
+     */
+    public record Freshness(Quality quality, Aging aging, Spoilage spoilage) {
+        /** Used when a definition declares none of the blocks: constant full quality. */
+        public static final Freshness NONE = new Freshness(new Quality(false, 1.0f, 0.0f, 1.0f),
+                new Aging(false, 0, 0, 0.0f), new Spoilage(false, 0.0f, 1.0f));
+    }
+
+    public record Quality(boolean supported, float onBrew, float floor, float ceiling) {
+    }
+
+    public record Aging(boolean supported, int minDays, int maxDays, float bonusPerDay) {
+    }
+
+    public record Spoilage(boolean enabled, float decayPerDay, float openedMultiplier) {
+    }
+
+    /**
+     * The {@code ingredients} list and the {@code brewing} block. A beverage without station tags
+     * can be brewed at any station.
+     */
+    public record Brewing(List<Ingredient> ingredients, List<Identifier> stationTags,
+            int brewTimeTicks) {
+        public static final Brewing NONE = new Brewing(List.of(), List.of(), 0);
+    }
+
+    public record Ingredient(Identifier item, int count) {
+    }
+
+    /** The {@code loot} block: the weight and the loot tables the beverage is injected into. */
+    public record Loot(int weight, List<Identifier> tables) {
+        public static final Loot NONE = new Loot(0, List.of());
+    }
+
+    /**
+     * {@code visuals.liquid_color} as 0xRRGGBB, and whether {@code client.use_liquid_tint} asks
+     * for the liquid layer of the item model to be tinted with it. {@code particle} is the ambient
+     * particle of placed containers holding the beverage, or null; {@code bubbles} sets how often
+     * it rises and {@code glow} adds glow particles.
+     */
+    public record Visuals(int liquidColor, boolean useLiquidTint, Identifier particle,
+            Bubbles bubbles, Glow glow) {
+        public static final Visuals NONE =
+                new Visuals(0xFFFFFF, false, null, Bubbles.NONE, Glow.NONE);
+
+        public Visuals {
+            Objects.requireNonNull(bubbles, "bubbles");
+            Objects.requireNonNull(glow, "glow");
+        }
+    }
+
+    /** Closed set of {@code visuals.bubbles} values. */
+    public enum Bubbles {
+        NONE, LIGHT, MEDIUM, HEAVY;
+
+        public static Bubbles of(String value) {
+            for (Bubbles bubbles : values()) {
+                if (bubbles.name().equalsIgnoreCase(value)) {
+                    return bubbles;
+                }
+            }
+            throw new IllegalArgumentException("Unknown bubbles level: " + value);
+        }
+    }
+
+    /** Closed set of {@code visuals.glow} values. */
+    public enum Glow {
+        NONE, SUBTLE, STRONG;
+
+        public static Glow of(String value) {
+            for (Glow glow : values()) {
+                if (glow.name().equalsIgnoreCase(value)) {
+                    return glow;
+                }
+            }
+            throw new IllegalArgumentException("Unknown glow level: " + value);
+        }
+    }
+
     /** Functional interface for applying computed effect instances. */
     @FunctionalInterface
     public interface BeverageEffectSink {
@@ -1,33 +1,124 @@
 package dk.mosberg.data;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import dk.mosberg.Alchemy;
+import dk.mosberg.effect.BeverageEffectManager;
+import dk.mosberg.effect.EffectProgram;
 import net.minecraft.util.Identifier;
 
 /**
- * Central registry for beverage definitions loaded from data/alchemy/alcohol/*.json files. All
- * beverages must be registered before items are created. Thread-safe as long as all registration
- * happens during mod initialization.
+ * Central registry for beverage definitions loaded from data/alchemy/beverages/**.json files. All
+ * beverages must be registered before items are created. The definitions are held in one immutable
+ * {@link Snapshot}; reloads build a complete replacement and publish it with a single volatile
+ * write, so readers on any thread always see a consistent set.
  */
 public final class BeverageManager {
-    private static final Map<Identifier, BeverageData> BEVERAGES = new LinkedHashMap<>();
+    private static volatile Snapshot current = new Snapshot(0, Map.of(), Map.of());
+    /** Definitions that items were registered with; reloads can replace but never add ids. */
+    private static volatile Map<Identifier, BeverageData> registered = Map.of();
+    /** Registered ids in registration order; a beverage's position is its index. */
+    private static volatile Identifier[] ids = new Identifier[0];
+    private static volatile Map<Identifier, Integer> indices = Map.of();
 
     private BeverageManager() {}
 
+    /**
+     * Immutable view of all beverage definitions at one point in time, together with their compiled
+     * effect programs. The generation increases with every publish so derived caches can tell when
+     * they are stale.
+     */
+    public record Snapshot(int generation, Map<Identifier, BeverageData> beverages,
+            Map<Identifier, EffectProgram> programs) {
+        public BeverageData get(Identifier id) {
+            return beverages.get(id);
+        }
+
+        public EffectProgram program(Identifier id) {
+            return programs.get(id);
+        }
+    }
+
     /**
      * Registers a new beverage definition.
      */
     public static BeverageData register(BeverageData data) {
         Objects.requireNonNull(data, "Beverage data cannot be null");
-        BEVERAGES.put(data.id(), data);
+        registerAll(java.util.List.of(data));
         return data;
     }
 
     /** Registers all beverages from the provided collection. */
-    public static void registerAll(Collection<BeverageData> beverages) {
-        beverages.forEach(BeverageManager::register);
+    public static synchronized void registerAll(Collection<BeverageData> beverages) {
+        Map<Identifier, BeverageData> next = new LinkedHashMap<>(registered);
+        for (BeverageData data : beverages) {
+            Objects.requireNonNull(data, "Beverage data cannot be null");
+            next.put(data.id(), data);
+        }
+        registered = Collections.unmodifiableMap(next);
+        Identifier[] nextIds = next.keySet().toArray(new Identifier[0]);
+        Map<Identifier, Integer> nextIndices = new HashMap<>();
+        for (int i = 0; i < nextIds.length; i++) {
+            nextIndices.put(nextIds[i], i);
+        }
+        ids = nextIds;
+        indices = Collections.unmodifiableMap(nextIndices);
+        swap(next);
+    }
+
+    /**
+     * Publishes reloaded definitions. Every registered beverage takes its reloaded definition when
+     * one exists and otherwise keeps the definition it was registered with; ids that have no
+     * registered item are skipped because items cannot be added after registry freeze.
+     *
+     * @return the snapshot that is now current
+     */
+    public static synchronized Snapshot publish(Map<Identifier, BeverageData> reloaded) {
+        Map<Identifier, BeverageData> next = new LinkedHashMap<>();
+        for (Map.Entry<Identifier, BeverageData> entry : registered.entrySet()) {
+            next.put(entry.getKey(), reloaded.getOrDefault(entry.getKey(), entry.getValue()));
+        }
+        for (Identifier id : reloaded.keySet()) {
+            if (!registered.containsKey(id)) {
+                Alchemy.LOGGER.warn("Ignoring reloaded beverage {}: it has no registered item", id);
+            }
+        }
+        return swap(next);
+    }
+
+    private static Snapshot swap(Map<Identifier, BeverageData> beverages) {
+        Map<Identifier, EffectProgram> programs = new HashMap<>();
+        for (BeverageData data : beverages.values()) {
+            programs.put(data.id(), BeverageEffectManager.compile(data));
+        }
+        Snapshot next = new Snapshot(current.generation() + 1,
+                Collections.unmodifiableMap(beverages), Collections.unmodifiableMap(programs));
+        current = next;
+        return next;
+    }
+
+    /**
+     * Returns the compact index of a registered beverage, or -1 if it is not registered. Indices
+     * are stable for the lifetime of the game but not across restarts, so persist ids instead.
+     */
+    public static int indexOf(Identifier id) {
+        Integer index = indices.get(id);
+        return index != null ? index : -1;
+    }
+
+    /** Returns the id of the beverage at {@code index}, or null if the index is out of range. */
+    public static Identifier idAt(int index) {
+        Identifier[] current = ids;
+        return index >= 0 && index < current.length ? current[index] : null;
+    }
+
+    /** Returns the current snapshot. Hold on to it to read several values consistently. */
+    public static Snapshot snapshot() {
+        return current;
     }
 
     /**
@@ -37,7 +128,7 @@ public final class BeverageManager {
      * @return the beverage data, or null if not registered
      */
     public static BeverageData get(Identifier id) {
-        return BEVERAGES.get(id);
+        return current.get(id);
     }
 
     /**
@@ -46,6 +137,6 @@ public final class BeverageManager {
      * @return collection of all registered beverage definitions
      */
     public static Collection<BeverageData> all() {
-        return BEVERAGES.values();
+        return current.beverages().values();
     }
 }
@@ -0,0 +1,143 @@
+package dk.mosberg.data;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import dk.mosberg.Alchemy;
+import dk.mosberg.loot.BeverageLoot;
+import dk.mosberg.recipe.RecipeIndex;
+import net.fabricmc.fabric.api.resource.IdentifiableResourceReloadListener;
+import net.fabricmc.fabric.api.resource.ResourceManagerHelper;
+import net.minecraft.resource.Resource;
+import net.minecraft.resource.ResourceManager;
+import net.minecraft.resource.ResourceType;
+import net.minecraft.resource.SinglePreparationResourceReloader;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.profiler.Profiler;
+
+/**
+ * Reloads beverage definitions from {@code data/<namespace>/beverages/**.json} on every datapack
+ * (re)load. Files are read and parsed on the reload worker executor; the server thread only swaps
+ * the finished {@link BeverageManager.Snapshot}. Each resource is remembered with the SHA-256 of
+ * its bytes, and unchanged resources reuse their previously parsed definition. A resource that
+ * fails to parse keeps its last good definition so a typo in one file does not disable a beverage.
+ *
+ * <p>The zipped packs in {@code config/alchemy/packs} are read after the datapack resources, in the
+ * same order as at startup (see {@link ExternalContentPacks}), so a pack that overrides a beverage
+ * keeps overriding it after {@code /reload}.
+ */
+public final class BeverageReloadListener
+        extends SinglePreparationResourceReloader<BeverageReloadListener.Prepared>
+        implements IdentifiableResourceReloadListener {
+    private static final Identifier ID = Identifier.of(Alchemy.MOD_ID, "beverages");
+    private static final String DIRECTORY = "beverages";
+
+    /** Parsed files of the last applied reload, keyed by resource id or pack file URI. */
+    private volatile Map<String, Entry> entries = Map.of();
+
+    private BeverageReloadListener() {}
+
+    /** Registers the listener for server data reloads. */
+    public static void register() {
+        ResourceManagerHelper.get(ResourceType.SERVER_DATA)
+                .registerReloadListener(new BeverageReloadListener());
+    }
+
+    private record Entry(byte[] hash, BeverageData data) {}
+
+    /** One beverage file, from the resource manager or a content pack. */
+    private record Source(String key, Opener opener) {}
+
+    @FunctionalInterface
+    private interface Opener {
+        InputStream open() throws IOException;
+    }
+
+    /** Result of the preparation stage: the full file set and how many were re-parsed. */
+    record Prepared(Map<String, Entry> entries, int reparsed) {}
+
+    @Override
+    public Identifier getFabricId() {
+        return ID;
+    }
+
+    @Override
+    protected Prepared prepare(ResourceManager manager, Profiler profiler) {
+        Map<String, Entry> previous = entries;
+        List<Source> sources = new ArrayList<>();
+        for (Map.Entry<Identifier, Resource> resource : manager
+                .findResources(DIRECTORY, id -> id.getPath().endsWith(".json")).entrySet()) {
+            sources.add(new Source(resource.getKey().toString(),
+                    resource.getValue()::getInputStream));
+        }
+        AtomicInteger reparsed = new AtomicInteger();
+        List<Entry> loaded;
+        try (ExternalContentPacks packs =
+                ExternalContentPacks.mount(ExternalContentPacks.defaultDirectory())) {
+            for (Path file : DataLoader.beverageFiles(packs.dataRoots())) {
+                sources.add(new Source(file.toUri().toString(), () -> Files.newInputStream(file)));
+            }
+            // Stream#toList keeps encounter order, so later packs still override earlier files
+            loaded = sources.parallelStream().map(source -> load(source,
+                    previous.get(source.key()), reparsed)).toList();
+        }
+
+        Map<String, Entry> next = new LinkedHashMap<>();
+        for (int i = 0; i < sources.size(); i++) {
+            if (loaded.get(i) != null) {
+                next.put(sources.get(i).key(), loaded.get(i));
+            }
+        }
+        return new Prepared(next, reparsed.get());
+    }
+
+    @Override
+    protected void apply(Prepared prepared, ResourceManager manager, Profiler profiler) {
+        entries = prepared.entries();
+        Map<Identifier, BeverageData> beverages = new LinkedHashMap<>();
+        for (Entry entry : prepared.entries().values()) {
+            beverages.put(entry.data().id(), entry.data());
+        }
+        BeverageManager.Snapshot snapshot = BeverageManager.publish(beverages);
+        // Rebuild derived lookups now rather than on the first machine lookup or loot roll
+        RecipeIndex.current();
+        TagIndex.current();
+        BeverageLoot.refresh();
+        Alchemy.LOGGER.info("Reloaded {} beverages ({} re-parsed), generation {}",
+                beverages.size(), prepared.reparsed(), snapshot.generation());
+        Interner.finish("Beverage reload");
+    }
+
+    private static Entry load(Source source, Entry previous, AtomicInteger reparsed) {
+        byte[] bytes;
+        try (InputStream in = source.opener().open()) {
+            bytes = in.readAllBytes();
+        } catch (IOException e) {
+            Alchemy.LOGGER.error("Failed to read beverage JSON {}", source.key(), e);
+            return previous;
+        }
+        byte[] hash = ContentPackCache.sha256().digest(bytes);
+        if (previous != null && Arrays.equals(previous.hash(), hash)) {
+            return previous;
+        }
+        reparsed.incrementAndGet();
+        try (Reader reader = new InputStreamReader(new ByteArrayInputStream(bytes),
+                StandardCharsets.UTF_8)) {
+            return new Entry(hash, DataLoader.readBeverage(reader));
+        } catch (Exception e) {
+            Alchemy.LOGGER.error("Failed to parse beverage JSON {}", source.key(), e);
+            return previous;
+        }
+    }
+}
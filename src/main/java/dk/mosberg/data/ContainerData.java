@@ -1,5 +1,6 @@
 package dk.mosberg.data;
 
+import java.util.List;
 import net.minecraft.item.consume.UseAction;
 import net.minecraft.util.Identifier;
 
@@ -8,11 +9,26 @@ import net.minecraft.util.Identifier;
  * required for item registration and basic interactions are represented here. Additional raw data
  * can be added later as needed.
  */
-public record ContainerData(Identifier id, String containerKind, int stackSize, String rarity,
-        Durability durability, Interaction interaction, Seal seal, StateStorage stateStorage) {
+public record ContainerData(Identifier id, String containerKind, int stackSize, Rarity rarity,
+        Durability durability, Interaction interaction, Seal seal, StateStorage stateStorage,
+        Liquid liquid, Barrel barrel) {
 
     public record Durability(boolean breakable, int maxDamage, boolean fireproof,
-            String explosionResistance) {
+            ExplosionResistance explosionResistance) {
+    }
+
+    /** Closed set of {@code durability.explosion_resistance} values. */
+    public enum ExplosionResistance {
+        LOW, MEDIUM, HIGH;
+
+        public static ExplosionResistance of(String value) {
+            for (ExplosionResistance resistance : values()) {
+                if (resistance.name().equalsIgnoreCase(value)) {
+                    return resistance;
+                }
+            }
+            throw new IllegalArgumentException("Unknown explosion resistance: " + value);
+        }
     }
 
     public record Interaction(UseAction useAction, boolean returnsContainer,
@@ -22,6 +38,58 @@ public record ContainerData(Identifier id, String containerKind, int stackSize,
     public record Seal(boolean startsSealed, boolean reopenable, String sealQuality) {
     }
 
+    /**
+     * The {@code liquid} block: how many millibuckets the container holds and how fast it can be
+     * filled or poured per tick. {@code pipeSides} has bit {@code Direction.ordinal()} set for
+     * every face listed in {@code transfer.pipe_sides}; a placed container only joins transfer
+     * networks through those faces, and through none when the list is absent.
+     */
+    public record Liquid(boolean canContainLiquid, int capacityMb, int defaultFillMb,
+            int fillRateMbPerTick, int pourRateMbPerTick, boolean allowPartial,
+            List<Identifier> acceptedTags, int pipeSides) {
+        /** Used for containers without a {@code liquid} block. */
+        public static final Liquid NONE = new Liquid(false, 0, 0, 0, 0, false, List.of(), 0);
+
+        /**
+         * Millibuckets one beverage item in this container holds: {@code default_fill_mb}, or the
+         * whole capacity when that is 0.
+         */
+        public int servingMb() {
+            return defaultFillMb > 0 ? defaultFillMb : capacityMb;
+        }
+    }
+
+    /**
+     * The {@code barrel_logic} block. Aging is a pure function of elapsed days: the volume shrinks
+     * by {@code evaporationPerDay} and the quality closes {@code qualityTransferRate} of its gap to
+     * the target per day, sped up by {@code agingRateMultiplier}. Both are geometric, so aging over
+     * {@code a + b} days equals aging over {@code a} days and then {@code b} days, and the result
+     * does not depend on how often it is evaluated.
+     */
+    public record Barrel(boolean ages, float agingRateMultiplier, float evaporationPerDay,
+            float qualityTransferRate) {
+        /** Used for containers without a {@code barrel_logic} block. */
+        public static final Barrel NONE = new Barrel(false, 0.0f, 0.0f, 0.0f);
+
+        /** Volume left of {@code amountMb} after {@code days}, rounded down. */
+        public int amountAfter(int amountMb, double days) {
+            if (!ages || days <= 0.0 || evaporationPerDay <= 0.0f) {
+                return amountMb;
+            }
+            return (int) (amountMb * Math.pow(1.0 - Math.min(1.0, evaporationPerDay), days));
+        }
+
+        /** Quality after {@code days}, starting at {@code quality} and moving toward target. */
+        public float qualityAfter(float quality, float target, double days) {
+            if (!ages || days <= 0.0 || qualityTransferRate <= 0.0f) {
+                return quality;
+            }
+            double remaining = Math.pow(1.0 - Math.min(1.0, qualityTransferRate),
+                    days * agingRateMultiplier);
+            return (float) (target - (target - quality) * remaining);
+        }
+    }
+
     public record StateStorage(PlacedBlock placedBlock) {
     }
 
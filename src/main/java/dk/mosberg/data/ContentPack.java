@@ -25,4 +25,9 @@ public record ContentPack(Map<Identifier, BeverageData> beverages,
     public ContainerData container(Identifier id) {
         return containers.get(id);
     }
+
+    /** Total number of definitions across all categories. */
+    public int size() {
+        return beverages.size() + containers.size() + equipment.size();
+    }
 }
@@ -0,0 +1,687 @@
+package dk.mosberg.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import dk.mosberg.Alchemy;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.item.consume.UseAction;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Binary snapshot of a resolved {@link ContentPack}. The snapshot is keyed by a SHA-256 over every
+ * input file and the mod version, so a warm start only has to hash the JSON instead of parsing it,
+ * and an update that parses the same files differently never reads an older snapshot. Files are
+ * written atomically and read through a read-only memory map, which lets several server instances
+ * share one cache file. Any mismatch or decode failure makes the caller fall back to full parsing.
+ */
+final class ContentPackCache {
+    /** Bump whenever the binary layout or the parsed record shapes change. */
+    private static final int FORMAT_VERSION = 13;
+    private static final int MAGIC = 0x414C4350; // "ALCP"
+    private static final int HASH_BYTES = 32;
+
+    private ContentPackCache() {}
+
+    /**
+     * Resolves the cache location. {@code -Dalchemy.contentCache=<path>} points several instances
+     * at one shared file; {@code -Dalchemy.contentCache=off} disables the cache.
+     */
+    static Path defaultLocation() {
+        String configured = System.getProperty("alchemy.contentCache");
+        if (configured == null) {
+            return FabricLoader.getInstance().getGameDir().resolve("cache").resolve(Alchemy.MOD_ID)
+                    .resolve("content-pack.bin");
+        }
+        if (configured.isBlank() || "off".equalsIgnoreCase(configured)
+                || "false".equalsIgnoreCase(configured)) {
+            return null;
+        }
+        return Path.of(configured);
+    }
+
+    /**
+     * Hashes the format and mod versions, then the given file groups in order. Each file
+     * contributes its group index, its path relative to the owning data root and its bytes; files
+     * are digested in parallel and the per-file digests are folded in discovery order.
+     */
+    static byte[] key(List<List<Path>> groups, List<Path> dataRoots) throws IOException {
+        MessageDigest digest = sha256();
+        digest.update(intBytes(FORMAT_VERSION));
+        digest.update(modVersion().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        for (int group = 0; group < groups.size(); group++) {
+            List<Path> files = groups.get(group);
+            List<byte[]> fileDigests = files.parallelStream()
+                    .map(path -> fileDigest(path, dataRoots)).toList();
+            digest.update(intBytes(group));
+            digest.update(intBytes(files.size()));
+            for (byte[] fileDigest : fileDigests) {
+                if (fileDigest == null) {
+                    throw new IOException("Unreadable data file while hashing content");
+                }
+                digest.update(fileDigest);
+            }
+        }
+        return digest.digest();
+    }
+
+    /** Version of the running mod, so parser changes in a release invalidate older snapshots. */
+    private static String modVersion() {
+        return FabricLoader.getInstance().getModContainer(Alchemy.MOD_ID)
+                .map(container -> container.getMetadata().getVersion().getFriendlyString())
+                .orElse("");
+    }
+
+    private static byte[] fileDigest(Path path, List<Path> dataRoots) {
+        try {
+            MessageDigest digest = sha256();
+            digest.update(relativeName(path, dataRoots).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(Files.readAllBytes(path));
+            return digest.digest();
+        } catch (IOException e) {
+            Alchemy.LOGGER.warn("Failed to hash data file {}", path, e);
+            return null;
+        }
+    }
+
+    private static String relativeName(Path path, List<Path> dataRoots) {
+        for (int i = 0; i < dataRoots.size(); i++) {
+            Path root = dataRoots.get(i);
+            if (path.startsWith(root)) {
+                return i + ":" + root.relativize(path).toString().replace('\\', '/');
+            }
+        }
+        return path.toString();
+    }
+
+    /**
+     * Reads and decodes the snapshot at {@code file} if it exists and was written for {@code key}.
+     *
+     * @return the cached pack, or null when the cache is missing, stale or unreadable
+     */
+    static ContentPack read(Path file, byte[] key) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                return null;
+            }
+            byte[] stored = new byte[HASH_BYTES];
+            buffer.get(stored);
+            if (!Arrays.equals(stored, key)) {
+                return null;
+            }
+            return new Decoder(buffer).pack();
+        } catch (Exception e) {
+            Alchemy.LOGGER.warn("Ignoring unreadable content cache {}", file, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot through a temporary sibling file and an atomic rename so concurrent
+     * readers never observe a partial file. Failures (read-only shared location, full disk) are
+     * logged and otherwise ignored.
+     */
+    static void write(Path file, byte[] key, ContentPack pack) {
+        try {
+            byte[] body = new Encoder().pack(pack);
+            Path dir = file.toAbsolutePath().getParent();
+            Files.createDirectories(dir);
+            Path temp = Files.createTempFile(dir, "content-pack", ".tmp");
+            try {
+                ByteBuffer header = ByteBuffer.allocate(8 + HASH_BYTES);
+                header.putInt(MAGIC).putInt(FORMAT_VERSION).put(key).flip();
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer[] buffers = {header, ByteBuffer.wrap(body)};
+                    while (buffers[1].hasRemaining()) {
+                        channel.write(buffers);
+                    }
+                }
+                Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | RuntimeException e) {
+            Alchemy.LOGGER.warn("Could not write content cache {}", file, e);
+        }
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 unavailable", e);
+        }
+    }
+
+    private static byte[] intBytes(int value) {
+        return ByteBuffer.allocate(4).putInt(value).array();
+    }
+
+    // --- encoding --------------------------------------------------------
+
+    /**
+     * Writes records into a body buffer while collecting a string table; identifiers and free-form
+     * strings become varint references into that table.
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> strings = new LinkedHashMap<>();
+        private final ByteArrayOutputStream bodyBytes = new ByteArrayOutputStream();
+        private final DataOutputStream body = new DataOutputStream(bodyBytes);
+
+        byte[] pack(ContentPack pack) throws IOException {
+            varint(pack.beverages().size());
+            for (BeverageData data : pack.beverageValues()) {
+                beverage(data);
+            }
+            varint(pack.containers().size());
+            for (ContainerData data : pack.containerValues()) {
+                container(data);
+            }
+            varint(pack.equipment().size());
+            for (EquipmentData data : pack.equipmentValues()) {
+                equipment(data);
+            }
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bodyBytes.size() + 1024);
+            DataOutputStream table = new DataOutputStream(out);
+            writeVarint(table, strings.size());
+            for (String value : strings.keySet()) {
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                writeVarint(table, utf8.length);
+                table.write(utf8);
+            }
+            bodyBytes.writeTo(out);
+            return out.toByteArray();
+        }
+
+        private void beverage(BeverageData data) throws IOException {
+            id(data.id());
+            string(data.category());
+            string(data.style());
+            id(data.container());
+            body.writeByte(data.rarity().ordinal());
+            varint(data.stackSize());
+
+            BeverageData.Stats stats = data.stats();
+            body.writeDouble(stats.alcoholByVolume());
+            body.writeDouble(stats.strength());
+            body.writeDouble(stats.intoxication().value());
+            body.writeDouble(stats.intoxication().decayRatePerTick());
+            varint(stats.nutrition().hunger());
+            body.writeFloat(stats.nutrition().saturation());
+
+            varint(data.effects().size());
+            for (BeverageData.EffectEntry entry : data.effects()) {
+                id(entry.effect().getKey().orElseThrow().getValue());
+                varint(entry.durationTicks());
+                varint(entry.amplifier());
+                body.writeFloat(entry.chance());
+                flags(entry.showParticles(), entry.showIcon(), entry.ambient());
+            }
+
+            BeverageData.TextKeys keys = data.textKeys();
+            for (String key : new String[] {keys.name(), keys.lore(), keys.tooltip(),
+                    keys.effect(), keys.brewTime(), keys.ingredients(), keys.container(),
+                    keys.rarity(), keys.category(), keys.flavor(), keys.warning(),
+                    keys.crafting()}) {
+                string(key);
+            }
+
+            BeverageData.Config config = data.config();
+            flags(config.enabled(), config.disableRandomFailures(), config.disableSpoilage());
+            body.writeByte(config.overrideRarity() == null ? 0
+                    : config.overrideRarity().ordinal() + 1);
+            optionalInt(config.overrideStackSize());
+            optionalInt(config.overrideLootWeight());
+
+            BeverageData.Freshness freshness = data.freshness();
+            BeverageData.Quality quality = freshness.quality();
+            BeverageData.Aging aging = freshness.aging();
+            BeverageData.Spoilage spoilage = freshness.spoilage();
+            flags(quality.supported(), aging.supported(), spoilage.enabled());
+            body.writeFloat(quality.onBrew());
+            body.writeFloat(quality.floor());
+            body.writeFloat(quality.ceiling());
+            varint(aging.minDays());
+            varint(aging.maxDays());
+            body.writeFloat(aging.bonusPerDay());
+            body.writeFloat(spoilage.decayPerDay());
+            body.writeFloat(spoilage.openedMultiplier());
+
+            BeverageData.Brewing brewing = data.brewing();
+            varint(brewing.ingredients().size());
+            for (BeverageData.Ingredient ingredient : brewing.ingredients()) {
+                id(ingredient.item());
+                varint(ingredient.count());
+            }
+            ids(brewing.stationTags());
+            varint(brewing.brewTimeTicks());
+            ids(data.tags());
+            varint(data.loot().weight());
+            ids(data.loot().tables());
+            BeverageData.Visuals visuals = data.visuals();
+            flags(visuals.useLiquidTint());
+            body.writeInt(visuals.liquidColor());
+            id(visuals.particle());
+            body.writeByte(visuals.bubbles().ordinal());
+            body.writeByte(visuals.glow().ordinal());
+        }
+
+        private void container(ContainerData data) throws IOException {
+            id(data.id());
+            string(data.containerKind());
+            varint(data.stackSize());
+            body.writeByte(data.rarity().ordinal());
+
+            ContainerData.Durability durability = data.durability();
+            flags(durability.breakable(), durability.fireproof());
+            varint(durability.maxDamage());
+            body.writeByte(durability.explosionResistance().ordinal());
+
+            ContainerData.Interaction interaction = data.interaction();
+            string(interaction.useAction().name());
+            id(interaction.returnItemId());
+            flags(interaction.returnsContainer(), interaction.consumeOnUse(),
+                    interaction.consumeOnDrink());
+
+            ContainerData.Seal seal = data.seal();
+            flags(seal.startsSealed(), seal.reopenable());
+            string(seal.sealQuality());
+
+            ContainerData.PlacedBlock placed = data.stateStorage().placedBlock();
+            flags(placed.enabled(), placed.syncToClient(), placed.dropsKeepContents());
+            id(placed.blockId());
+            id(placed.blockEntityId());
+
+            ContainerData.Liquid liquid = data.liquid();
+            flags(liquid.canContainLiquid(), liquid.allowPartial());
+            varint(liquid.capacityMb());
+            varint(liquid.defaultFillMb());
+            varint(liquid.fillRateMbPerTick());
+            varint(liquid.pourRateMbPerTick());
+            ids(liquid.acceptedTags());
+            varint(liquid.pipeSides());
+
+            ContainerData.Barrel barrel = data.barrel();
+            flags(barrel.ages());
+            body.writeFloat(barrel.agingRateMultiplier());
+            body.writeFloat(barrel.evaporationPerDay());
+            body.writeFloat(barrel.qualityTransferRate());
+        }
+
+        private void equipment(EquipmentData data) throws IOException {
+            id(data.id());
+            string(data.nameKey());
+            body.writeByte(data.rarity().ordinal());
+            string(data.material());
+            string(data.function());
+            varint(data.stackSize());
+
+            EquipmentData.Placement placement = data.placement();
+            flags(placement.blockEnabled());
+            id(placement.blockId());
+            id(placement.blockEntityId());
+
+            flags(data.automation().supportsPipes());
+            body.writeByte(data.automation().pipeSides());
+
+            EquipmentData.Inventory inventory = data.inventory();
+            flags(inventory.quickMove());
+            varint(inventory.capacity());
+            varint(inventory.stackLimit());
+            ids(inventory.acceptsItemTags());
+            ids(inventory.rejectsItemTags());
+            varint(inventory.slotRoles().size());
+            for (EquipmentData.SlotRole role : inventory.slotRoles()) {
+                string(role.role());
+                varint(role.first());
+                varint(role.last());
+            }
+            varint(inventory.quickMovePriority().size());
+            for (String role : inventory.quickMovePriority()) {
+                string(role);
+            }
+            flags(data.client().particles());
+            ids(data.client().particleTypes());
+        }
+
+        private void ids(List<Identifier> ids) throws IOException {
+            varint(ids.size());
+            for (Identifier id : ids) {
+                id(id);
+            }
+        }
+
+        private void id(Identifier id) throws IOException {
+            string(id == null ? null : id.toString());
+        }
+
+        /** Writes a string reference; 0 encodes null, n encodes table entry n - 1. */
+        private void string(String value) throws IOException {
+            if (value == null) {
+                varint(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index == null) {
+                index = strings.size();
+                strings.put(value, index);
+            }
+            varint(index + 1);
+        }
+
+        private void optionalInt(Integer value) throws IOException {
+            body.writeBoolean(value != null);
+            if (value != null) {
+                body.writeInt(value);
+            }
+        }
+
+        private void flags(boolean... values) throws IOException {
+            int bits = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i]) {
+                    bits |= 1 << i;
+                }
+            }
+            body.writeByte(bits);
+        }
+
+        private void varint(int value) throws IOException {
+            writeVarint(body, value);
+        }
+
+        private static void writeVarint(DataOutputStream out, int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    // --- decoding --------------------------------------------------------
+
+    /**
+     * Decodes records straight from the mapped buffer. Identifiers are materialized once per table
+     * entry through {@link Interner}, so they are shared with the other records of the same load.
+     */
+    private static final class Decoder {
+        private static final Rarity[] RARITIES = Rarity.values();
+        private static final ContainerData.ExplosionResistance[] RESISTANCES =
+                ContainerData.ExplosionResistance.values();
+        private static final BeverageData.Bubbles[] BUBBLES = BeverageData.Bubbles.values();
+        private static final BeverageData.Glow[] GLOWS = BeverageData.Glow.values();
+        private final ByteBuffer buffer;
+        private final String[] strings;
+        private final Identifier[] ids;
+        private final Map<Identifier, RegistryEntry<StatusEffect>> effects = new HashMap<>();
+
+        Decoder(ByteBuffer buffer) {
+            this.buffer = buffer;
+            this.strings = new String[varint()];
+            this.ids = new Identifier[strings.length];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] utf8 = new byte[varint()];
+                buffer.get(utf8);
+                strings[i] = new String(utf8, StandardCharsets.UTF_8);
+            }
+        }
+
+        ContentPack pack() {
+            Map<Identifier, BeverageData> beverages = new LinkedHashMap<>();
+            for (int i = varint(); i > 0; i--) {
+                BeverageData data = beverage();
+                beverages.put(data.id(), data);
+            }
+            Map<Identifier, ContainerData> containers = new LinkedHashMap<>();
+            for (int i = varint(); i > 0; i--) {
+                ContainerData data = container();
+                containers.put(data.id(), data);
+            }
+            Map<Identifier, EquipmentData> equipment = new LinkedHashMap<>();
+            for (int i = varint(); i > 0; i--) {
+                EquipmentData data = equipment();
+                equipment.put(data.id(), data);
+            }
+            if (buffer.hasRemaining()) {
+                throw new IllegalStateException("Trailing bytes in content cache");
+            }
+            return new ContentPack(beverages, containers, equipment);
+        }
+
+        private BeverageData beverage() {
+            Identifier id = id();
+            String category = string();
+            String style = string();
+            Identifier container = id();
+            Rarity rarity = RARITIES[buffer.get()];
+            int stackSize = varint();
+
+            double abv = buffer.getDouble();
+            double strength = buffer.getDouble();
+            double intoxValue = buffer.getDouble();
+            double intoxDecay = buffer.getDouble();
+            int hunger = varint();
+            float saturation = buffer.getFloat();
+            BeverageData.Stats stats = new BeverageData.Stats(abv, strength,
+                    new BeverageData.Intoxication(intoxValue, intoxDecay),
+                    new BeverageData.Nutrition(hunger, saturation));
+
+            int effectCount = varint();
+            List<BeverageData.EffectEntry> effects = new ArrayList<>(effectCount);
+            for (int i = 0; i < effectCount; i++) {
+                RegistryEntry<StatusEffect> effect = effect(id());
+                int duration = varint();
+                int amplifier = varint();
+                float chance = buffer.getFloat();
+                int flags = buffer.get();
+                effects.add(new BeverageData.EffectEntry(effect, duration, amplifier, chance,
+                        bit(flags, 0), bit(flags, 1), bit(flags, 2)));
+            }
+
+            BeverageData.TextKeys textKeys = new BeverageData.TextKeys(string(), string(),
+                    string(), string(), string(), string(), string(), string(), string(), string(),
+                    string(), string());
+
+            int configFlags = buffer.get();
+            int overrideOrdinal = buffer.get();
+            Rarity overrideRarity = overrideOrdinal == 0 ? null : RARITIES[overrideOrdinal - 1];
+            Integer overrideStackSize = optionalInt();
+            Integer overrideLootWeight = optionalInt();
+            BeverageData.Config config = new BeverageData.Config(bit(configFlags, 0),
+                    overrideRarity, overrideStackSize, overrideLootWeight, bit(configFlags, 1),
+                    bit(configFlags, 2));
+
+            int freshnessFlags = buffer.get();
+            BeverageData.Quality quality = new BeverageData.Quality(bit(freshnessFlags, 0),
+                    buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+            BeverageData.Aging aging = new BeverageData.Aging(bit(freshnessFlags, 1), varint(),
+                    varint(), buffer.getFloat());
+            BeverageData.Spoilage spoilage = new BeverageData.Spoilage(bit(freshnessFlags, 2),
+                    buffer.getFloat(), buffer.getFloat());
+
+            BeverageData.Ingredient[] ingredients = new BeverageData.Ingredient[varint()];
+            for (int i = 0; i < ingredients.length; i++) {
+                ingredients[i] = new BeverageData.Ingredient(id(), varint());
+            }
+            BeverageData.Brewing brewing =
+                    new BeverageData.Brewing(List.of(ingredients), ids(), varint());
+            List<Identifier> tags = ids();
+            BeverageData.Loot loot = new BeverageData.Loot(varint(), ids());
+            boolean tint = bit(buffer.get(), 0);
+            BeverageData.Visuals visuals = new BeverageData.Visuals(buffer.getInt(), tint, id(),
+                    BUBBLES[buffer.get()], GLOWS[buffer.get()]);
+
+            return new BeverageData(id, category, style, container, rarity, stackSize, stats,
+                    effects, textKeys, config,
+                    new BeverageData.Freshness(quality, aging, spoilage), brewing, tags, loot,
+                    visuals);
+        }
+
+        private ContainerData container() {
+            Identifier id = id();
+            String kind = string();
+            int stackSize = varint();
+            Rarity rarity = RARITIES[buffer.get()];
+
+            int durabilityFlags = buffer.get();
+            int maxDamage = varint();
+            ContainerData.Durability durability = new ContainerData.Durability(
+                    bit(durabilityFlags, 0), maxDamage, bit(durabilityFlags, 1),
+                    RESISTANCES[buffer.get()]);
+
+            UseAction action = UseAction.valueOf(string());
+            Identifier returnId = id();
+            int interactionFlags = buffer.get();
+            ContainerData.Interaction interaction = new ContainerData.Interaction(action,
+                    bit(interactionFlags, 0), returnId, bit(interactionFlags, 1),
+                    bit(interactionFlags, 2));
+
+            int sealFlags = buffer.get();
+            ContainerData.Seal seal =
+                    new ContainerData.Seal(bit(sealFlags, 0), bit(sealFlags, 1), string());
+
+            int placedFlags = buffer.get();
+            Identifier blockId = id();
+            Identifier blockEntityId = id();
+            ContainerData.StateStorage stateStorage =
+                    new ContainerData.StateStorage(new ContainerData.PlacedBlock(
+                            bit(placedFlags, 0), blockId, blockEntityId, bit(placedFlags, 1),
+                            bit(placedFlags, 2)));
+
+            int liquidFlags = buffer.get();
+            int capacity = varint();
+            int defaultFill = varint();
+            int fillRate = varint();
+            int pourRate = varint();
+            ContainerData.Liquid liquid = new ContainerData.Liquid(bit(liquidFlags, 0), capacity,
+                    defaultFill, fillRate, pourRate, bit(liquidFlags, 1), ids(), varint());
+
+            ContainerData.Barrel barrel = new ContainerData.Barrel(bit(buffer.get(), 0),
+                    buffer.getFloat(), buffer.getFloat(), buffer.getFloat());
+
+            return new ContainerData(id, kind, stackSize, rarity, durability, interaction, seal,
+                    stateStorage, liquid, barrel);
+        }
+
+        private EquipmentData equipment() {
+            Identifier id = id();
+            String nameKey = string();
+            Rarity rarity = RARITIES[buffer.get()];
+            String material = string();
+            String function = string();
+            int stackSize = varint();
+
+            int placementFlags = buffer.get();
+            Identifier blockId = id();
+            Identifier blockEntityId = id();
+            EquipmentData.Automation automation =
+                    new EquipmentData.Automation(bit(buffer.get(), 0), buffer.get());
+
+            boolean quickMove = bit(buffer.get(), 0);
+            int capacity = varint();
+            int stackLimit = varint();
+            List<Identifier> accepts = ids();
+            List<Identifier> rejects = ids();
+            EquipmentData.SlotRole[] roles = new EquipmentData.SlotRole[varint()];
+            for (int i = 0; i < roles.length; i++) {
+                roles[i] = new EquipmentData.SlotRole(string(), varint(), varint());
+            }
+            String[] priority = new String[varint()];
+            for (int i = 0; i < priority.length; i++) {
+                priority[i] = string();
+            }
+            EquipmentData.Inventory inventory = new EquipmentData.Inventory(capacity, stackLimit,
+                    accepts, rejects, List.of(roles), quickMove, List.of(priority));
+            EquipmentData.Client client = new EquipmentData.Client(bit(buffer.get(), 0), ids());
+
+            return new EquipmentData(id, nameKey, rarity, material, function, stackSize,
+                    new EquipmentData.Placement(bit(placementFlags, 0), blockId, blockEntityId),
+                    automation, inventory, client);
+        }
+
+        private RegistryEntry<StatusEffect> effect(Identifier effectId) {
+            return effects.computeIfAbsent(effectId,
+                    key -> Registries.STATUS_EFFECT.getEntry(key)
+                            .orElseThrow(() -> new IllegalArgumentException(
+                                    "Unknown status effect: " + key)));
+        }
+
+        private List<Identifier> ids() {
+            Identifier[] ids = new Identifier[varint()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = id();
+            }
+            return List.of(ids);
+        }
+
+        private Identifier id() {
+            int ref = varint();
+            if (ref == 0) {
+                return null;
+            }
+            Identifier id = ids[ref - 1];
+            if (id == null) {
+                id = Interner.id(strings[ref - 1]);
+                ids[ref - 1] = id;
+            }
+            return id;
+        }
+
+        private String string() {
+            int ref = varint();
+            return ref == 0 ? null : strings[ref - 1];
+        }
+
+        private Integer optionalInt() {
+            return buffer.get() != 0 ? buffer.getInt() : null;
+        }
+
+        private static boolean bit(int flags, int index) {
+            return (flags & (1 << index)) != 0;
+        }
+
+        private int varint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > 28) {
+                    throw new IllegalStateException("Malformed varint in content cache");
+                }
+                b = buffer.get();
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
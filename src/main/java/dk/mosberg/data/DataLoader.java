@@ -3,6 +3,7 @@ package dk.mosberg.data;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.Reader;
+import java.lang.management.ManagementFactory;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -10,17 +11,23 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import dk.mosberg.Alchemy;
+import dk.mosberg.profiling.StartupProfiler;
 import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.item.consume.UseAction;
 import net.minecraft.registry.Registries;
 import net.minecraft.registry.entry.RegistryEntry;
 import net.minecraft.util.Identifier;
+import net.minecraft.util.math.Direction;
 
 /**
  * Discovers and parses all JSON definitions under data/alchemy/* at startup. Builds a ContentPack
@@ -32,53 +39,242 @@ public final class DataLoader {
     private static final String BEVERAGES_DIR = DATA_ROOT + "/beverages";
     private static final String CONTAINERS_DIR = DATA_ROOT + "/containers";
     private static final String EQUIPMENT_DIR = DATA_ROOT + "/equipment";
+    private static final boolean PARALLEL =
+            Boolean.parseBoolean(System.getProperty("alchemy.loader.parallel", "true"));
+
+    private static final ParserMode PARSER =
+            ParserMode.of(System.getProperty("alchemy.loader.parser"));
+    private static final JsonObject EMPTY_OBJECT = new JsonObject();
+    private static final JsonArray EMPTY_ARRAY = new JsonArray();
+
+    private static final String[] TEXT_KEYS = {"name_key", "lore_key", "tooltip_key",
+            "effect_text_key", "brew_time_text_key", "ingredients_text_key", "container_text_key",
+            "rarity_text_key", "category_text_key", "flavor_text_key", "warning_key",
+            "crafting_instructions_key"};
+
+    private static final Category<ContainerData> CONTAINERS = new Category<>("containers",
+            "container", "alchemy_container.schema.json", DataLoader::parseContainer,
+            ContainerData::id,
+            JsonProjection.builder()
+                    .keep("type", "id", "container_kind", "stack_size", "rarity", "durability",
+                            "interaction", "seal", "liquid", "barrel_logic")
+                    .nest("state_storage", JsonProjection.builder().keep("placed_block").build())
+                    .build());
+    private static final Category<BeverageData> BEVERAGES = new Category<>("beverages",
+            "beverage", "alchemy_alcohol.schema.json", DataLoader::parseBeverage,
+            BeverageData::id,
+            // Parsers read nearly every beverage key, so this projection skips little
+            JsonProjection.builder()
+                    .keep("type", "id", "container", "rarity", "stack_size", "category", "style",
+                            "stats", "effects", "text", "config", "quality", "aging",
+                            "spoilage", "ingredients", "brewing", "tags", "loot", "visuals",
+                            "client")
+                    .keep(TEXT_KEYS).build());
+    private static final Category<EquipmentData> EQUIPMENT = new Category<>("equipment",
+            "equipment", "alchemy_equipment.schema.json", DataLoader::parseEquipment,
+            EquipmentData::id,
+            JsonProjection.builder().keep("type", "id", "name_key", "rarity", "material",
+                    "function", "stack_size", "placement", "automation", "inventory", "client")
+                    .build());
 
     private DataLoader() {}
 
+    /**
+     * Loads every definition from the mod's own data roots followed by the zipped packs in
+     * {@code config/alchemy/packs} (see {@link ExternalContentPacks}). Uses the parallel path
+     * unless {@code -Dalchemy.loader.parallel=false} is set, and the compiled content cache unless
+     * {@code -Dalchemy.contentCache=off} is set.
+     */
     public static ContentPack loadAll() {
-        Map<Identifier, BeverageData> beverages = new LinkedHashMap<>();
-        Map<Identifier, ContainerData> containers = new LinkedHashMap<>();
-        Map<Identifier, EquipmentData> equipment = new LinkedHashMap<>();
+        List<Path> dataRoots = modDataRoots();
+        try (ExternalContentPacks packs =
+                ExternalContentPacks.mount(ExternalContentPacks.defaultDirectory())) {
+            dataRoots.addAll(packs.dataRoots());
+            return load(dataRoots, PARALLEL, ContentPackCache.defaultLocation());
+        }
+    }
+
+    /**
+     * Loads every definition found under the given {@code data/alchemy} roots without consulting
+     * the content cache.
+     */
+    public static ContentPack load(List<Path> dataRoots, boolean parallel) {
+        return load(dataRoots, parallel, null);
+    }
+
+    /**
+     * Loads every definition found under the given {@code data/alchemy} roots. Files are discovered
+     * serially in root order, parsed either on the calling thread or on the common fork-join pool,
+     * and merged back in discovery order so the resulting maps are identical in both modes; a later
+     * root overrides earlier definitions with the same id. Containers are linked to beverages only
+     * after all categories have been parsed.
+     *
+     * <p>With {@code -Dalchemy.loader.validate=true} every file is first checked against its
+     * schema, see {@link SchemaValidation}. When {@code cacheFile} is set, the inputs are hashed
+     * first and a matching binary snapshot is decoded instead of parsing JSON. A fresh snapshot is
+     * written only when every file parsed cleanly, so broken files keep being reported on each boot
+     * until they are fixed.
+     */
+    static ContentPack load(List<Path> dataRoots, boolean parallel, Path cacheFile) {
+        List<Path> containerFiles = collect(dataRoots, CONTAINERS);
+        List<Path> beverageFiles = collect(dataRoots, BEVERAGES);
+        List<Path> equipmentFiles = collect(dataRoots, EQUIPMENT);
+        if (SchemaValidation.ENABLED) {
+            SchemaValidation.run(List.of(
+                    new SchemaValidation.Target(CONTAINERS.schema(), containerFiles),
+                    new SchemaValidation.Target(BEVERAGES.schema(), beverageFiles),
+                    new SchemaValidation.Target(EQUIPMENT.schema(), equipmentFiles)), dataRoots,
+                    parallel);
+        }
+
+        byte[] cacheKey = null;
+        if (cacheFile != null) {
+            cacheKey = cacheKey(List.of(containerFiles, beverageFiles, equipmentFiles), dataRoots);
+            ContentPack cached =
+                    cacheKey != null ? ContentPackCache.read(cacheFile, cacheKey) : null;
+            if (cached != null) {
+                linkContainers(cached.beverages(), cached.containers());
+                Alchemy.LOGGER.info(
+                        "Loaded {} beverages, {} containers, {} equipment entries from cache {}",
+                        cached.beverages().size(), cached.containers().size(),
+                        cached.equipment().size(), cacheFile);
+                Interner.finish("Content cache");
+                return cached;
+            }
+        }
+
+        AtomicInteger failures = new AtomicInteger();
+        Map<Identifier, ContainerData> containers =
+                parse(containerFiles, CONTAINERS, parallel, failures);
+        Map<Identifier, BeverageData> beverages =
+                parse(beverageFiles, BEVERAGES, parallel, failures);
+        Map<Identifier, EquipmentData> equipment =
+                parse(equipmentFiles, EQUIPMENT, parallel, failures);
+        linkContainers(beverages, containers);
+
+        Alchemy.LOGGER.info("Loaded {} beverages, {} containers, {} equipment entries",
+                beverages.size(), containers.size(), equipment.size());
+        Interner.finish("Content load");
+        ContentPack pack = new ContentPack(beverages, containers, equipment);
+        if (cacheKey != null && failures.get() == 0) {
+            ContentPackCache.write(cacheFile, cacheKey, pack);
+        }
+        return pack;
+    }
 
+    private static byte[] cacheKey(List<List<Path>> groups, List<Path> dataRoots) {
+        try {
+            return ContentPackCache.key(groups, dataRoots);
+        } catch (IOException e) {
+            Alchemy.LOGGER.warn("Skipping content cache, inputs could not be hashed", e);
+            return null;
+        }
+    }
+
+    /** Returns the existing {@code data/alchemy} directories inside the mod's root paths. */
+    public static List<Path> modDataRoots() {
+        List<Path> dataRoots = new ArrayList<>();
         FabricLoader.getInstance().getModContainer(Alchemy.MOD_ID).ifPresentOrElse(container -> {
             for (Path root : container.getRootPaths()) {
                 Path dataRoot = root.resolve(DATA_ROOT);
-                if (!Files.exists(dataRoot)) {
-                    continue;
-                }
-                try {
-                    loadContainers(dataRoot.resolve("containers"), containers);
-                    loadBeverages(dataRoot.resolve("beverages"), beverages, containers);
-                    loadEquipment(dataRoot.resolve("equipment"), equipment);
-                } catch (IOException e) {
-                    Alchemy.LOGGER.error("Failed loading data from {}", dataRoot, e);
+                if (Files.exists(dataRoot)) {
+                    dataRoots.add(dataRoot);
                 }
             }
         }, () -> Alchemy.LOGGER.error("Missing mod container for {}", Alchemy.MOD_ID));
+        return dataRoots;
+    }
 
-        Alchemy.LOGGER.info("Loaded {} beverages, {} containers, {} equipment entries",
-                beverages.size(), containers.size(), equipment.size());
-        return new ContentPack(beverages, containers, equipment);
+    /** Beverage files under the given {@code data/alchemy} roots, in root then path order. */
+    static List<Path> beverageFiles(List<Path> dataRoots) {
+        return collect(dataRoots, BEVERAGES);
+    }
+
+    private static List<Path> collect(List<Path> dataRoots, Category<?> category) {
+        List<Path> files = new ArrayList<>();
+        for (Path dataRoot : dataRoots) {
+            try {
+                collect(dataRoot.resolve(category.dir()), files);
+            } catch (IOException e) {
+                Alchemy.LOGGER.error("Failed loading data from {}", dataRoot, e);
+            }
+        }
+        return files;
+    }
+
+    private static <T> Map<Identifier, T> parse(List<Path> files, Category<T> category,
+            boolean parallel, AtomicInteger failures) {
+        StartupProfiler.CategoryTiming timing = StartupProfiler.category(category.dir());
+        ParserComparison comparison =
+                PARSER == ParserMode.COMPARE ? new ParserComparison() : null;
+        var stream = parallel ? files.parallelStream() : files.stream();
+        // Stream#toList keeps encounter order, so parallel results merge in discovery order
+        List<T> parsed = stream.map(path -> comparison != null
+                ? comparison.parse(category, path)
+                : parseFile(category, path, PARSER)).toList();
+        if (comparison != null) {
+            comparison.report(category);
+        }
+
+        // Later roots win: a definition replaces any earlier one with the same id
+        Map<Identifier, T> out = new LinkedHashMap<>();
+        int failed = 0;
+        for (int i = 0; i < parsed.size(); i++) {
+            T data = parsed.get(i);
+            if (data == null) {
+                failed++;
+            } else if (out.put(category.id().apply(data), data) != null) {
+                Alchemy.LOGGER.info("{} {} overridden by {}", category.label(),
+                        category.id().apply(data), files.get(i));
+            }
+        }
+        failures.addAndGet(failed);
+        timing.end(files.size(), out.size(), failed);
+        return out;
     }
 
-    private static void loadBeverages(Path beveragesPath, Map<Identifier, BeverageData> out,
-            Map<Identifier, ContainerData> containers) throws IOException {
-        if (!Files.isDirectory(beveragesPath)) {
+    private static void collect(Path dir, List<Path> out) throws IOException {
+        if (!Files.isDirectory(dir)) {
             return;
         }
+        try (var paths = Files.walk(dir)) {
+            paths.filter(p -> p.toString().endsWith(".json")).forEachOrdered(out::add);
+        }
+    }
 
-        try (var paths = Files.walk(beveragesPath)) {
-            paths.filter(p -> p.toString().endsWith(".json")).forEach(path -> {
-                try (Reader reader =
-                        new BufferedReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
-                    @SuppressWarnings("null")
-                    JsonObject root = GSON.fromJson(reader, JsonObject.class);
-                    BeverageData data = parseBeverage(root);
-                    out.put(data.id(), data);
-                } catch (Exception e) {
-                    Alchemy.LOGGER.error("Failed to parse beverage JSON {}", path, e);
-                }
-            });
+    private static <T> T parseFile(Category<T> category, Path path, ParserMode mode) {
+        try (Reader reader =
+                new BufferedReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
+            return category.parser().apply(readRoot(category, reader, mode));
+        } catch (Exception e) {
+            Alchemy.LOGGER.error("Failed to parse {} JSON {}", category.label(), path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses one beverage document with the configured parser. Used by the datapack reload path,
+     * which reads resources rather than files; failures propagate to the caller.
+     */
+    static BeverageData readBeverage(Reader reader) throws IOException {
+        return BEVERAGES.parser().apply(readRoot(BEVERAGES, reader,
+                PARSER == ParserMode.COMPARE ? ParserMode.STREAMING : PARSER));
+    }
+
+    @SuppressWarnings("null")
+    private static JsonObject readRoot(Category<?> category, Reader reader, ParserMode mode)
+            throws IOException {
+        return mode == ParserMode.DOM ? GSON.fromJson(reader, JsonObject.class)
+                : category.projection().read(reader);
+    }
+
+    private static void linkContainers(Map<Identifier, BeverageData> beverages,
+            Map<Identifier, ContainerData> containers) {
+        for (BeverageData data : beverages.values()) {
+            if (!containers.containsKey(data.container())) {
+                Alchemy.LOGGER.warn("Beverage {} references unknown container {}", data.id(),
+                        data.container());
+            }
         }
     }
 
@@ -87,7 +283,7 @@ public final class DataLoader {
 
         Identifier id = id(root, "id");
         Identifier container = id(root, "container");
-        String rarity = string(root, "rarity", "common");
+        Rarity rarity = Rarity.of(string(root, "rarity", "common"));
         int stackSize = integer(root, "stack_size", 16);
 
         JsonObject statsObj = object(root, "stats");
@@ -130,8 +326,77 @@ public final class DataLoader {
         BeverageData.TextKeys textKeys = resolveTextKeys(root);
         BeverageData.Config config = parseConfig(root);
 
-        return new BeverageData(id, string(root, "category", "beer"), string(root, "style", ""),
-                container, rarity, stackSize, stats, effects, textKeys, config);
+        return new BeverageData(id, pooled(root, "category", "beer"), pooled(root, "style", ""),
+                container, rarity, stackSize, stats, effects, textKeys, config,
+                parseFreshness(root), parseBrewing(root), ids(root, "tags"), parseLoot(root),
+                parseVisuals(root));
+    }
+
+    private static BeverageData.Visuals parseVisuals(JsonObject root) {
+        if (!root.has("visuals")) {
+            return BeverageData.Visuals.NONE;
+        }
+        JsonObject visualsObj = object(root, "visuals");
+        int color = integer(visualsObj, "liquid_color", 0xFFFFFF);
+        if (color < 0 || color > 0xFFFFFF) {
+            throw new IllegalArgumentException("visuals.liquid_color must be an RGB value");
+        }
+        Identifier particle = visualsObj.has("particle") ? id(visualsObj, "particle") : null;
+        return new BeverageData.Visuals(color,
+                bool(object(root, "client"), "use_liquid_tint", false), particle,
+                BeverageData.Bubbles.of(string(visualsObj, "bubbles", "none")),
+                BeverageData.Glow.of(string(visualsObj, "glow", "none")));
+    }
+
+    private static BeverageData.Loot parseLoot(JsonObject root) {
+        if (!root.has("loot")) {
+            return BeverageData.Loot.NONE;
+        }
+        JsonObject lootObj = object(root, "loot");
+        int weight = integer(lootObj, "weight", 0);
+        if (weight < 0) {
+            throw new IllegalArgumentException("loot.weight must not be negative");
+        }
+        return new BeverageData.Loot(weight, ids(lootObj, "tables"));
+    }
+
+    private static BeverageData.Brewing parseBrewing(JsonObject root) {
+        if (!root.has("ingredients") && !root.has("brewing")) {
+            return BeverageData.Brewing.NONE;
+        }
+        List<BeverageData.Ingredient> ingredients = new ArrayList<>();
+        for (JsonElement element : array(root, "ingredients")) {
+            JsonObject ingredientObj = element.getAsJsonObject();
+            int count = integer(ingredientObj, "count", 1);
+            if (count <= 0) {
+                throw new IllegalArgumentException("Ingredient count must be positive");
+            }
+            ingredients.add(new BeverageData.Ingredient(id(ingredientObj, "item"), count));
+        }
+        JsonObject brewingObj = object(root, "brewing");
+        return new BeverageData.Brewing(List.copyOf(ingredients),
+                ids(brewingObj, "station_tags"), Math.max(0, integer(brewingObj,
+                        "brew_time_ticks", 20 * integer(brewingObj, "brew_time_seconds", 0))));
+    }
+
+    private static BeverageData.Freshness parseFreshness(JsonObject root) {
+        if (!root.has("quality") && !root.has("aging") && !root.has("spoilage")) {
+            return BeverageData.Freshness.NONE;
+        }
+        JsonObject quality = object(root, "quality");
+        JsonObject aging = object(root, "aging");
+        JsonObject spoilage = object(root, "spoilage");
+        return new BeverageData.Freshness(
+                new BeverageData.Quality(bool(quality, "supports_quality", false),
+                        (float) number(quality, "quality_on_brew", 1.0),
+                        (float) number(quality, "quality_floor", 0.0),
+                        (float) number(quality, "quality_ceiling", 1.0)),
+                new BeverageData.Aging(bool(aging, "supported", false),
+                        integer(aging, "min_days", 0), integer(aging, "max_days", 0),
+                        (float) number(aging, "quality_bonus_per_day", 0.0)),
+                new BeverageData.Spoilage(bool(spoilage, "enabled", false),
+                        (float) number(spoilage, "base_decay_per_day", 0.0),
+                        (float) number(spoilage, "opened_decay_multiplier", 1.0)));
     }
 
     private static BeverageData.TextKeys resolveTextKeys(JsonObject root) {
@@ -148,56 +413,30 @@ public final class DataLoader {
     }
 
     private static BeverageData.Config parseConfig(JsonObject root) {
-        JsonObject cfg = root.has("config") && root.get("config").isJsonObject()
-                ? root.getAsJsonObject("config")
-                : new JsonObject();
+        JsonObject cfg = object(root, "config");
         return new BeverageData.Config(bool(cfg, "enabled", true),
-                stringOrNull(cfg, "override_rarity"),
+                cfg.has("override_rarity") ? Rarity.of(string(cfg, "override_rarity", "")) : null,
                 cfg.has("override_stack_size") ? integer(cfg, "override_stack_size", 0) : null,
                 cfg.has("override_loot_weight") ? integer(cfg, "override_loot_weight", 0) : null,
                 bool(cfg, "disable_random_failures", false), bool(cfg, "disable_spoilage", false));
     }
 
-    private static void loadContainers(Path containersPath, Map<Identifier, ContainerData> out)
-            throws IOException {
-        if (!Files.isDirectory(containersPath)) {
-            return;
-        }
-        try (var paths = Files.walk(containersPath)) {
-            paths.filter(p -> p.toString().endsWith(".json")).forEach(path -> {
-                try (Reader reader =
-                        new BufferedReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
-                    @SuppressWarnings("null")
-                    JsonObject root = GSON.fromJson(reader, JsonObject.class);
-                    ContainerData data = parseContainer(root);
-                    out.put(data.id(), data);
-                } catch (Exception e) {
-                    Alchemy.LOGGER.error("Failed to parse container JSON {}", path, e);
-                }
-            });
-        }
-    }
-
     private static ContainerData parseContainer(JsonObject root) {
         expectType(root, "alchemy:container");
 
         Identifier id = id(root, "id");
-        String kind = string(root, "container_kind", "can");
+        String kind = pooled(root, "container_kind", "can");
         int stack = integer(root, "stack_size", 16);
-        String rarity = string(root, "rarity", "common");
+        Rarity rarity = Rarity.of(string(root, "rarity", "common"));
 
-        JsonObject durabilityObj = root.has("durability") && root.get("durability").isJsonObject()
-                ? root.getAsJsonObject("durability")
-                : new JsonObject();
+        JsonObject durabilityObj = object(root, "durability");
         ContainerData.Durability durability = new ContainerData.Durability(
                 bool(durabilityObj, "breakable", true), integer(durabilityObj, "max_damage", 0),
                 bool(durabilityObj, "fireproof", false),
-                string(durabilityObj, "explosion_resistance", "low"));
+                ContainerData.ExplosionResistance
+                        .of(string(durabilityObj, "explosion_resistance", "low")));
 
-        JsonObject interactionObj =
-                root.has("interaction") && root.get("interaction").isJsonObject()
-                        ? root.getAsJsonObject("interaction")
-                        : new JsonObject();
+        JsonObject interactionObj = object(root, "interaction");
         UseAction action = useAction(string(interactionObj, "use_action", "drink"));
         Identifier returnId =
                 interactionObj.has("return_item_id") ? id(interactionObj, "return_item_id") : id; // default
@@ -208,16 +447,45 @@ public final class DataLoader {
                 bool(interactionObj, "consume_on_use", false),
                 bool(interactionObj, "consume_on_drink", true));
 
-        JsonObject sealObj =
-                root.has("seal") && root.get("seal").isJsonObject() ? root.getAsJsonObject("seal")
-                        : new JsonObject();
+        JsonObject sealObj = object(root, "seal");
         ContainerData.Seal seal = new ContainerData.Seal(bool(sealObj, "starts_sealed", true),
-                bool(sealObj, "reopenable", true), string(sealObj, "seal_quality", "good"));
+                bool(sealObj, "reopenable", true), pooled(sealObj, "seal_quality", "good"));
 
         ContainerData.StateStorage stateStorage = parseContainerStateStorage(root, id);
 
         return new ContainerData(id, kind, stack, rarity, durability, interaction, seal,
-                stateStorage);
+                stateStorage, parseLiquid(root), parseBarrel(root));
+    }
+
+    private static ContainerData.Barrel parseBarrel(JsonObject root) {
+        if (!root.has("barrel_logic")) {
+            return ContainerData.Barrel.NONE;
+        }
+        JsonObject barrelObj = object(root, "barrel_logic");
+        // Older barrels name the multiplier aging_multiplier
+        double multiplier = number(barrelObj, "aging_rate_multiplier",
+                number(barrelObj, "aging_multiplier", 1.0));
+        return new ContainerData.Barrel(bool(barrelObj, "supports_aging", true),
+                (float) multiplier, (float) number(barrelObj, "evaporation_rate_per_day", 0.0),
+                (float) number(barrelObj, "quality_transfer_rate", 0.0));
+    }
+
+    private static ContainerData.Liquid parseLiquid(JsonObject root) {
+        if (!root.has("liquid")) {
+            return ContainerData.Liquid.NONE;
+        }
+        JsonObject liquidObj = object(root, "liquid");
+        JsonObject transferObj = object(liquidObj, "transfer");
+        int capacity = integer(liquidObj, "capacity_mb", 0);
+        if (capacity < 0) {
+            throw new IllegalArgumentException("liquid.capacity_mb must not be negative");
+        }
+        return new ContainerData.Liquid(bool(liquidObj, "can_contain_liquid", capacity > 0),
+                capacity, Math.min(capacity, integer(liquidObj, "default_fill_mb", 0)),
+                Math.max(0, integer(transferObj, "fill_rate_mb_per_tick", capacity)),
+                Math.max(0, integer(transferObj, "pour_rate_mb_per_tick", capacity)),
+                bool(transferObj, "allow_partial", true), ids(liquidObj, "accepted_tags"),
+                sides(strings(transferObj, "pipe_sides")));
     }
 
     private static ContainerData.StateStorage parseContainerStateStorage(JsonObject root,
@@ -238,39 +506,28 @@ public final class DataLoader {
                 blockEntityId, syncToClient, dropsKeepContents));
     }
 
-    private static void loadEquipment(Path equipmentPath, Map<Identifier, EquipmentData> out)
-            throws IOException {
-        if (!Files.isDirectory(equipmentPath)) {
-            return;
-        }
-        try (var paths = Files.walk(equipmentPath)) {
-            paths.filter(p -> p.toString().endsWith(".json")).forEach(path -> {
-                try (Reader reader =
-                        new BufferedReader(Files.newBufferedReader(path, StandardCharsets.UTF_8))) {
-                    @SuppressWarnings("null")
-                    JsonObject root = GSON.fromJson(reader, JsonObject.class);
-                    EquipmentData data = parseEquipment(root);
-                    out.put(data.id(), data);
-                } catch (Exception e) {
-                    Alchemy.LOGGER.error("Failed to parse equipment JSON {}", path, e);
-                }
-            });
-        }
-    }
-
     private static EquipmentData parseEquipment(JsonObject root) {
         expectType(root, "alchemy:equipment");
 
         Identifier id = id(root, "id");
         String nameKey = string(root, "name_key", "");
-        String rarity = string(root, "rarity", "common");
-        String material = string(root, "material", "");
-        String function = string(root, "function", "");
+        Rarity rarity = Rarity.of(string(root, "rarity", "common"));
+        String material = pooled(root, "material", "");
+        String function = pooled(root, "function", "");
         int stack = integer(root, "stack_size", 1);
 
         EquipmentData.Placement placement = parseEquipmentPlacement(root, id);
 
-        return new EquipmentData(id, nameKey, rarity, material, function, stack, placement);
+        return new EquipmentData(id, nameKey, rarity, material, function, stack, placement,
+                parseAutomation(root), parseInventory(root), parseEquipmentClient(root));
+    }
+
+    private static EquipmentData.Client parseEquipmentClient(JsonObject root) {
+        JsonObject clientObj = object(root, "client");
+        if (!bool(clientObj, "particles", false)) {
+            return EquipmentData.Client.NONE;
+        }
+        return new EquipmentData.Client(true, ids(clientObj, "particle_types"));
     }
 
     private static EquipmentData.Placement parseEquipmentPlacement(JsonObject root, Identifier id) {
@@ -284,8 +541,157 @@ public final class DataLoader {
         return new EquipmentData.Placement(blockEnabled, blockId, blockEntityId);
     }
 
+    private static EquipmentData.Automation parseAutomation(JsonObject root) {
+        JsonObject automationObj = object(root, "automation");
+        if (!bool(automationObj, "supports_pipes", false)) {
+            return EquipmentData.Automation.NONE;
+        }
+        return new EquipmentData.Automation(true,
+                sides(object(automationObj, "pipe_sides").keySet()));
+    }
+
+    /** Bit mask of the named faces, with {@code sides} standing for the four horizontal ones. */
+    private static int sides(Iterable<String> names) {
+        int sides = 0;
+        for (String side : names) {
+            sides |= switch (side) {
+                case "bottom", "down" -> 1 << Direction.DOWN.ordinal();
+                case "top", "up" -> 1 << Direction.UP.ordinal();
+                case "north" -> 1 << Direction.NORTH.ordinal();
+                case "south" -> 1 << Direction.SOUTH.ordinal();
+                case "west" -> 1 << Direction.WEST.ordinal();
+                case "east" -> 1 << Direction.EAST.ordinal();
+                case "sides" -> 1 << Direction.NORTH.ordinal() | 1 << Direction.SOUTH.ordinal()
+                        | 1 << Direction.WEST.ordinal() | 1 << Direction.EAST.ordinal();
+                default -> throw new IllegalArgumentException("Unknown pipe side: " + side);
+            };
+        }
+        return sides;
+    }
+
+    private static EquipmentData.Inventory parseInventory(JsonObject root) {
+        if (!root.has("inventory")) {
+            return EquipmentData.Inventory.NONE;
+        }
+        JsonObject inventoryObj = object(root, "inventory");
+        int capacity = integer(inventoryObj, "capacity", 0);
+        if (capacity < 0) {
+            throw new IllegalArgumentException("inventory.capacity must not be negative");
+        }
+        List<EquipmentData.SlotRole> roles = new ArrayList<>();
+        boolean[] assigned = new boolean[capacity];
+        JsonObject rolesObj = object(inventoryObj, "slot_roles");
+        for (Map.Entry<String, JsonElement> entry : rolesObj.entrySet()) {
+            String range = entry.getKey();
+            int dash = range.indexOf('-');
+            int first =
+                    Integer.parseInt(range.substring(0, dash < 0 ? range.length() : dash).trim());
+            int last = dash < 0 ? first : Integer.parseInt(range.substring(dash + 1).trim());
+            if (first < 0 || last < first || last >= capacity) {
+                throw new IllegalArgumentException(
+                        "Slot range " + range + " is outside inventory of " + capacity + " slots");
+            }
+            for (int slot = first; slot <= last; slot++) {
+                if (assigned[slot]) {
+                    throw new IllegalArgumentException("Slot " + slot + " has more than one role");
+                }
+                assigned[slot] = true;
+            }
+            roles.add(new EquipmentData.SlotRole(Interner.string(entry.getValue().getAsString()),
+                    first, last));
+        }
+        JsonObject quickMoveObj = object(inventoryObj, "quick_move");
+        List<String> priority = new ArrayList<>();
+        for (JsonElement role : array(quickMoveObj, "priority")) {
+            priority.add(Interner.string(role.getAsString()));
+        }
+        return new EquipmentData.Inventory(capacity,
+                Math.max(1, integer(inventoryObj, "stack_limit_per_slot", 64)),
+                ids(inventoryObj, "accepts_item_tags"), ids(inventoryObj, "rejects_item_tags"),
+                List.copyOf(roles), bool(quickMoveObj, "enabled", true), List.copyOf(priority));
+    }
+
+    private static List<Identifier> ids(JsonObject obj, String key) {
+        List<Identifier> ids = new ArrayList<>();
+        for (JsonElement id : array(obj, key)) {
+            ids.add(Interner.id(id.getAsString()));
+        }
+        return List.copyOf(ids);
+    }
+
+    private static List<String> strings(JsonObject obj, String key) {
+        List<String> strings = new ArrayList<>();
+        for (JsonElement element : array(obj, key)) {
+            strings.add(element.getAsString());
+        }
+        return strings;
+    }
+
     // --- helpers ---------------------------------------------------------
 
+    /** One definition folder under data/alchemy together with its parser. */
+    private record Category<T>(String dir, String label, String schema,
+            Function<JsonObject, T> parser, Function<T, Identifier> id,
+            JsonProjection projection) {
+    }
+
+    /**
+     * How definition files are turned into JSON objects. Selected with
+     * {@code -Dalchemy.loader.parser=dom|streaming|compare}; streaming is the default.
+     */
+    private enum ParserMode {
+        DOM, STREAMING, COMPARE;
+
+        static ParserMode of(String value) {
+            if (value == null || value.isBlank()) {
+                return STREAMING;
+            }
+            return switch (value.toLowerCase()) {
+                case "dom" -> DOM;
+                case "compare" -> COMPARE;
+                default -> STREAMING;
+            };
+        }
+    }
+
+    /**
+     * Parses every file through both paths, checks that they agree and reports the bytes each
+     * path allocated. Allocation is measured per file on the parsing thread, so the totals stay
+     * correct when files are parsed in parallel.
+     */
+    private static final class ParserComparison {
+        private static final com.sun.management.ThreadMXBean THREADS =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        private final LongAdder domBytes = new LongAdder();
+        private final LongAdder streamingBytes = new LongAdder();
+        private final LongAdder files = new LongAdder();
+
+        <T> T parse(Category<T> category, Path path) {
+            long start = THREADS.getCurrentThreadAllocatedBytes();
+            T dom = parseFile(category, path, ParserMode.DOM);
+            long middle = THREADS.getCurrentThreadAllocatedBytes();
+            T streaming = parseFile(category, path, ParserMode.STREAMING);
+            long end = THREADS.getCurrentThreadAllocatedBytes();
+
+            domBytes.add(middle - start);
+            streamingBytes.add(end - middle);
+            files.increment();
+            if (!Objects.equals(dom, streaming)) {
+                Alchemy.LOGGER.warn("Streaming parser disagrees with DOM parser for {}", path);
+            }
+            return dom;
+        }
+
+        void report(Category<?> category) {
+            long count = Math.max(1, files.sum());
+            Alchemy.LOGGER.info(
+                    "Parser allocation for {} {} files: DOM {} B/file, streaming {} B/file",
+                    files.sum(), category.label(), domBytes.sum() / count,
+                    streamingBytes.sum() / count);
+        }
+    }
+
     private static void expectType(JsonObject root, String expected) {
         String type = string(root, "type", "");
         if (!expected.equals(type)) {
@@ -293,24 +699,32 @@ public final class DataLoader {
         }
     }
 
+    /** Returns the nested object, or a shared empty object that callers must not modify. */
     private static JsonObject object(JsonObject root, String key) {
-        return root.has(key) && root.get(key).isJsonObject() ? root.getAsJsonObject(key)
-                : new JsonObject();
+        JsonElement element = root.get(key);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject()
+                : EMPTY_OBJECT;
     }
 
+    /** Returns the nested array, or a shared empty array that callers must not modify. */
     private static JsonArray array(JsonObject root, String key) {
-        return root.has(key) && root.get(key).isJsonArray() ? root.getAsJsonArray(key)
-                : new JsonArray();
+        JsonElement element = root.get(key);
+        return element != null && element.isJsonArray() ? element.getAsJsonArray() : EMPTY_ARRAY;
     }
 
     private static Identifier id(JsonObject obj, String key) {
-        return Identifier.of(string(obj, key, ""));
+        return Interner.id(string(obj, key, ""));
     }
 
     private static String string(JsonObject obj, String key, String def) {
         return obj.has(key) ? obj.get(key).getAsString() : def;
     }
 
+    /** Reads a value that repeats across definitions and returns its pooled instance. */
+    private static String pooled(JsonObject obj, String key, String def) {
+        return Interner.string(string(obj, key, def));
+    }
+
     private static String stringOrNull(JsonObject obj, String key) {
         return obj.has(key) ? obj.get(key).getAsString() : null;
     }
@@ -1,5 +1,6 @@
 package dk.mosberg.data;
 
+import java.util.List;
 import net.minecraft.util.Identifier;
 
 /**
@@ -7,9 +8,42 @@ import net.minecraft.util.Identifier;
  * only the fields we currently need to register placeholder items; the full JSON payload can be
  * extended onto this record later.
  */
-public record EquipmentData(Identifier id, String nameKey, String rarity, String material,
-        String function, int stackSize, Placement placement) {
+public record EquipmentData(Identifier id, String nameKey, Rarity rarity, String material,
+        String function, int stackSize, Placement placement, Automation automation,
+        Inventory inventory, Client client) {
 
     public record Placement(boolean blockEnabled, Identifier blockId, Identifier blockEntityId) {
     }
+
+    /**
+     * The {@code automation} block. {@code pipeSides} has bit {@code Direction.ordinal()} set for
+     * every side listed in {@code pipe_sides}; {@code sides} stands for the four horizontal ones.
+     */
+    public record Automation(boolean supportsPipes, int pipeSides) {
+        public static final Automation NONE = new Automation(false, 0);
+    }
+
+    /**
+     * The {@code inventory} block. Slot roles are inclusive index ranges; slots outside every range
+     * have no role and take no items. Items must match one of {@code acceptsItemTags} (when any are
+     * listed) and none of {@code rejectsItemTags}.
+     */
+    public record Inventory(int capacity, int stackLimit, List<Identifier> acceptsItemTags,
+            List<Identifier> rejectsItemTags, List<SlotRole> slotRoles, boolean quickMove,
+            List<String> quickMovePriority) {
+        public static final Inventory NONE =
+                new Inventory(0, 64, List.of(), List.of(), List.of(), false, List.of());
+    }
+
+    /**
+     * The particle part of the {@code client} block: whether the placed block emits ambient
+     * particles and which particle types it picks from.
+     */
+    public record Client(boolean particles, List<Identifier> particleTypes) {
+        public static final Client NONE = new Client(false, List.of());
+    }
+
+    /** Slots {@code first} through {@code last} serve as {@code role}. */
+    public record SlotRole(String role, int first, int last) {
+    }
 }
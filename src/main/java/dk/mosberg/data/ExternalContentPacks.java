@@ -0,0 +1,109 @@
+package dk.mosberg.data;
+
+import java.io.IOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import dk.mosberg.Alchemy;
+import net.fabricmc.loader.api.FabricLoader;
+
+/**
+ * Content packs shipped as {@code .zip} archives in {@code config/alchemy/packs}. Each archive is
+ * mounted through the NIO zip filesystem and its JSON is read straight from the archive, so nothing
+ * is extracted to disk. A pack either mirrors a datapack ({@code data/alchemy/beverages/...}) or
+ * keeps the category folders at its root ({@code beverages/...}).
+ *
+ * <p>Packs are ordered by file name and loaded after the mod's own data, and a definition replaces
+ * any earlier definition with the same id. The last pack in name order therefore wins, which lets
+ * operators layer balance packs with prefixes such as {@code 10-base.zip}, {@code 20-tweaks.zip}.
+ */
+public final class ExternalContentPacks implements AutoCloseable {
+    private static final String ARCHIVE_SUFFIX = ".zip";
+
+    private final List<FileSystem> fileSystems;
+    private final List<Path> dataRoots;
+
+    private ExternalContentPacks(List<FileSystem> fileSystems, List<Path> dataRoots) {
+        this.fileSystems = fileSystems;
+        this.dataRoots = dataRoots;
+    }
+
+    /** Returns {@code config/alchemy/packs}. */
+    public static Path defaultDirectory() {
+        return FabricLoader.getInstance().getConfigDir().resolve(Alchemy.MOD_ID).resolve("packs");
+    }
+
+    /**
+     * Mounts every archive in {@code directory}. Archives that cannot be opened or contain no
+     * category folders are logged and skipped. The directory is created when missing so operators
+     * can find it.
+     */
+    public static ExternalContentPacks mount(Path directory) {
+        List<FileSystem> fileSystems = new ArrayList<>();
+        List<Path> dataRoots = new ArrayList<>();
+        for (Path archive : archives(directory)) {
+            try {
+                FileSystem fileSystem = FileSystems.newFileSystem(archive);
+                Path dataRoot = dataRoot(fileSystem);
+                if (dataRoot == null) {
+                    Alchemy.LOGGER.warn("Content pack {} contains no alchemy definitions", archive);
+                    fileSystem.close();
+                    continue;
+                }
+                fileSystems.add(fileSystem);
+                dataRoots.add(dataRoot);
+                Alchemy.LOGGER.info("Mounted content pack {}", archive.getFileName());
+            } catch (IOException e) {
+                Alchemy.LOGGER.error("Failed to open content pack {}", archive, e);
+            }
+        }
+        return new ExternalContentPacks(fileSystems, dataRoots);
+    }
+
+    private static List<Path> archives(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            try (var files = Files.list(directory)) {
+                return files.filter(path -> Files.isRegularFile(path) && path.getFileName()
+                        .toString().toLowerCase().endsWith(ARCHIVE_SUFFIX))
+                        .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                        .toList();
+            }
+        } catch (IOException e) {
+            Alchemy.LOGGER.error("Failed to list content packs in {}", directory, e);
+            return List.of();
+        }
+    }
+
+    private static Path dataRoot(FileSystem fileSystem) {
+        Path root = fileSystem.getPath("/");
+        for (Path candidate : new Path[] {root.resolve("data").resolve(Alchemy.MOD_ID), root}) {
+            for (String category : new String[] {"beverages", "containers", "equipment"}) {
+                if (Files.isDirectory(candidate.resolve(category))) {
+                    return candidate;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** The mounted {@code data/alchemy} roots in pack order. Valid until {@link #close()}. */
+    public List<Path> dataRoots() {
+        return List.copyOf(dataRoots);
+    }
+
+    @Override
+    public void close() {
+        for (FileSystem fileSystem : fileSystems) {
+            try {
+                fileSystem.close();
+            } catch (IOException e) {
+                Alchemy.LOGGER.warn("Failed to close content pack {}", fileSystem, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package dk.mosberg.data;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import dk.mosberg.Alchemy;
+import net.minecraft.util.Identifier;
+
+/**
+ * Shared pools for the strings and identifiers that repeat across a content pack, such as
+ * categories, container kinds, container ids and tag names. Every parser, the binary cache
+ * decoder and the datapack reload path resolve values through these pools, so equal values within
+ * one load are one instance no matter which path produced them. The pools are safe for the
+ * parallel loader and are emptied by {@link #finish} at the end of every load, so they never keep
+ * values of earlier loads alive.
+ */
+final class Interner {
+    /** Approximate shallow size of a compact {@code String} and its byte array header. */
+    private static final int STRING_OVERHEAD = 24 + 16;
+    /** Approximate shallow size of an {@code Identifier} instance. */
+    private static final int IDENTIFIER_OVERHEAD = 16;
+
+    private static final Map<String, String> STRINGS = new ConcurrentHashMap<>();
+    private static final Map<String, Identifier> IDS = new ConcurrentHashMap<>();
+    private static final LongAdder REQUESTS = new LongAdder();
+    private static final LongAdder SAVED_BYTES = new LongAdder();
+
+    private Interner() {}
+
+    /** Returns the pooled instance equal to {@code value}; null stays null. */
+    static String string(String value) {
+        if (value == null) {
+            return null;
+        }
+        REQUESTS.increment();
+        String pooled = STRINGS.putIfAbsent(value, value);
+        if (pooled == null) {
+            return value;
+        }
+        SAVED_BYTES.add(stringBytes(value));
+        return pooled;
+    }
+
+    /** Returns the pooled identifier for {@code value}, parsing it only on first sight. */
+    static Identifier id(String value) {
+        REQUESTS.increment();
+        Identifier pooled = IDS.get(value);
+        if (pooled != null) {
+            SAVED_BYTES.add(IDENTIFIER_OVERHEAD + stringBytes(pooled.getNamespace())
+                    + stringBytes(pooled.getPath()));
+            return pooled;
+        }
+        Identifier parsed = Identifier.of(value);
+        Identifier shared =
+                Identifier.of(string(parsed.getNamespace()), string(parsed.getPath()));
+        pooled = IDS.putIfAbsent(value, shared);
+        return pooled != null ? pooled : shared;
+    }
+
+    /**
+     * Ends a load: logs how many values went through the pools and an estimate of the duplicate
+     * heap they avoided, then empties the pools and counters so the next load starts fresh.
+     */
+    static void finish(String phase) {
+        long requests = REQUESTS.sumThenReset();
+        long saved = SAVED_BYTES.sumThenReset();
+        Alchemy.LOGGER.info(
+                "{}: interned {} values into {} strings and {} identifiers, ~{} KiB of duplicates "
+                        + "avoided",
+                phase, requests, STRINGS.size(), IDS.size(), saved / 1024);
+        STRINGS.clear();
+        IDS.clear();
+    }
+
+    private static int stringBytes(String value) {
+        // Latin-1 compact strings store one byte per char, padded to 8 bytes
+        return STRING_OVERHEAD + ((value.length() + 7) & ~7);
+    }
+}
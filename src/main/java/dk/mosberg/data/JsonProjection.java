@@ -0,0 +1,98 @@
+package dk.mosberg.data;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+/**
+ * Token-streaming reader that materializes only the keys a definition parser actually reads.
+ * Every other value is consumed with {@link JsonReader#skipValue()} instead of becoming a
+ * {@code JsonElement} tree. The kept keys are still built as a tree and fed to the same parse
+ * methods as the DOM path, which keeps records and error messages identical between both modes.
+ *
+ * <p>The gain is the share of a document nobody reads. Container and equipment definitions carry
+ * crafting, upgrade and metadata blocks the loader ignores, so little more than a third of their
+ * tree is built. Beverage parsers read nearly every top-level key, so a beverage is still built
+ * almost completely and only its unused leaves are skipped.
+ */
+final class JsonProjection {
+    /** Marker for keys whose whole value is kept. */
+    private static final JsonProjection WHOLE = new JsonProjection(Map.of());
+
+    private final Map<String, JsonProjection> keys;
+
+    private JsonProjection(Map<String, JsonProjection> keys) {
+        this.keys = keys;
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Reads one definition document. Mirrors {@code Gson#fromJson(Reader, JsonObject.class)}: the
+     * reader is lenient, the root must be an object and the document must be fully consumed.
+     */
+    JsonObject read(Reader reader) throws IOException {
+        JsonReader in = new JsonReader(reader);
+        in.setStrictness(Strictness.LENIENT);
+        if (in.peek() != JsonToken.BEGIN_OBJECT) {
+            throw new JsonSyntaxException(
+                    "Expected a JSON object but was " + in.peek() + " at path " + in.getPath());
+        }
+        JsonObject root = readObject(in);
+        if (in.peek() != JsonToken.END_DOCUMENT) {
+            throw new JsonSyntaxException("JSON document was not fully consumed.");
+        }
+        return root;
+    }
+
+    private JsonObject readObject(JsonReader in) throws IOException {
+        JsonObject out = new JsonObject();
+        in.beginObject();
+        while (in.hasNext()) {
+            String name = in.nextName();
+            JsonProjection child = keys.get(name);
+            if (child == null) {
+                in.skipValue();
+            } else if (child == WHOLE || in.peek() != JsonToken.BEGIN_OBJECT) {
+                out.add(name, JsonParser.parseReader(in));
+            } else {
+                out.add(name, child.readObject(in));
+            }
+        }
+        in.endObject();
+        return out;
+    }
+
+    static final class Builder {
+        private final Map<String, JsonProjection> keys = new HashMap<>();
+
+        private Builder() {}
+
+        /** Keeps the complete values of the given keys. */
+        Builder keep(String... names) {
+            for (String name : names) {
+                keys.put(name, WHOLE);
+            }
+            return this;
+        }
+
+        /** Keeps only the projected part of an object-valued key. */
+        Builder nest(String name, JsonProjection projection) {
+            keys.put(name, projection);
+            return this;
+        }
+
+        JsonProjection build() {
+            return new JsonProjection(Map.copyOf(keys));
+        }
+    }
+}
@@ -0,0 +1,542 @@
+package dk.mosberg.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * A JSON Schema (draft-07) compiled into a tree of rule objects. Compilation resolves every local
+ * {@code $ref} once, turns {@code enum}/{@code const} into hash lookups and simple
+ * {@code ^prefix} patterns into {@code startsWith} checks, so validating a document is a single
+ * walk over its values with no schema interpretation left.
+ *
+ * <p>Supported keywords are the ones the alchemy schemas use plus their close relatives:
+ * {@code type, const, enum, required, properties, patternProperties, additionalProperties, items,
+ * minItems, maxItems, uniqueItems, minimum, maximum, exclusiveMinimum, exclusiveMaximum, minLength,
+ * maxLength, pattern, $ref, allOf, anyOf, oneOf, not, if/then/else}. Annotations such as
+ * {@code title}, {@code default} or {@code $comment} are ignored, and only {@code #...} references
+ * into the same document are allowed.
+ */
+final class JsonSchema {
+    private static final int NULL = 1;
+    private static final int BOOLEAN = 1 << 1;
+    private static final int OBJECT = 1 << 2;
+    private static final int ARRAY = 1 << 3;
+    private static final int NUMBER = 1 << 4;
+    private static final int INTEGER = 1 << 5;
+    private static final int STRING = 1 << 6;
+    private static final Pattern LITERAL_PREFIX = Pattern.compile("\\^[A-Za-z0-9_\\-:]*");
+
+    private final Node root;
+
+    private JsonSchema(Node root) {
+        this.root = root;
+    }
+
+    /** One failed rule: a JSON path such as {@code $.stats.nutrition.hunger}, and the keyword. */
+    record Violation(String path, String rule, String message) {
+    }
+
+    /** Compiles a schema document. Unsupported references fail here, not during validation. */
+    static JsonSchema compile(JsonObject schema) {
+        return new JsonSchema(new Compiler(schema).compile(schema));
+    }
+
+    /** Validates a document and returns every violation in document order. */
+    List<Violation> validate(JsonElement document) {
+        Context context = new Context(false);
+        root.validate(document, context);
+        return context.violations == null ? List.of() : context.violations;
+    }
+
+    // --- compiled form ---------------------------------------------------
+
+    @FunctionalInterface
+    private interface Rule {
+        /** Returns whether the value passes; failures are recorded on the context. */
+        boolean check(JsonElement value, Context context);
+    }
+
+    private static final class Node {
+        private Rule[] rules = new Rule[0];
+
+        boolean validate(JsonElement value, Context context) {
+            boolean valid = true;
+            for (Rule rule : rules) {
+                if (!rule.check(value, context)) {
+                    valid = false;
+                    if (context.quiet) {
+                        return false;
+                    }
+                }
+            }
+            return valid;
+        }
+    }
+
+    /**
+     * Walk state for one validation. Quiet contexts are used to evaluate {@code if}, {@code anyOf},
+     * {@code oneOf} and {@code not} branches; they stop at the first failure and record nothing.
+     */
+    private static final class Context {
+        private final boolean quiet;
+        private Object[] segments = new Object[16];
+        private int depth;
+        private List<Violation> violations;
+
+        Context(boolean quiet) {
+            this.quiet = quiet;
+        }
+
+        void push(Object segment) {
+            if (depth == segments.length) {
+                segments = java.util.Arrays.copyOf(segments, depth * 2);
+            }
+            segments[depth++] = segment;
+        }
+
+        void pop() {
+            depth--;
+        }
+
+        boolean fail(String rule, String message) {
+            if (!quiet) {
+                if (violations == null) {
+                    violations = new ArrayList<>();
+                }
+                violations.add(new Violation(path(), rule, message));
+            }
+            return false;
+        }
+
+        private String path() {
+            StringBuilder out = new StringBuilder("$");
+            for (int i = 0; i < depth; i++) {
+                if (segments[i] instanceof Integer index) {
+                    out.append('[').append(index).append(']');
+                } else {
+                    out.append('.').append(segments[i]);
+                }
+            }
+            return out.toString();
+        }
+    }
+
+    // --- compiler --------------------------------------------------------
+
+    private static final class Compiler {
+        private final JsonObject document;
+        private final Map<String, Node> refs = new HashMap<>();
+
+        Compiler(JsonObject document) {
+            this.document = document;
+        }
+
+        Node compile(JsonElement schema) {
+            Node node = new Node();
+            node.rules = rules(schema);
+            return node;
+        }
+
+        private Node ref(String pointer) {
+            Node node = refs.get(pointer);
+            if (node == null) {
+                // Registered before compiling so recursive schemas terminate
+                node = new Node();
+                refs.put(pointer, node);
+                node.rules = rules(resolve(pointer));
+            }
+            return node;
+        }
+
+        private JsonElement resolve(String pointer) {
+            if (!pointer.startsWith("#")) {
+                throw new IllegalArgumentException("Unsupported schema $ref: " + pointer);
+            }
+            JsonElement current = document;
+            for (String part : pointer.substring(1).split("/")) {
+                if (part.isEmpty()) {
+                    continue;
+                }
+                String key = part.replace("~1", "/").replace("~0", "~");
+                if (!current.isJsonObject() || !current.getAsJsonObject().has(key)) {
+                    throw new IllegalArgumentException("Unresolvable schema $ref: " + pointer);
+                }
+                current = current.getAsJsonObject().get(key);
+            }
+            return current;
+        }
+
+        private Rule[] rules(JsonElement schema) {
+            if (schema.isJsonPrimitive() && schema.getAsJsonPrimitive().isBoolean()) {
+                return schema.getAsBoolean() ? new Rule[0]
+                        : new Rule[] {(value, context) -> context.fail("false",
+                                "no value is allowed here")};
+            }
+            JsonObject s = schema.getAsJsonObject();
+            if (s.has("$ref")) {
+                // Draft-07: keywords next to $ref are ignored
+                Node target = ref(s.get("$ref").getAsString());
+                return new Rule[] {target::validate};
+            }
+
+            List<Rule> rules = new ArrayList<>();
+            if (s.has("type")) {
+                rules.add(type(s.get("type")));
+            }
+            if (s.has("const")) {
+                JsonElement expected = s.get("const");
+                rules.add((value, context) -> expected.equals(value)
+                        || context.fail("const", "expected " + expected));
+            }
+            if (s.has("enum")) {
+                Set<JsonElement> allowed = new HashSet<>();
+                s.getAsJsonArray("enum").forEach(allowed::add);
+                rules.add((value, context) -> allowed.contains(value)
+                        || context.fail("enum", value + " is not one of " + allowed));
+            }
+            if (s.has("required")) {
+                String[] required = strings(s.getAsJsonArray("required"));
+                rules.add((value, context) -> required(required, value, context));
+            }
+            if (s.has("properties") || s.has("patternProperties")
+                    || s.has("additionalProperties")) {
+                rules.add(objectRule(s));
+            }
+            if (s.has("items")) {
+                rules.add(items(s.get("items")));
+            }
+            arrayBounds(s, rules);
+            numberBounds(s, rules);
+            stringBounds(s, rules);
+            combinators(s, rules);
+            return rules.toArray(new Rule[0]);
+        }
+
+        private Rule type(JsonElement type) {
+            int mask = 0;
+            List<String> names = new ArrayList<>();
+            if (type.isJsonArray()) {
+                for (JsonElement name : type.getAsJsonArray()) {
+                    names.add(name.getAsString());
+                }
+            } else {
+                names.add(type.getAsString());
+            }
+            for (String name : names) {
+                mask |= switch (name) {
+                    case "null" -> NULL;
+                    case "boolean" -> BOOLEAN;
+                    case "object" -> OBJECT;
+                    case "array" -> ARRAY;
+                    case "number" -> NUMBER;
+                    case "integer" -> INTEGER;
+                    case "string" -> STRING;
+                    default -> throw new IllegalArgumentException("Unknown schema type: " + name);
+                };
+            }
+            int allowed = mask;
+            String expected = String.join("|", names);
+            return (value, context) -> (typeOf(value) & allowed) != 0
+                    || context.fail("type", "expected " + expected);
+        }
+
+        private Rule objectRule(JsonObject s) {
+            Map<String, Node> properties = new HashMap<>();
+            if (s.has("properties")) {
+                for (Map.Entry<String, JsonElement> entry : s.getAsJsonObject("properties")
+                        .entrySet()) {
+                    properties.put(entry.getKey(), compile(entry.getValue()));
+                }
+            }
+            List<KeyPattern> patterns = new ArrayList<>();
+            if (s.has("patternProperties")) {
+                for (Map.Entry<String, JsonElement> entry : s.getAsJsonObject("patternProperties")
+                        .entrySet()) {
+                    patterns.add(new KeyPattern(entry.getKey(), compile(entry.getValue())));
+                }
+            }
+            JsonElement additionalSchema = s.get("additionalProperties");
+            boolean forbidden = additionalSchema != null && additionalSchema.isJsonPrimitive()
+                    && !additionalSchema.getAsBoolean();
+            Node additional = additionalSchema != null && !forbidden ? compile(additionalSchema)
+                    : null;
+            KeyPattern[] patternArray = patterns.toArray(new KeyPattern[0]);
+
+            return (value, context) -> {
+                if (!value.isJsonObject()) {
+                    return true;
+                }
+                boolean valid = true;
+                for (Map.Entry<String, JsonElement> entry : value.getAsJsonObject().entrySet()) {
+                    String key = entry.getKey();
+                    context.push(key);
+                    Node property = properties.get(key);
+                    boolean matched = property != null;
+                    if (matched) {
+                        valid &= property.validate(entry.getValue(), context);
+                    }
+                    for (KeyPattern pattern : patternArray) {
+                        if (pattern.matches(key)) {
+                            matched = true;
+                            valid &= pattern.node().validate(entry.getValue(), context);
+                        }
+                    }
+                    if (!matched) {
+                        if (forbidden) {
+                            valid = context.fail("additionalProperties",
+                                    "property is not allowed");
+                        } else if (additional != null) {
+                            valid &= additional.validate(entry.getValue(), context);
+                        }
+                    }
+                    context.pop();
+                    if (!valid && context.quiet) {
+                        return false;
+                    }
+                }
+                return valid;
+            };
+        }
+
+        private Rule items(JsonElement items) {
+            if (items.isJsonArray()) {
+                List<Node> tuple = new ArrayList<>();
+                items.getAsJsonArray().forEach(item -> tuple.add(compile(item)));
+                Node[] positions = tuple.toArray(new Node[0]);
+                return (value, context) -> eachItem(value, context,
+                        index -> index < positions.length ? positions[index] : null);
+            }
+            Node node = compile(items);
+            return (value, context) -> eachItem(value, context, index -> node);
+        }
+
+        private void arrayBounds(JsonObject s, List<Rule> rules) {
+            if (s.has("minItems")) {
+                int min = s.get("minItems").getAsInt();
+                rules.add((value, context) -> !value.isJsonArray()
+                        || value.getAsJsonArray().size() >= min
+                        || context.fail("minItems", "expected at least " + min + " items"));
+            }
+            if (s.has("maxItems")) {
+                int max = s.get("maxItems").getAsInt();
+                rules.add((value, context) -> !value.isJsonArray()
+                        || value.getAsJsonArray().size() <= max
+                        || context.fail("maxItems", "expected at most " + max + " items"));
+            }
+            if (s.has("uniqueItems") && s.get("uniqueItems").getAsBoolean()) {
+                rules.add((value, context) -> {
+                    if (!value.isJsonArray()) {
+                        return true;
+                    }
+                    JsonArray array = value.getAsJsonArray();
+                    Set<JsonElement> seen = new HashSet<>(array.size() * 2);
+                    for (JsonElement element : array) {
+                        if (!seen.add(element)) {
+                            return context.fail("uniqueItems", "duplicate item " + element);
+                        }
+                    }
+                    return true;
+                });
+            }
+        }
+
+        private void numberBounds(JsonObject s, List<Rule> rules) {
+            bound(s, rules, "minimum", (number, limit) -> number >= limit, ">=");
+            bound(s, rules, "maximum", (number, limit) -> number <= limit, "<=");
+            bound(s, rules, "exclusiveMinimum", (number, limit) -> number > limit, ">");
+            bound(s, rules, "exclusiveMaximum", (number, limit) -> number < limit, "<");
+        }
+
+        private void bound(JsonObject s, List<Rule> rules, String keyword, Comparison comparison,
+                String symbol) {
+            if (!s.has(keyword)) {
+                return;
+            }
+            double limit = s.get(keyword).getAsDouble();
+            String message = "expected " + symbol + " " + s.get(keyword);
+            rules.add((value, context) -> (typeOf(value) & NUMBER) == 0
+                    || comparison.test(value.getAsDouble(), limit)
+                    || context.fail(keyword, message));
+        }
+
+        private void stringBounds(JsonObject s, List<Rule> rules) {
+            if (s.has("minLength")) {
+                int min = s.get("minLength").getAsInt();
+                rules.add((value, context) -> (typeOf(value) & STRING) == 0
+                        || codePoints(value) >= min
+                        || context.fail("minLength", "expected at least " + min + " characters"));
+            }
+            if (s.has("maxLength")) {
+                int max = s.get("maxLength").getAsInt();
+                rules.add((value, context) -> (typeOf(value) & STRING) == 0
+                        || codePoints(value) <= max
+                        || context.fail("maxLength", "expected at most " + max + " characters"));
+            }
+            if (s.has("pattern")) {
+                String regex = s.get("pattern").getAsString();
+                Pattern pattern = Pattern.compile(regex);
+                rules.add((value, context) -> (typeOf(value) & STRING) == 0
+                        || pattern.matcher(value.getAsString()).find()
+                        || context.fail("pattern", "does not match " + regex));
+            }
+        }
+
+        private void combinators(JsonObject s, List<Rule> rules) {
+            if (s.has("allOf")) {
+                for (Node node : nodes(s.getAsJsonArray("allOf"))) {
+                    rules.add(node::validate);
+                }
+            }
+            if (s.has("anyOf")) {
+                Node[] options = nodes(s.getAsJsonArray("anyOf"));
+                rules.add((value, context) -> matching(options, value, 1) > 0
+                        || context.fail("anyOf", "matches none of the allowed schemas"));
+            }
+            if (s.has("oneOf")) {
+                Node[] options = nodes(s.getAsJsonArray("oneOf"));
+                rules.add((value, context) -> {
+                    int matches = matching(options, value, 2);
+                    return matches == 1 || context.fail("oneOf", matches == 0
+                            ? "matches none of the allowed schemas"
+                            : "matches more than one schema");
+                });
+            }
+            if (s.has("not")) {
+                Node not = compile(s.get("not"));
+                rules.add((value, context) -> !not.validate(value, new Context(true))
+                        || context.fail("not", "matches a forbidden schema"));
+            }
+            if (s.has("if") && (s.has("then") || s.has("else"))) {
+                Node condition = compile(s.get("if"));
+                Node then = s.has("then") ? compile(s.get("then")) : null;
+                Node otherwise = s.has("else") ? compile(s.get("else")) : null;
+                rules.add((value, context) -> {
+                    Node branch = condition.validate(value, new Context(true)) ? then : otherwise;
+                    return branch == null || branch.validate(value, context);
+                });
+            }
+        }
+
+        private Node[] nodes(JsonArray schemas) {
+            Node[] nodes = new Node[schemas.size()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = compile(schemas.get(i));
+            }
+            return nodes;
+        }
+    }
+
+    /** A {@code patternProperties} key; literal {@code ^prefix} patterns skip the regex engine. */
+    private record KeyPattern(String prefix, Pattern pattern, Node node) {
+        KeyPattern(String regex, Node node) {
+            this(LITERAL_PREFIX.matcher(regex).matches() ? regex.substring(1) : null,
+                    Pattern.compile(regex), node);
+        }
+
+        boolean matches(String key) {
+            return prefix != null ? key.startsWith(prefix) : pattern.matcher(key).find();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Comparison {
+        boolean test(double number, double limit);
+    }
+
+    @FunctionalInterface
+    private interface NodeAt {
+        Node at(int index);
+    }
+
+    private static boolean eachItem(JsonElement value, Context context, NodeAt nodes) {
+        if (!value.isJsonArray()) {
+            return true;
+        }
+        JsonArray array = value.getAsJsonArray();
+        boolean valid = true;
+        for (int i = 0; i < array.size(); i++) {
+            Node node = nodes.at(i);
+            if (node == null) {
+                continue;
+            }
+            context.push(i);
+            valid &= node.validate(array.get(i), context);
+            context.pop();
+            if (!valid && context.quiet) {
+                return false;
+            }
+        }
+        return valid;
+    }
+
+    private static boolean required(String[] required, JsonElement value, Context context) {
+        if (!value.isJsonObject()) {
+            return true;
+        }
+        JsonObject object = value.getAsJsonObject();
+        boolean valid = true;
+        for (String key : required) {
+            if (!object.has(key)) {
+                valid = context.fail("required", "missing property '" + key + "'");
+                if (context.quiet) {
+                    return false;
+                }
+            }
+        }
+        return valid;
+    }
+
+    private static int matching(Node[] options, JsonElement value, int stopAt) {
+        int matches = 0;
+        for (Node option : options) {
+            if (option.validate(value, new Context(true)) && ++matches >= stopAt) {
+                break;
+            }
+        }
+        return matches;
+    }
+
+    private static int typeOf(JsonElement value) {
+        if (value == null || value.isJsonNull()) {
+            return NULL;
+        }
+        if (value.isJsonObject()) {
+            return OBJECT;
+        }
+        if (value.isJsonArray()) {
+            return ARRAY;
+        }
+        JsonPrimitive primitive = value.getAsJsonPrimitive();
+        if (primitive.isBoolean()) {
+            return BOOLEAN;
+        }
+        if (primitive.isString()) {
+            return STRING;
+        }
+        double number = primitive.getAsDouble();
+        return !Double.isInfinite(number) && number == Math.rint(number) ? NUMBER | INTEGER
+                : NUMBER;
+    }
+
+    private static int codePoints(JsonElement value) {
+        String string = value.getAsString();
+        return string.codePointCount(0, string.length());
+    }
+
+    private static String[] strings(JsonArray array) {
+        String[] out = new String[array.size()];
+        for (int i = 0; i < out.length; i++) {
+            out[i] = array.get(i).getAsString();
+        }
+        return out;
+    }
+}
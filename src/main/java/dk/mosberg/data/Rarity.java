@@ -0,0 +1,25 @@
+package dk.mosberg.data;
+
+import java.util.Locale;
+
+/** Rarity tiers allowed by the {@code rarity} definition shared by all alchemy schemas. */
+public enum Rarity {
+    COMMON, UNCOMMON, RARE, EPIC, LEGENDARY;
+
+    private static final Rarity[] VALUES = values();
+
+    /** Parses a schema value such as {@code "rare"}. */
+    public static Rarity of(String value) {
+        for (Rarity rarity : VALUES) {
+            if (rarity.name().equalsIgnoreCase(value)) {
+                return rarity;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rarity: " + value);
+    }
+
+    /** Returns the lower-case form used in JSON. */
+    public String asString() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,167 @@
+package dk.mosberg.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import dk.mosberg.Alchemy;
+import net.fabricmc.loader.api.FabricLoader;
+
+/**
+ * Optional schema validation pass over every definition file, enabled with
+ * {@code -Dalchemy.loader.validate=true}. Each schema in {@code data/alchemy/schema} is compiled
+ * once into a {@link JsonSchema}, files are checked in parallel, and all violations are written to
+ * one JSON report ({@code logs/alchemy-validation.json} unless
+ * {@code -Dalchemy.loader.validateReport=<path>} is set). Validation only reports; definitions are
+ * still loaded by the regular parsers.
+ */
+final class SchemaValidation {
+    static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("alchemy.loader.validate", "false"));
+    private static final String SCHEMA_DIR = "schema";
+
+    /** Compiled schemas by file name; schemas are compiled at most once per JVM. */
+    private static final Map<String, JsonSchema> COMPILED = new ConcurrentHashMap<>();
+
+    private SchemaValidation() {}
+
+    /** A group of definition files and the schema file that describes them. */
+    record Target(String schema, List<Path> files) {
+    }
+
+    /** One violation in the aggregated report. */
+    record Finding(String file, String path, String rule, String message) {
+    }
+
+    /**
+     * Validates all targets and writes the aggregated report. Schemas are looked up in the
+     * {@code schema} folder of the data roots, in root order.
+     *
+     * @return every violation found, grouped by target and in file order
+     */
+    static List<Finding> run(List<Target> targets, List<Path> dataRoots, boolean parallel) {
+        long start = System.nanoTime();
+        List<Finding> findings = new ArrayList<>();
+        int files = 0;
+        for (Target target : targets) {
+            JsonSchema schema = schema(target.schema(), dataRoots);
+            if (schema == null) {
+                continue;
+            }
+            files += target.files().size();
+            var stream = parallel ? target.files().parallelStream() : target.files().stream();
+            // Stream#toList keeps encounter order, so the report is stable across runs
+            stream.map(file -> validate(schema, file)).toList().forEach(findings::addAll);
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        Path report = reportLocation();
+        write(report, files, findings);
+        if (findings.isEmpty()) {
+            Alchemy.LOGGER.info("Schema validation passed for {} files in {} ms", files, millis);
+        } else {
+            Alchemy.LOGGER.warn(
+                    "Schema validation found {} violations in {} files in {} ms, see {}",
+                    findings.size(), files, millis, report);
+        }
+        return findings;
+    }
+
+    private static JsonSchema schema(String name, List<Path> dataRoots) {
+        JsonSchema cached = COMPILED.get(name);
+        if (cached != null) {
+            return cached;
+        }
+        for (Path dataRoot : dataRoots) {
+            Path file = dataRoot.resolve(SCHEMA_DIR).resolve(name);
+            if (!Files.isRegularFile(file)) {
+                continue;
+            }
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                JsonSchema schema =
+                        JsonSchema.compile(JsonParser.parseReader(reader).getAsJsonObject());
+                COMPILED.put(name, schema);
+                return schema;
+            } catch (IOException | RuntimeException e) {
+                Alchemy.LOGGER.error("Failed to compile schema {}", file, e);
+                return null;
+            }
+        }
+        Alchemy.LOGGER.warn("Schema {} not found, skipping validation of its files", name);
+        return null;
+    }
+
+    private static List<Finding> validate(JsonSchema schema, Path file) {
+        String name = displayName(file);
+        JsonElement document;
+        try (Reader reader =
+                new BufferedReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            document = JsonParser.parseReader(reader);
+        } catch (IOException | JsonParseException e) {
+            return List.of(new Finding(name, "$", "syntax", String.valueOf(e.getMessage())));
+        }
+        List<JsonSchema.Violation> violations = schema.validate(document);
+        if (violations.isEmpty()) {
+            return List.of();
+        }
+        List<Finding> findings = new ArrayList<>(violations.size());
+        for (JsonSchema.Violation violation : violations) {
+            findings.add(new Finding(name, violation.path(), violation.rule(),
+                    violation.message()));
+        }
+        return findings;
+    }
+
+    /** Plain paths for files on disk, {@code jar:} URIs for files inside content pack archives. */
+    private static String displayName(Path file) {
+        return file.getFileSystem() == FileSystems.getDefault() ? file.toString()
+                : file.toUri().toString();
+    }
+
+    private static Path reportLocation() {
+        String configured = System.getProperty("alchemy.loader.validateReport");
+        if (configured != null && !configured.isBlank()) {
+            return Path.of(configured);
+        }
+        return FabricLoader.getInstance().getGameDir().resolve("logs")
+                .resolve(Alchemy.MOD_ID + "-validation.json");
+    }
+
+    private static void write(Path report, int files, List<Finding> findings) {
+        try {
+            Files.createDirectories(report.toAbsolutePath().getParent());
+            try (Writer out = Files.newBufferedWriter(report, StandardCharsets.UTF_8);
+                    JsonWriter json = new JsonWriter(out)) {
+                json.setIndent("  ");
+                json.beginObject();
+                json.name("files").value(files);
+                json.name("violations").value(findings.size());
+                json.name("errors").beginArray();
+                for (Finding finding : findings) {
+                    json.beginObject();
+                    json.name("file").value(finding.file());
+                    json.name("path").value(finding.path());
+                    json.name("rule").value(finding.rule());
+                    json.name("message").value(finding.message());
+                    json.endObject();
+                }
+                json.endArray();
+                json.endObject();
+            }
+        } catch (IOException e) {
+            Alchemy.LOGGER.warn("Could not write schema validation report {}", report, e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package dk.mosberg.data;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import dk.mosberg.Alchemy;
+import net.minecraft.util.Identifier;
+
+/**
+ * Dense tag numbering and the container/beverage compatibility matrix of one beverage snapshot.
+ * Every tag named by a beverage's {@code tags} or a container's {@code liquid.accepted_tags} gets
+ * an index, and both lists are stored as bitsets over those indices, so testing whether a
+ * container accepts a beverage is an AND of two bitsets instead of a list intersection.
+ *
+ * <p>The matrix row of a container has bit {@code i} set for the {@code i}-th beverage that it may
+ * hold. Beverages are numbered in snapshot order, which is the order {@link BeverageManager}
+ * assigns its indices in, so a row can be tested with a beverage index directly. Containers are
+ * numbered in pack order; they are not reloaded, so a container's number stays valid for the
+ * whole game. A container without accepted tags holds every beverage.
+ *
+ * <p>Beverage tags change on datapack reload, so {@link #current()} rebuilds the index whenever the
+ * {@link BeverageManager.Snapshot} generation changes, like {@code RecipeIndex}.
+ */
+public final class TagIndex {
+    private static final long[] NONE = new long[0];
+
+    private static volatile TagIndex current = new TagIndex(-1, List.of(), List.of());
+
+    private final int generation;
+    private final Map<Identifier, Integer> tags = new HashMap<>();
+    private final Map<Identifier, Integer> beverages = new HashMap<>();
+    private final Map<Identifier, Integer> containers = new HashMap<>();
+    private final Map<Identifier, long[]> beverageTags = new HashMap<>();
+    private final Map<Identifier, long[]> acceptedTags = new HashMap<>();
+    /** Matrix rows by container number. */
+    private final long[][] rows;
+
+    private TagIndex(int generation, Collection<BeverageData> beverageData,
+            Collection<ContainerData> containerData) {
+        this.generation = generation;
+        this.rows = new long[containerData.size()][];
+        for (BeverageData data : beverageData) {
+            number(data.tags());
+        }
+        for (ContainerData data : containerData) {
+            number(data.liquid().acceptedTags());
+        }
+        long[][] columns = new long[beverageData.size()][];
+        int column = 0;
+        for (BeverageData data : beverageData) {
+            long[] bits = bits(data.tags());
+            beverageTags.put(data.id(), bits);
+            beverages.put(data.id(), column);
+            columns[column++] = bits;
+        }
+        int words = (columns.length + Long.SIZE - 1) / Long.SIZE;
+        for (ContainerData data : containerData) {
+            long[] accepted = bits(data.liquid().acceptedTags());
+            acceptedTags.put(data.id(), accepted);
+            long[] row = new long[words];
+            boolean any = data.liquid().acceptedTags().isEmpty();
+            for (int i = 0; i < columns.length; i++) {
+                if (any || intersects(accepted, columns[i])) {
+                    row[i >>> 6] |= 1L << i;
+                }
+            }
+            containers.put(data.id(), containers.size());
+            rows[containers.size() - 1] = row;
+        }
+    }
+
+    /** Numbers the tags of {@code beverages} and {@code containers} and builds the matrix. */
+    static TagIndex of(Collection<BeverageData> beverages, Collection<ContainerData> containers) {
+        return new TagIndex(-1, beverages, containers);
+    }
+
+    /**
+     * Returns the index of the current beverage snapshot and the startup pack's containers,
+     * rebuilding it when stale.
+     */
+    public static TagIndex current() {
+        TagIndex index = current;
+        BeverageManager.Snapshot snapshot = BeverageManager.snapshot();
+        if (index.generation != snapshot.generation()) {
+            synchronized (TagIndex.class) {
+                index = current;
+                if (index.generation != snapshot.generation()) {
+                    ContentPack content = Alchemy.content();
+                    index = new TagIndex(snapshot.generation(), snapshot.beverages().values(),
+                            content != null ? content.containerValues() : List.of());
+                    current = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /** Generation of the beverage snapshot this index was built from. */
+    public int generation() {
+        return generation;
+    }
+
+    /** Returns whether two tag bitsets share a tag. */
+    public static boolean intersects(long[] a, long[] b) {
+        for (int i = Math.min(a.length, b.length) - 1; i >= 0; i--) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Dense index of {@code tag}, or -1 if no definition names it. */
+    public int index(Identifier tag) {
+        Integer index = tags.get(tag);
+        return index != null ? index : -1;
+    }
+
+    /** Number of distinct tags in the pack. */
+    public int size() {
+        return tags.size();
+    }
+
+    /** Tag bitset of a beverage; empty for unknown ids. Callers must not modify the array. */
+    public long[] beverageTags(Identifier beverage) {
+        return beverageTags.getOrDefault(beverage, NONE);
+    }
+
+    /** Accepted-tag bitset of a container; empty for unknown ids. Do not modify the array. */
+    public long[] acceptedTags(Identifier container) {
+        return acceptedTags.getOrDefault(container, NONE);
+    }
+
+    /** Dense number of {@code container}, or -1 for unknown ids. */
+    public int container(Identifier container) {
+        Integer number = containers.get(container);
+        return number != null ? number : -1;
+    }
+
+    /**
+     * Matrix row of {@code container}: bit {@code i} is set when it may hold the {@code i}-th
+     * beverage. Empty for unknown ids. Callers must not modify the array.
+     */
+    public long[] compatibleBeverages(Identifier container) {
+        int number = container(container);
+        return number >= 0 ? rows[number] : NONE;
+    }
+
+    /** Returns whether {@code container} may hold {@code beverage}. */
+    public boolean canHold(Identifier container, Identifier beverage) {
+        Integer column = beverages.get(beverage);
+        return column != null && contains(compatibleBeverages(container), column);
+    }
+
+    /**
+     * Returns whether the container numbered {@code container} may hold the beverage at
+     * {@code beverageIndex}; false for unknown numbers.
+     */
+    public boolean canHold(int container, int beverageIndex) {
+        return container >= 0 && container < rows.length
+                && contains(rows[container], beverageIndex);
+    }
+
+    /** Returns whether bit {@code index} is set in {@code bits}. */
+    public static boolean contains(long[] bits, int index) {
+        return index >= 0 && index >>> 6 < bits.length && (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    private void number(List<Identifier> names) {
+        for (Identifier name : names) {
+            tags.putIfAbsent(name, tags.size());
+        }
+    }
+
+    private long[] bits(List<Identifier> names) {
+        long[] bits = new long[(tags.size() + Long.SIZE - 1) / Long.SIZE];
+        for (Identifier name : names) {
+            int index = tags.get(name);
+            bits[index >>> 6] |= 1L << index;
+        }
+        return bits;
+    }
+}
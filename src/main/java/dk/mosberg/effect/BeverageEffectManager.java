@@ -14,6 +14,14 @@ public final class BeverageEffectManager {
         return data.foodComponent();
     }
 
+    /**
+     * Compiles the effect list of a beverage into an {@link EffectProgram}. Called once per
+     * definition whenever {@code BeverageManager} publishes a snapshot.
+     */
+    public static EffectProgram compile(BeverageData data) {
+        return EffectProgram.compile(data);
+    }
+
     public static StatusEffectInstance primaryEffect(BeverageData data) {
         var primary = data.primaryEffect();
         return primary == null ? null : primary.toInstance();
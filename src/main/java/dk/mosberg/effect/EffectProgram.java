@@ -0,0 +1,104 @@
+package dk.mosberg.effect;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.profiling.ConsumptionMetrics;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.math.random.Random;
+
+/**
+ * A beverage's effect list flattened into parallel primitive arrays, in declaration order. Entries
+ * whose chance is at least 1 always pass {@code nextFloat() <= chance}, so they are applied without
+ * drawing a random number; the remaining entries keep one draw each. Applying a program allocates
+ * only the {@link StatusEffectInstance}s it hands out.
+ *
+ * <p>Entries are applied in the order they are declared, since the order of
+ * {@code addStatusEffect} calls decides which instance wins when an effect appears more than once.
+ * Per-entry probabilities and the effect instances produced are the same as
+ * {@link BeverageData#applyEffects}.
+ *
+ * <p>Each entry also holds the {@link ConsumptionMetrics} counter of its effect, resolved at
+ * compile time, and increments it whenever the entry is applied.
+ */
+public final class EffectProgram {
+    private static final int SHOW_PARTICLES = 1;
+    private static final int SHOW_ICON = 1 << 1;
+    private static final int AMBIENT = 1 << 2;
+
+    private final RegistryEntry<StatusEffect>[] effects;
+    private final int[] durations;
+    private final int[] amplifiers;
+    private final float[] chances;
+    private final byte[] flags;
+    private final LongAdder[] counters;
+
+    @SuppressWarnings("unchecked")
+    private EffectProgram(int size) {
+        this.effects = new RegistryEntry[size];
+        this.durations = new int[size];
+        this.amplifiers = new int[size];
+        this.chances = new float[size];
+        this.flags = new byte[size];
+        this.counters = new LongAdder[size];
+    }
+
+    /** Compiles the effect list of {@code data}. */
+    static EffectProgram compile(BeverageData data) {
+        List<BeverageData.EffectEntry> entries = data.effects();
+        EffectProgram program = new EffectProgram(entries.size());
+        for (int slot = 0; slot < entries.size(); slot++) {
+            BeverageData.EffectEntry entry = entries.get(slot);
+            program.effects[slot] = entry.effect();
+            program.durations[slot] = entry.durationTicks();
+            program.amplifiers[slot] = entry.amplifier();
+            program.chances[slot] = entry.chance();
+            program.flags[slot] = (byte) ((entry.showParticles() ? SHOW_PARTICLES : 0)
+                    | (entry.showIcon() ? SHOW_ICON : 0) | (entry.ambient() ? AMBIENT : 0));
+            program.counters[slot] = ConsumptionMetrics.effect(entry.effect());
+        }
+        return program;
+    }
+
+    /** Applies the program to {@code target}, drawing from {@code random} for gated entries. */
+    public void apply(LivingEntity target, Random random) {
+        apply(target, random, 1.0f);
+    }
+
+    /**
+     * Applies the program with every finite duration multiplied by {@code durationScale}, rounded
+     * and kept at least one tick. Infinite durations are not scaled.
+     */
+    public void apply(LivingEntity target, Random random, float durationScale) {
+        apply(target::addStatusEffect, random, durationScale);
+    }
+
+    /** Applies the program like {@link #apply(LivingEntity, Random, float)}, into {@code sink}. */
+    public void apply(BeverageData.BeverageEffectSink sink, Random random, float durationScale) {
+        for (int i = 0; i < effects.length; i++) {
+            float chance = chances[i];
+            if (chance >= 1.0f || random.nextFloat() <= chance) {
+                sink.accept(instance(i, durationScale));
+            }
+        }
+    }
+
+    /** Number of entries. */
+    public int size() {
+        return effects.length;
+    }
+
+    private StatusEffectInstance instance(int i, float durationScale) {
+        counters[i].increment();
+        int bits = flags[i];
+        int duration = durations[i];
+        if (durationScale != 1.0f && duration > 0) {
+            duration = Math.max(1, Math.round(duration * durationScale));
+        }
+        return new StatusEffectInstance(effects[i], duration, amplifiers[i],
+                (bits & AMBIENT) != 0, (bits & SHOW_PARTICLES) != 0, (bits & SHOW_ICON) != 0);
+    }
+}
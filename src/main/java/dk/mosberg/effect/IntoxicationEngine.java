@@ -0,0 +1,78 @@
+package dk.mosberg.effect;
+
+import dk.mosberg.Alchemy;
+import dk.mosberg.data.BeverageData;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.entity.effect.StatusEffects;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Player intoxication driven by {@code stats.intoxication} of each beverage. The level is stored
+ * as an {@link IntoxicationState} attachment holding the level and the game time it was recorded
+ * at; reads compute the decayed value in closed form and nothing ticks per player.
+ *
+ * <p>Threshold effects are handed to the entity once per drink with a duration equal to the
+ * predicted time until the level decays below the threshold, so vanilla effect expiry ends them
+ * at the right moment and a player who stops drinking costs no further work.
+ */
+public final class IntoxicationEngine {
+    /** Decay used when a beverage declares none, so every player eventually sobers up. */
+    private static final float MIN_DECAY_PER_TICK = 1.0e-4f;
+    private static final float MAX_LEVEL = 3.0f;
+
+    private static final Threshold[] THRESHOLDS = {
+            new Threshold(0.5f, StatusEffects.SLOWNESS, 0),
+            new Threshold(1.0f, StatusEffects.NAUSEA, 0),
+            new Threshold(1.5f, StatusEffects.WEAKNESS, 0),
+            new Threshold(2.0f, StatusEffects.BLINDNESS, 0)};
+
+    /** Persistent per-entity intoxication; absent means sober. */
+    public static final AttachmentType<IntoxicationState> STATE = AttachmentRegistry.create(
+            Identifier.of(Alchemy.MOD_ID, "intoxication"),
+            builder -> builder.persistent(IntoxicationState.CODEC));
+
+    private IntoxicationEngine() {}
+
+    private record Threshold(float level, RegistryEntry<StatusEffect> effect, int amplifier) {
+    }
+
+    /** Registers the attachment type. Called during mod initialization. */
+    public static void register() {
+        // Trigger static initializers
+    }
+
+    /** Returns the intoxication level of {@code entity} at game time {@code now}. */
+    public static float level(Entity entity, long now) {
+        IntoxicationState state = entity.getAttached(STATE);
+        return state == null ? 0.0f : state.levelAt(now);
+    }
+
+    /** Adds one drink of a beverage and schedules the threshold effects it reaches. */
+    public static void drink(LivingEntity user, long now, BeverageData.Intoxication intoxication) {
+        if (intoxication == null || intoxication.value() <= 0) {
+            return;
+        }
+        IntoxicationState previous = user.getAttached(STATE);
+        float rate = Math.max(MIN_DECAY_PER_TICK, (float) intoxication.decayRatePerTick());
+        IntoxicationState next = previous == null
+                ? new IntoxicationState(Math.min(MAX_LEVEL, (float) intoxication.value()), rate,
+                        now)
+                : previous.drink(now, (float) intoxication.value(), rate, MAX_LEVEL);
+        user.setAttached(STATE, next);
+
+        for (Threshold threshold : THRESHOLDS) {
+            long ticks = next.ticksAtOrAbove(threshold.level(), now);
+            if (ticks > 0) {
+                user.addStatusEffect(new StatusEffectInstance(threshold.effect(),
+                        (int) Math.min(ticks, Integer.MAX_VALUE), threshold.amplifier(), true,
+                        false, true));
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package dk.mosberg.effect;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+
+/**
+ * Intoxication of one entity as of a game time. The level decays linearly, so the value at any
+ * later time is computed in closed form and nothing has to be updated while time passes.
+ *
+ * @param level level at {@code time}
+ * @param decayPerTick linear decay applied after {@code time}
+ * @param time world game time the level was recorded at
+ */
+public record IntoxicationState(float level, float decayPerTick, long time) {
+    public static final Codec<IntoxicationState> CODEC =
+            RecordCodecBuilder.create(instance -> instance.group(
+                    Codec.FLOAT.fieldOf("level").forGetter(IntoxicationState::level),
+                    Codec.FLOAT.fieldOf("decay_per_tick")
+                            .forGetter(IntoxicationState::decayPerTick),
+                    Codec.LONG.fieldOf("time").forGetter(IntoxicationState::time))
+                    .apply(instance, IntoxicationState::new));
+
+    /** Returns the decayed level at game time {@code now}. */
+    public float levelAt(long now) {
+        return Math.max(0.0f, level - decayPerTick * Math.max(0L, now - time));
+    }
+
+    /**
+     * Returns the number of ticks after {@code now} during which the level stays at or above
+     * {@code threshold}, or 0 if it is already below.
+     */
+    public long ticksAtOrAbove(float threshold, long now) {
+        float current = levelAt(now);
+        if (current < threshold) {
+            return 0;
+        }
+        return (long) Math.floor((current - threshold) / decayPerTick) + 1;
+    }
+
+    /**
+     * Adds one drink at {@code now}. The new decay rate is the level-weighted mean of the remaining
+     * level's rate and the drink's rate, which keeps the decay linear.
+     */
+    IntoxicationState drink(long now, float amount, float drinkDecayPerTick, float maxLevel) {
+        float current = levelAt(now);
+        float total = current + amount;
+        float rate = current <= 0.0f ? drinkDecayPerTick
+                : (current * decayPerTick + amount * drinkDecayPerTick) / total;
+        return new IntoxicationState(Math.min(maxLevel, total), rate, now);
+    }
+}
@@ -0,0 +1,128 @@
+package dk.mosberg.fluid;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import dk.mosberg.block.ContainerBlockEntity;
+
+/**
+ * One connected set of liquid containers and pipe-capable equipment. Each tick an active network
+ * runs one batched step that evens out the fill level of containers holding the same beverage:
+ * containers above the common fill fraction pour into those below it, limited by their pour and
+ * fill rates. Empty containers join the first beverage that needs them. A network whose step moved
+ * nothing goes to sleep until one of its containers changes or its topology does, so idle networks
+ * cost nothing per tick.
+ */
+public final class FluidNetwork {
+    final List<FluidNetworkGraph.Node> nodes = new ArrayList<>();
+    final List<ContainerBlockEntity> containers = new ArrayList<>();
+    private boolean settled;
+
+    FluidNetwork() {}
+
+    /** Marks the network active so the next tick balances it. */
+    public void wake() {
+        settled = false;
+    }
+
+    boolean settled() {
+        return settled;
+    }
+
+    /** Number of containers and equipment blocks in the network. */
+    public int size() {
+        return nodes.size();
+    }
+
+    void add(FluidNetworkGraph.Node node) {
+        nodes.add(node);
+        node.network = this;
+        if (node.container != null) {
+            containers.add(node.container);
+            node.container.setFluidNetwork(this);
+        }
+        settled = false;
+    }
+
+    /** Runs one transfer step at game time {@code now}. */
+    void balance(long now) {
+        boolean moved = false;
+        if (containers.size() > 1) {
+            BitSet done = new BitSet();
+            for (ContainerBlockEntity container : containers) {
+                int beverage = container.beverage();
+                if (beverage != ContainerBlockEntity.EMPTY && !done.get(beverage)
+                        && container.amountMb(now) > 0) {
+                    done.set(beverage);
+                    moved |= balance(beverage, now);
+                }
+            }
+        }
+        settled = !moved;
+    }
+
+    /**
+     * Moves {@code beverage} from containers above the common fill fraction to those below it.
+     * Sources and sinks are walked with two cursors, so the step is linear in the container count.
+     */
+    private boolean balance(int beverage, long now) {
+        int count = containers.size();
+        int[] excess = new int[count];
+        boolean[] member = new boolean[count];
+        long total = 0;
+        long capacity = 0;
+        for (int i = 0; i < count; i++) {
+            ContainerBlockEntity container = containers.get(i);
+            int amount = container.amountMb(now);
+            member[i] = amount > 0 ? container.beverage() == beverage : container.holdsLiquid();
+            if (member[i]) {
+                excess[i] = amount;
+                total += amount;
+                capacity += container.capacityMb();
+            }
+        }
+        if (total == 0 || capacity == 0) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (member[i]) {
+                excess[i] -= (int) (total * containers.get(i).capacityMb() / capacity);
+            }
+        }
+
+        boolean moved = false;
+        int sink = 0;
+        for (int i = 0; i < count && sink < count; i++) {
+            if (!member[i] || excess[i] <= 0) {
+                continue;
+            }
+            ContainerBlockEntity source = containers.get(i);
+            int available = Math.min(excess[i], source.pourableMb(now));
+            while (available > 0 && sink < count) {
+                ContainerBlockEntity target = containers.get(sink);
+                int amount = !member[sink] || excess[sink] >= 0 ? 0
+                        : Math.min(Math.min(available, -excess[sink]),
+                                target.fillableMb(beverage, now));
+                if (amount <= 0) {
+                    sink++;
+                    continue;
+                }
+                // Fill first and pour only what the target accepted, so a refused or partial fill
+                // leaves the rest in the source; what was accepted is within the source's pour
+                // budget, so the pour takes all of it
+                int accepted = target.fill(beverage, amount, source.quality(now),
+                        source.brewedAt(), now);
+                if (accepted <= 0) {
+                    sink++;
+                    continue;
+                }
+                source.pour(accepted, now);
+                available -= accepted;
+                excess[i] -= accepted;
+                excess[sink] += accepted;
+                moved = true;
+            }
+        }
+        return moved;
+    }
+}
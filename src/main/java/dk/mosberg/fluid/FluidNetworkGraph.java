@@ -0,0 +1,156 @@
+package dk.mosberg.fluid;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import dk.mosberg.block.ContainerBlockEntity;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+
+/**
+ * Cached connection graph of one world. Nodes are added and removed as their block entities load
+ * and unload; only the networks touching the changed node are updated, so the graph is never
+ * rebuilt by scanning the world. Two nodes are connected when they are face-adjacent and both
+ * expose the shared face.
+ */
+final class FluidNetworkGraph {
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final Set<FluidNetwork> networks = new LinkedHashSet<>();
+
+    /** A container or pipe-capable machine at a packed block position. */
+    static final class Node {
+        final long pos;
+        /** Connectable faces as a bit mask of {@link Direction} ordinals. */
+        final int sides;
+        /** The container at this position, or null for equipment that only conducts. */
+        final ContainerBlockEntity container;
+        FluidNetwork network;
+
+        Node(long pos, int sides, ContainerBlockEntity container) {
+            this.pos = pos;
+            this.sides = sides;
+            this.container = container;
+        }
+
+        private boolean exposes(Direction side) {
+            return (sides & 1 << side.ordinal()) != 0;
+        }
+    }
+
+    /**
+     * Adds a node and joins it to its neighbours' networks. When it bridges several networks the
+     * smaller ones are merged into the largest, so a merge costs the size of the smaller side.
+     */
+    void add(Node node) {
+        remove(node.pos);
+        nodes.put(node.pos, node);
+        FluidNetwork largest = null;
+        Set<FluidNetwork> touching = new LinkedHashSet<>();
+        for (Direction side : DIRECTIONS) {
+            Node neighbour = neighbour(node, side);
+            if (neighbour != null) {
+                touching.add(neighbour.network);
+                if (largest == null || neighbour.network.size() > largest.size()) {
+                    largest = neighbour.network;
+                }
+            }
+        }
+        if (largest == null) {
+            largest = new FluidNetwork();
+            networks.add(largest);
+        }
+        for (FluidNetwork other : touching) {
+            if (other != largest) {
+                for (Node member : other.nodes) {
+                    largest.add(member);
+                }
+                networks.remove(other);
+            }
+        }
+        largest.add(node);
+    }
+
+    /**
+     * Removes the node at {@code pos}. When it connected two or more neighbours its network may have
+     * split, so the remaining nodes are flooded again into one network per component.
+     */
+    void remove(long pos) {
+        Node node = nodes.remove(pos);
+        if (node == null) {
+            return;
+        }
+        if (node.container != null) {
+            node.container.setFluidNetwork(null);
+        }
+        FluidNetwork network = node.network;
+        network.nodes.remove(node);
+        if (node.container != null) {
+            network.containers.remove(node.container);
+        }
+        network.wake();
+        int connected = 0;
+        for (Direction side : DIRECTIONS) {
+            if (neighbour(node, side) != null) {
+                connected++;
+            }
+        }
+        if (network.nodes.isEmpty()) {
+            networks.remove(network);
+        } else if (connected > 1) {
+            split(network);
+        }
+    }
+
+    /** Balances every active network; settled networks are skipped until something wakes them. */
+    void tick(long now) {
+        for (FluidNetwork network : networks) {
+            if (!network.settled()) {
+                network.balance(now);
+            }
+        }
+    }
+
+    boolean isEmpty() {
+        return nodes.isEmpty();
+    }
+
+    private void split(FluidNetwork network) {
+        networks.remove(network);
+        for (Node start : network.nodes) {
+            start.network = null;
+        }
+        for (Node start : network.nodes) {
+            if (start.network != null) {
+                continue;
+            }
+            FluidNetwork component = new FluidNetwork();
+            networks.add(component);
+            component.add(start);
+            ArrayDeque<Node> queue = new ArrayDeque<>();
+            queue.add(start);
+            while (!queue.isEmpty()) {
+                Node current = queue.poll();
+                for (Direction side : DIRECTIONS) {
+                    Node next = neighbour(current, side);
+                    if (next != null && next.network == null) {
+                        component.add(next);
+                        queue.add(next);
+                    }
+                }
+            }
+        }
+    }
+
+    /** The node on {@code side} of {@code node} when both expose the shared face, else null. */
+    private Node neighbour(Node node, Direction side) {
+        if (!node.exposes(side)) {
+            return null;
+        }
+        Node other = nodes.get(BlockPos.offset(node.pos, side));
+        return other != null && other.exposes(side.getOpposite()) ? other : null;
+    }
+}
@@ -0,0 +1,75 @@
+package dk.mosberg.fluid;
+
+import java.util.HashMap;
+import java.util.Map;
+import dk.mosberg.block.ContainerBlockEntity;
+import dk.mosberg.block.EquipmentBlockEntity;
+import dk.mosberg.data.EquipmentData;
+import dk.mosberg.registry.ModBlocks;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerBlockEntityEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.block.entity.BlockEntity;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+/**
+ * Moves liquid between face-adjacent containers. Membership is opt-in through the data: liquid
+ * containers connect on their {@code liquid.transfer.pipe_sides} and equipment with
+ * {@code automation.supports_pipes} on its {@code pipe_sides}, so a row of machines conducts
+ * between the containers at its ends. Blocks that list no sides never join a network. The
+ * connection graph of each world is cached and updated incrementally as block entities load and
+ * unload; each tick only networks that changed since their last step are balanced.
+ */
+public final class FluidNetworks {
+    private static final Map<RegistryKey<World>, FluidNetworkGraph> GRAPHS = new HashMap<>();
+
+    private FluidNetworks() {}
+
+    /** Hooks the networks into block entity load/unload, world tick and server stop events. */
+    public static void register() {
+        ServerBlockEntityEvents.BLOCK_ENTITY_LOAD.register(FluidNetworks::load);
+        ServerBlockEntityEvents.BLOCK_ENTITY_UNLOAD.register((blockEntity, world) -> {
+            FluidNetworkGraph graph = GRAPHS.get(world.getRegistryKey());
+            if (graph != null) {
+                graph.remove(blockEntity.getPos().asLong());
+                if (graph.isEmpty()) {
+                    GRAPHS.remove(world.getRegistryKey());
+                }
+            }
+        });
+        ServerTickEvents.END_WORLD_TICK.register(world -> {
+            FluidNetworkGraph graph = GRAPHS.get(world.getRegistryKey());
+            if (graph != null) {
+                graph.tick(world.getTime());
+            }
+        });
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> GRAPHS.clear());
+    }
+
+    private static void load(BlockEntity blockEntity, ServerWorld world) {
+        FluidNetworkGraph.Node node = node(blockEntity);
+        if (node != null) {
+            GRAPHS.computeIfAbsent(world.getRegistryKey(), key -> new FluidNetworkGraph())
+                    .add(node);
+        }
+    }
+
+    private static FluidNetworkGraph.Node node(BlockEntity blockEntity) {
+        long pos = blockEntity.getPos().asLong();
+        if (blockEntity instanceof ContainerBlockEntity container) {
+            return container.pipeSides() != 0
+                    ? new FluidNetworkGraph.Node(pos, container.pipeSides(), container)
+                    : null;
+        }
+        if (blockEntity instanceof EquipmentBlockEntity) {
+            EquipmentData data = ModBlocks.equipmentData(blockEntity.getCachedState().getBlock());
+            if (data != null && data.automation().supportsPipes()
+                    && data.automation().pipeSides() != 0) {
+                return new FluidNetworkGraph.Node(pos, data.automation().pipeSides(), null);
+            }
+        }
+        return null;
+    }
+}
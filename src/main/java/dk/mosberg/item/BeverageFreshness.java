@@ -0,0 +1,150 @@
+package dk.mosberg.item;
+
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.registry.ModComponents;
+import net.minecraft.item.ItemStack;
+
+/**
+ * Quality and spoilage of beverage stacks, computed in closed form from the stack's
+ * {@link BeverageStamp} and the definition's {@link BeverageData.Freshness}. Nothing ticks: a
+ * sealed container ages and spoils at the base rate until it is opened, after which spoilage runs
+ * at {@code opened_decay_multiplier} times the base rate. Values are evaluated only where they are
+ * needed, which is the tooltip and drinking.
+ *
+ * <p>A stamp that carries its own quality, taken when the stack was poured from a container,
+ * starts from that quality instead of the brew quality. Spoilage then counts only from the time
+ * the quality was taken, and the aging bonus adds only what was earned after it.
+ *
+ * <p>Stamp times are rounded down to the start of their in-game day and stamped qualities to whole
+ * percent, so servings brewed, poured or opened on the same day stack. This shifts freshness by
+ * less than a day, which the tooltip's whole percentages barely show.
+ */
+public final class BeverageFreshness {
+    /** Game ticks in one in-game day. */
+    public static final long TICKS_PER_DAY = 24000L;
+    /** Steps stamped qualities are rounded to. */
+    private static final float QUALITY_STEPS = 100.0f;
+
+    /** Game time used by tooltips, which have no world at hand; negative when unknown. */
+    private static volatile LongSupplier tooltipClock = () -> -1L;
+
+    private BeverageFreshness() {}
+
+    /** Sets the clock tooltips read the game time from. Called by the client entry point. */
+    public static void setTooltipClock(LongSupplier clock) {
+        tooltipClock = Objects.requireNonNull(clock, "clock");
+    }
+
+    /** Returns the tooltip clock's game time, or a negative value when no world is loaded. */
+    public static long tooltipTime() {
+        return tooltipClock.getAsLong();
+    }
+
+    /**
+     * Stamps {@code stack} as brewed at {@code brewedAt} and opened at {@code openedAt}, or
+     * {@link BeverageStamp#SEALED}, both rounded down to the day.
+     */
+    public static void stamp(ItemStack stack, long brewedAt, long openedAt) {
+        stack.set(ModComponents.BEVERAGE_STAMP,
+                new BeverageStamp(day(brewedAt), day(openedAt)));
+    }
+
+    /**
+     * Stamps {@code stack} like {@link #stamp(ItemStack, long, long)}, but with {@code quality} as
+     * its quality at game time {@code qualityAt} rather than the brew quality.
+     */
+    public static void stamp(ItemStack stack, long brewedAt, long openedAt, float quality,
+            long qualityAt) {
+        float rounded = Math.round(Math.max(0.0f, quality) * QUALITY_STEPS) / QUALITY_STEPS;
+        stack.set(ModComponents.BEVERAGE_STAMP,
+                new BeverageStamp(day(brewedAt), day(openedAt), rounded, day(qualityAt)));
+    }
+
+    /**
+     * Marks a stamped stack as opened at {@code now}, rounded down to the day; does nothing if it
+     * is already open.
+     */
+    public static void open(ItemStack stack, long now) {
+        BeverageStamp stamp = stack.get(ModComponents.BEVERAGE_STAMP);
+        if (stamp != null && stamp.sealed()) {
+            stack.set(ModComponents.BEVERAGE_STAMP, stamp.open(day(now)));
+        }
+    }
+
+    /** Start of the in-game day {@code time} falls in; negative times are left as they are. */
+    private static long day(long time) {
+        return time < 0 ? time : time - time % TICKS_PER_DAY;
+    }
+
+    /** Spoilage between 0 (fresh) and 1 (fully spoiled) at game time {@code now}. */
+    public static float spoilage(BeverageData data, BeverageStamp stamp, long now) {
+        BeverageData.Spoilage spoilage = data.freshness().spoilage();
+        if (!spoilage.enabled() || data.config().disableSpoilage()) {
+            return 0.0f;
+        }
+        long from = anchor(stamp);
+        double days = sealedDays(stamp, from, now)
+                + spoilage.openedMultiplier() * openDays(stamp, from, now);
+        return (float) Math.min(1.0, Math.max(0.0, spoilage.decayPerDay() * days));
+    }
+
+    /**
+     * Quality at game time {@code now}: the brew quality, or the stamped quality, plus the aging
+     * bonus earned while sealed since then, minus spoilage, clamped to the definition's floor and
+     * ceiling. Beverages that do not support quality always report their brew quality.
+     */
+    public static float quality(BeverageData data, BeverageStamp stamp, long now) {
+        BeverageData.Quality quality = data.freshness().quality();
+        if (!quality.supported()) {
+            return quality.onBrew();
+        }
+        BeverageData.Aging aging = data.freshness().aging();
+        double value = stamp.hasQuality()
+                ? stamp.quality() + agingBonus(aging, stamp, now)
+                        - agingBonus(aging, stamp, stamp.qualityAt())
+                : quality.onBrew() + agingBonus(aging, stamp, now);
+        value -= spoilage(data, stamp, now);
+        return (float) Math.max(quality.floor(), Math.min(quality.ceiling(), value));
+    }
+
+    /**
+     * Factor applied to effect durations when drinking: quality relative to brew quality, so a
+     * fresh drink behaves exactly as defined. Unstamped stacks return 1.
+     */
+    public static float durationScale(BeverageData data, ItemStack stack, long now) {
+        BeverageStamp stamp = stack.get(ModComponents.BEVERAGE_STAMP);
+        float onBrew = data.freshness().quality().onBrew();
+        if (stamp == null || onBrew <= 0.0f) {
+            return 1.0f;
+        }
+        return quality(data, stamp, now) / onBrew;
+    }
+
+    private static double agingBonus(BeverageData.Aging aging, BeverageStamp stamp, long now) {
+        double days = sealedDays(stamp, stamp.brewedAt(), now);
+        if (!aging.supported() || days < aging.minDays()) {
+            return 0.0;
+        }
+        return aging.bonusPerDay() * Math.min(days, aging.maxDays());
+    }
+
+    /** Game time spoilage counts from: when the stamped quality was taken, or the brew time. */
+    private static long anchor(BeverageStamp stamp) {
+        return stamp.hasQuality() ? Math.max(stamp.brewedAt(), stamp.qualityAt())
+                : stamp.brewedAt();
+    }
+
+    /** Days between {@code from} and {@code now} that the stack spent sealed. */
+    private static double sealedDays(BeverageStamp stamp, long from, long now) {
+        long end = stamp.sealed() ? now : Math.min(now, stamp.openedAt());
+        return Math.max(0L, end - from) / (double) TICKS_PER_DAY;
+    }
+
+    /** Days between {@code from} and {@code now} that the stack spent open. */
+    private static double openDays(BeverageStamp stamp, long from, long now) {
+        return stamp.sealed() ? 0.0
+                : Math.max(0L, now - Math.max(from, stamp.openedAt())) / (double) TICKS_PER_DAY;
+    }
+}
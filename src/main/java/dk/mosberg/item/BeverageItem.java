@@ -0,0 +1,238 @@
+package dk.mosberg.item;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.data.ContainerData;
+import dk.mosberg.effect.BeverageEffectManager;
+import dk.mosberg.effect.EffectProgram;
+import dk.mosberg.effect.IntoxicationEngine;
+import dk.mosberg.profiling.ConsumptionMetrics;
+import dk.mosberg.registry.ModComponents;
+import net.minecraft.component.type.TooltipDisplayComponent;
+import net.minecraft.entity.LivingEntity;
+import net.minecraft.entity.player.PlayerEntity;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.consume.UseAction;
+import net.minecraft.item.tooltip.TooltipType;
+import net.minecraft.text.Text;
+import net.minecraft.util.Formatting;
+import net.minecraft.world.World;
+
+/**
+ * Shared behavior of the JSON-defined beverage items. Applies multiple effects with per-effect
+ * chance, returns the configured empty container when consumed, and renders the definition's
+ * tooltip lines.
+ *
+ * <p>Tooltip lines are built once per content snapshot and reused for every frame and slot. The
+ * lines are translatable texts, which resolve against the active language at render time, so a
+ * language change needs no rebuild; a datapack reload publishes a new snapshot generation and the
+ * next call rebuilds them.
+ *
+ * <p>Stacks are stamped with their brew time where they are made: crafting, loot rolls and pours
+ * from a placed container. Quality and spoilage are derived from that stamp by
+ * {@link BeverageFreshness} whenever the tooltip is shown or the beverage is drunk; lower quality
+ * shortens the effects proportionally, and the first drink opens a sealed stack.
+ */
+public abstract class BeverageItem extends Item {
+    /** Definition the item was registered with; the food component is fixed to it. */
+    private final BeverageData data;
+    private final ContainerData containerData;
+    private final Item returnItem;
+    private final LongAdder consumed;
+    /** {@link BeverageManager} index of the beverage, fixed at registration. */
+    private final int index;
+    private volatile Tooltip tooltip;
+
+    private record Tooltip(int generation, List<Text> lines) {}
+
+    protected BeverageItem(BeverageData data, ContainerData containerData, Item returnItem) {
+        super(new Item.Settings()
+                .registryKey(net.minecraft.registry.RegistryKey
+                        .of(net.minecraft.registry.RegistryKeys.ITEM, data.id()))
+                .maxCount(data.stackSize()).food(BeverageEffectManager.toFoodComponent(data)));
+        this.data = Objects.requireNonNull(data, "data");
+        this.containerData = containerData;
+        this.returnItem = returnItem;
+        this.consumed = ConsumptionMetrics.beverage(data.id());
+        this.index = BeverageManager.indexOf(data.id());
+    }
+
+    /**
+     * Index of this item's beverage in {@link BeverageManager}, for per-beverage lookup tables
+     * that must not hash on hot paths; -1 if the beverage was not registered first.
+     */
+    public int beverageIndex() {
+        return index;
+    }
+
+    /** Empty container item handed back when the beverage is drunk or emptied, or null. */
+    public Item returnItem() {
+        return returnItem;
+    }
+
+    /** Definition of the container this beverage comes in, or null if it has none. */
+    public ContainerData containerData() {
+        return containerData;
+    }
+
+    /**
+     * Stamps {@code stack} as brewed at {@code brewedAt}. It starts sealed unless its container
+     * starts open, in which case it counts as opened at {@code now}.
+     */
+    public void stamp(ItemStack stack, long brewedAt, long now) {
+        boolean sealed = containerData == null || containerData.seal() == null
+                || containerData.seal().startsSealed();
+        BeverageFreshness.stamp(stack, brewedAt, sealed ? BeverageStamp.SEALED : now);
+    }
+
+    /**
+     * Stamps {@code stack} like {@link #stamp(ItemStack, long, long)}, with {@code quality} as its
+     * quality at {@code now}. Used for servings poured from a container, whose quality has moved
+     * on from the brew quality.
+     */
+    public void stamp(ItemStack stack, long brewedAt, long now, float quality) {
+        boolean sealed = containerData == null || containerData.seal() == null
+                || containerData.seal().startsSealed();
+        BeverageFreshness.stamp(stack, brewedAt, sealed ? BeverageStamp.SEALED : now, quality,
+                now);
+    }
+
+    @Override
+    public UseAction getUseAction(ItemStack stack) {
+        if (containerData != null && containerData.interaction() != null
+                && containerData.interaction().useAction() != null) {
+            return containerData.interaction().useAction();
+        }
+        return UseAction.DRINK;
+    }
+
+    @Override
+    public int getMaxUseTime(ItemStack stack, LivingEntity user) {
+        return 32;
+    }
+
+    @Override
+    public ItemStack finishUsing(ItemStack stack, World world, LivingEntity user) {
+        ItemStack result = super.finishUsing(stack, world, user);
+
+        if (!world.isClient()) {
+            // What is left of the stack has been opened by this drink
+            BeverageFreshness.open(stack, world.getTime());
+            consumed.increment();
+            applyEffects(stack, user, world);
+            if (user instanceof PlayerEntity) {
+                IntoxicationEngine.drink(user, world.getTime(), getData().stats().intoxication());
+            }
+
+            if (user instanceof PlayerEntity player && returnItem != null && !player.isCreative()) {
+                ItemStack container = new ItemStack(returnItem);
+                if (stack.isEmpty()) {
+                    return container;
+                }
+                if (!player.getInventory().insertStack(container)) {
+                    player.dropItem(container, false);
+                }
+            }
+        }
+
+        return result;
+    }
+
+    @Override
+    public void appendTooltip(ItemStack stack, Item.TooltipContext context,
+            TooltipDisplayComponent displayComponent, Consumer<Text> textConsumer,
+            TooltipType type) {
+        for (Text line : tooltipLines()) {
+            textConsumer.accept(line);
+        }
+        BeverageStamp stamp = stack.get(ModComponents.BEVERAGE_STAMP);
+        long now = BeverageFreshness.tooltipTime();
+        if (stamp != null && now >= 0) {
+            BeverageData current = getData();
+            if (current.freshness().quality().supported()) {
+                textConsumer.accept(Text.translatable("tooltip.alchemy.quality",
+                        percent(BeverageFreshness.quality(current, stamp, now)))
+                        .formatted(Formatting.AQUA));
+            }
+            float spoilage = BeverageFreshness.spoilage(current, stamp, now);
+            if (spoilage > 0.0f) {
+                textConsumer.accept(Text.translatable("tooltip.alchemy.spoilage",
+                        percent(spoilage)).formatted(Formatting.RED));
+            }
+        }
+    }
+
+    @Override
+    public void onCraft(ItemStack stack, World world) {
+        super.onCraft(stack, world);
+        if (!world.isClient() && !stack.contains(ModComponents.BEVERAGE_STAMP)) {
+            stamp(stack, world.getTime(), world.getTime());
+        }
+    }
+
+    private static int percent(float value) {
+        return Math.round(value * 100.0f);
+    }
+
+    private void applyEffects(ItemStack stack, LivingEntity user, World world) {
+        BeverageManager.Snapshot snapshot = BeverageManager.snapshot();
+        EffectProgram program = snapshot.program(data.id());
+        if (program != null) {
+            BeverageData current = snapshot.get(data.id());
+            float scale = BeverageFreshness.durationScale(current != null ? current : data, stack,
+                    world.getTime());
+            program.apply(user, world.getRandom(), scale);
+        } else {
+            data.applyEffects(user::addStatusEffect, world.getRandom());
+        }
+    }
+
+    /** Returns the cached tooltip lines, rebuilding them when the content snapshot changed. */
+    private List<Text> tooltipLines() {
+        BeverageManager.Snapshot snapshot = BeverageManager.snapshot();
+        Tooltip cached = tooltip;
+        if (cached == null || cached.generation() != snapshot.generation()) {
+            BeverageData current = snapshot.get(data.id());
+            cached = new Tooltip(snapshot.generation(),
+                    buildTooltip(current != null ? current : data));
+            tooltip = cached;
+        }
+        return cached.lines();
+    }
+
+    private static List<Text> buildTooltip(BeverageData data) {
+        var keys = data.textKeys();
+        return List.of(
+                line(keys != null ? keys.lore() : null, data.translationKey("lore"),
+                        Formatting.GRAY),
+                line(keys != null ? keys.effect() : null, data.translationKey("effects"),
+                        Formatting.GOLD),
+                line(keys != null ? keys.ingredients() : null, data.translationKey("ingredients"),
+                        Formatting.DARK_GREEN),
+                line(keys != null ? keys.brewTime() : null, data.translationKey("brew_time"),
+                        Formatting.BLUE),
+                line(keys != null ? keys.warning() : null, data.translationKey("warning"),
+                        Formatting.DARK_RED),
+                line(keys != null ? keys.flavor() : null, data.translationKey("flavor_text"),
+                        Formatting.ITALIC, Formatting.DARK_GRAY));
+    }
+
+    private static Text line(String explicitKey, String fallbackKey, Formatting... formatting) {
+        String key = explicitKey != null && !explicitKey.isBlank() ? explicitKey : fallbackKey;
+        return Text.translatable(key).formatted(formatting);
+    }
+
+    /**
+     * Returns the current definition of this beverage, which follows datapack reloads. Falls back
+     * to the registration-time definition if the current snapshot does not contain it.
+     */
+    public BeverageData getData() {
+        BeverageData current = BeverageManager.get(data.id());
+        return current != null ? current : data;
+    }
+}
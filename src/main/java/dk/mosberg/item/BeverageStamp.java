@@ -0,0 +1,63 @@
+package dk.mosberg.item;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import net.minecraft.network.RegistryByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.codec.PacketCodecs;
+
+/**
+ * Timestamps carried by a brewed beverage stack. Quality and spoilage are derived from these on
+ * demand, see {@link BeverageFreshness}.
+ *
+ * <p>A freshly brewed stack takes its definition's brew quality. A stack poured from a container
+ * instead carries the contents' quality at the time it was poured, so barrel aging is kept.
+ *
+ * @param brewedAt world game time the beverage was brewed
+ * @param openedAt world game time the container was opened, or {@link #SEALED}
+ * @param quality quality as of {@code qualityAt}, or {@link #BREW_QUALITY}
+ * @param qualityAt world game time {@code quality} was taken; unused with {@link #BREW_QUALITY}
+ */
+public record BeverageStamp(long brewedAt, long openedAt, float quality, long qualityAt) {
+    /** {@link #openedAt} of a container that has not been opened. */
+    public static final long SEALED = -1L;
+    /** {@link #quality} of a stack that has its definition's brew quality when brewed. */
+    public static final float BREW_QUALITY = -1.0f;
+
+    public static final Codec<BeverageStamp> CODEC =
+            RecordCodecBuilder.create(instance -> instance.group(
+                    Codec.LONG.fieldOf("brewed_at").forGetter(BeverageStamp::brewedAt),
+                    Codec.LONG.optionalFieldOf("opened_at", SEALED)
+                            .forGetter(BeverageStamp::openedAt),
+                    Codec.FLOAT.optionalFieldOf("quality", BREW_QUALITY)
+                            .forGetter(BeverageStamp::quality),
+                    Codec.LONG.optionalFieldOf("quality_at", 0L)
+                            .forGetter(BeverageStamp::qualityAt))
+                    .apply(instance, BeverageStamp::new));
+
+    public static final PacketCodec<RegistryByteBuf, BeverageStamp> PACKET_CODEC =
+            PacketCodec.tuple(PacketCodecs.VAR_LONG, BeverageStamp::brewedAt,
+                    PacketCodecs.VAR_LONG, BeverageStamp::openedAt,
+                    PacketCodecs.FLOAT, BeverageStamp::quality,
+                    PacketCodecs.VAR_LONG, BeverageStamp::qualityAt, BeverageStamp::new);
+
+    /** A stamp with the definition's brew quality. */
+    public BeverageStamp(long brewedAt, long openedAt) {
+        this(brewedAt, openedAt, BREW_QUALITY, 0L);
+    }
+
+    public boolean sealed() {
+        return openedAt < 0;
+    }
+
+    /** Returns whether this stamp carries its own quality rather than the brew quality. */
+    public boolean hasQuality() {
+        return quality >= 0.0f;
+    }
+
+    /** Returns this stamp opened at {@code now}, or itself if it is already open. */
+    public BeverageStamp open(long now) {
+        return sealed() ? new BeverageStamp(brewedAt, Math.max(brewedAt, now), quality, qualityAt)
+                : this;
+    }
+}
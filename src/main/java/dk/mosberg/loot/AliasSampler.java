@@ -0,0 +1,92 @@
+package dk.mosberg.loot;
+
+import net.minecraft.util.math.random.Random;
+
+/**
+ * Samples indices in proportion to fixed weights in constant time, using Vose's alias method. The
+ * weights are split into equal columns once at build time; each column holds part of one index and
+ * tops up with an alias, so a sample is one uniform column pick and one biased coin flip no matter
+ * how many weights there are.
+ */
+public final class AliasSampler {
+    /** Probability of keeping each column's own index rather than its alias. */
+    private final float[] keep;
+    private final int[] alias;
+
+    /**
+     * Builds a sampler over {@code weights}. Zero weights are never sampled.
+     *
+     * @throws IllegalArgumentException if a weight is negative or all weights are zero
+     */
+    public AliasSampler(int[] weights) {
+        int n = weights.length;
+        long total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must not be negative: " + weight);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("At least one weight must be positive");
+        }
+        this.keep = new float[n];
+        this.alias = new int[n];
+
+        // Scaled so the average column is exactly 1
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (double) weights[i] * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            int less = small[--smallSize];
+            int more = large[--largeSize];
+            keep[less] = (float) scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // Whatever is left is 1 up to rounding error
+        while (largeSize > 0) {
+            int index = large[--largeSize];
+            keep[index] = 1.0f;
+            alias[index] = index;
+        }
+        while (smallSize > 0) {
+            int index = small[--smallSize];
+            keep[index] = 1.0f;
+            alias[index] = index;
+        }
+    }
+
+    /** Number of weights the sampler was built from. */
+    public int size() {
+        return keep.length;
+    }
+
+    /** Samples an index. */
+    public int sample(Random random) {
+        return sample(random.nextInt(keep.length), random.nextFloat());
+    }
+
+    /**
+     * Samples an index from a uniformly chosen {@code column} in {@code [0, size())} and a uniform
+     * {@code coin} in {@code [0, 1)}.
+     */
+    public int sample(int column, float coin) {
+        return coin < keep[column] ? column : alias[column];
+    }
+}
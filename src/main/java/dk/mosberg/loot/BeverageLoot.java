@@ -0,0 +1,127 @@
+package dk.mosberg.loot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import dk.mosberg.Alchemy;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.item.BeverageItem;
+import dk.mosberg.registry.ModItems;
+import net.fabricmc.fabric.api.loot.v3.LootTableEvents;
+import net.minecraft.item.ItemStack;
+import net.minecraft.loot.LootTable;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.math.random.Random;
+
+/**
+ * Injects beverages into the loot tables named by their {@code loot.tables}. For every target table
+ * an {@link AliasSampler} over the beverages' effective loot weights is built once per beverage
+ * snapshot, so each roll of a target table costs one hash lookup and one constant-time sample
+ * regardless of how many beverages share the table.
+ *
+ * <p>A roll of a target table adds one beverage with probability {@code alchemy.loot.chance}
+ * (default 0.2). Tables in the {@code alchemy} namespace also target the vanilla table of the same
+ * path and its {@code chests/} variant, so {@code alchemy:desert_pyramid} fills desert pyramid
+ * chests.
+ */
+public final class BeverageLoot {
+    private static final float CHANCE =
+            Float.parseFloat(System.getProperty("alchemy.loot.chance", "0.2"));
+
+    private static volatile Tables current = new Tables(-1, Map.of());
+
+    private BeverageLoot() {}
+
+    /** Beverage items of one target table and the sampler over their weights. */
+    record Table(BeverageItem[] items, AliasSampler sampler) {
+        /** Rolls one beverage, stamped as brewed at {@code now}. */
+        ItemStack roll(Random random, long now) {
+            BeverageItem item = items[sampler.sample(random)];
+            ItemStack stack = new ItemStack(item);
+            item.stamp(stack, now, now);
+            return stack;
+        }
+    }
+
+    private record Tables(int generation, Map<Identifier, Table> byTable) {}
+
+    /** Hooks beverage injection into loot table rolls. */
+    public static void register() {
+        LootTableEvents.MODIFY_DROPS.register((entry, context, drops) -> {
+            Table table = table(entry);
+            if (table != null && context.getRandom().nextFloat() < CHANCE) {
+                drops.add(table.roll(context.getRandom(), context.getWorld().getTime()));
+            }
+        });
+    }
+
+    /** Rebuilds the samplers from the current beverage snapshot if they are stale. */
+    public static void refresh() {
+        tables();
+    }
+
+    private static Table table(RegistryEntry<LootTable> entry) {
+        Map<Identifier, Table> byTable = tables().byTable();
+        if (byTable.isEmpty()) {
+            return null;
+        }
+        return entry.getKey().map(RegistryKey::getValue).map(byTable::get).orElse(null);
+    }
+
+    private static Tables tables() {
+        Tables tables = current;
+        BeverageManager.Snapshot snapshot = BeverageManager.snapshot();
+        if (tables.generation() != snapshot.generation()) {
+            synchronized (BeverageLoot.class) {
+                tables = current;
+                if (tables.generation() != snapshot.generation()) {
+                    tables = new Tables(snapshot.generation(),
+                            build(snapshot.beverages().values()));
+                    current = tables;
+                }
+            }
+        }
+        return tables;
+    }
+
+    /** Groups beverages by target table and builds one sampler per table. */
+    static Map<Identifier, Table> build(Iterable<BeverageData> beverages) {
+        Map<Identifier, List<BeverageItem>> items = new HashMap<>();
+        Map<Identifier, List<Integer>> weights = new HashMap<>();
+        for (BeverageData data : beverages) {
+            int weight = data.lootWeight();
+            if (weight == 0 || !(ModItems.beverage(data.id()) instanceof BeverageItem item)) {
+                continue;
+            }
+            for (Identifier table : data.loot().tables()) {
+                for (Identifier target : targets(table)) {
+                    items.computeIfAbsent(target, t -> new ArrayList<>()).add(item);
+                    weights.computeIfAbsent(target, t -> new ArrayList<>()).add(weight);
+                }
+            }
+        }
+        Map<Identifier, Table> tables = new HashMap<>();
+        for (Map.Entry<Identifier, List<BeverageItem>> entry : items.entrySet()) {
+            int[] tableWeights = weights.get(entry.getKey()).stream()
+                    .mapToInt(Integer::intValue).toArray();
+            tables.put(entry.getKey(), new Table(entry.getValue().toArray(BeverageItem[]::new),
+                    new AliasSampler(tableWeights)));
+        }
+        Alchemy.LOGGER.debug("Built beverage loot samplers for {} tables", tables.size());
+        return tables;
+    }
+
+    private static List<Identifier> targets(Identifier table) {
+        if (!Alchemy.MOD_ID.equals(table.getNamespace())) {
+            return List.of(table);
+        }
+        String path = table.getPath();
+        Identifier vanilla = Identifier.ofVanilla(path);
+        return path.startsWith("chests/") ? List.of(table, vanilla)
+                : List.of(table, vanilla, Identifier.ofVanilla("chests/" + path));
+    }
+}
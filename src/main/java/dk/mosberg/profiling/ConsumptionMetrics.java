@@ -0,0 +1,151 @@
+package dk.mosberg.profiling;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import com.google.gson.stream.JsonWriter;
+import dk.mosberg.Alchemy;
+import net.fabricmc.loader.api.FabricLoader;
+import net.minecraft.entity.effect.StatusEffect;
+import net.minecraft.registry.entry.RegistryEntry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Counts consumed beverages and applied status effects. Every beverage and every effect gets one
+ * {@link LongAdder}, which stripes increments across cells so concurrent drinkers never contend on
+ * one counter. Callers resolve their adder once, when the item is created or the effect program is
+ * compiled, so the drink path is a plain {@link LongAdder#increment()} with no map lookup.
+ *
+ * <p>Counts are read and reset with {@code /alchemy stats}. Setting
+ * {@code -Dalchemy.stats.dumpSeconds=N} additionally writes the running totals to
+ * {@code logs/alchemy-stats.json} every {@code N} seconds without resetting them.
+ */
+public final class ConsumptionMetrics {
+    private static final Map<Identifier, LongAdder> BEVERAGES = new ConcurrentHashMap<>();
+    private static final Map<String, LongAdder> EFFECTS = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService dumper;
+
+    private ConsumptionMetrics() {}
+
+    /** Counts read at one point in time, each sorted by descending count. */
+    public record Report(Map<String, Long> beverages, Map<String, Long> effects) {
+        public long totalBeverages() {
+            return beverages.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        public long totalEffects() {
+            return effects.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+
+    /** Returns the counter of beverage {@code id}; hold on to it instead of looking it up again. */
+    public static LongAdder beverage(Identifier id) {
+        return BEVERAGES.computeIfAbsent(id, key -> new LongAdder());
+    }
+
+    /** Returns the counter of status effect {@code effect}, shared by all beverages. */
+    public static LongAdder effect(RegistryEntry<StatusEffect> effect) {
+        return EFFECTS.computeIfAbsent(effect.getIdAsString(), key -> new LongAdder());
+    }
+
+    /**
+     * Reads all counters, zeroing each after reading it when {@code reset} is set. The reset uses
+     * {@link LongAdder#sumThenReset()}, which is not atomic: an increment that races with it may be
+     * lost. The counts are for profiling, so an occasional lost drink is acceptable.
+     */
+    public static Report report(boolean reset) {
+        Map<String, Long> beverages = new LinkedHashMap<>();
+        BEVERAGES.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey().toString(), read(entry.getValue(), reset)))
+                .filter(entry -> entry.getValue() > 0).sorted(byCount())
+                .forEach(entry -> beverages.put(entry.getKey(), entry.getValue()));
+        Map<String, Long> effects = new LinkedHashMap<>();
+        EFFECTS.entrySet().stream()
+                .map(entry -> Map.entry(entry.getKey(), read(entry.getValue(), reset)))
+                .filter(entry -> entry.getValue() > 0).sorted(byCount())
+                .forEach(entry -> effects.put(entry.getKey(), entry.getValue()));
+        return new Report(beverages, effects);
+    }
+
+    /** Starts the periodic dump when {@code alchemy.stats.dumpSeconds} is set. */
+    public static synchronized void startPeriodicDump() {
+        long seconds = Long.getLong("alchemy.stats.dumpSeconds", 0L);
+        if (seconds <= 0 || dumper != null) {
+            return;
+        }
+        Path file = FabricLoader.getInstance().getGameDir().resolve("logs")
+                .resolve(Alchemy.MOD_ID + "-stats.json");
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Alchemy stats dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleWithFixedDelay(() -> dump(file), seconds, seconds, TimeUnit.SECONDS);
+        Alchemy.LOGGER.info("Dumping consumption metrics to {} every {} s", file, seconds);
+    }
+
+    /** Writes the current totals to {@code file} without resetting them. */
+    public static void dump(Path file) {
+        Report report = report(false);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            // Write next to the target and move, so readers never see a half-written file
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8);
+                    JsonWriter json = new JsonWriter(out)) {
+                json.setIndent("  ");
+                json.beginObject();
+                json.name("time").value(System.currentTimeMillis());
+                writeCounts(json, "beverages", report.beverages());
+                writeCounts(json, "effects", report.effects());
+                json.endObject();
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Alchemy.LOGGER.warn("Could not write consumption metrics {}", file, e);
+        }
+    }
+
+    /** Formats a report as chat lines, at most {@code limit} entries per section. */
+    public static List<String> format(Report report, int limit) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Beverages consumed: " + report.totalBeverages());
+        report.beverages().entrySet().stream().limit(limit)
+                .forEach(entry -> lines.add("  " + entry.getKey() + ": " + entry.getValue()));
+        lines.add("Effects applied: " + report.totalEffects());
+        report.effects().entrySet().stream().limit(limit)
+                .forEach(entry -> lines.add("  " + entry.getKey() + ": " + entry.getValue()));
+        return lines;
+    }
+
+    private static long read(LongAdder adder, boolean reset) {
+        return reset ? adder.sumThenReset() : adder.sum();
+    }
+
+    private static Comparator<Map.Entry<String, Long>> byCount() {
+        return Map.Entry.<String, Long>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+    }
+
+    private static void writeCounts(JsonWriter json, String name, Map<String, Long> counts)
+            throws IOException {
+        json.name(name).beginObject();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            json.name(entry.getKey()).value(entry.getValue());
+        }
+        json.endObject();
+    }
+}
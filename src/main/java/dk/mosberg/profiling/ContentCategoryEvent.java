@@ -0,0 +1,28 @@
+package dk.mosberg.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event spanning the parse of one definition folder, such as {@code beverages}. */
+@Name("dk.mosberg.alchemy.ContentCategory")
+@Label("Alchemy Content Category")
+@Category({"Alchemy", "Startup"})
+@Description("Parsing of all definition files of one category")
+@StackTrace(false)
+final class ContentCategoryEvent extends Event {
+    @Label("Category")
+    String category;
+
+    @Label("Files")
+    int files;
+
+    @Label("Definitions")
+    int definitions;
+
+    @Label("Failures")
+    int failures;
+}
@@ -0,0 +1,23 @@
+package dk.mosberg.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event spanning one phase of {@code Alchemy.onInitialize}. */
+@Name("dk.mosberg.alchemy.StartupPhase")
+@Label("Alchemy Startup Phase")
+@Category({"Alchemy", "Startup"})
+@Description("One phase of mod initialization, such as data loading or block registration")
+@StackTrace(false)
+final class StartupPhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+
+    @Label("Entries")
+    @Description("Number of definitions, blocks or items the phase produced, or -1 if not counted")
+    int count;
+}
@@ -0,0 +1,113 @@
+package dk.mosberg.profiling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import dk.mosberg.Alchemy;
+
+/**
+ * Times mod initialization. Every phase and every parsed definition category is emitted as a JFR
+ * event ({@code dk.mosberg.alchemy.StartupPhase} / {@code dk.mosberg.alchemy.ContentCategory}), so
+ * a recording started with {@code -XX:StartFlightRecording} shows where boot time went. Until
+ * {@link #logSummary()} is called the timings are also collected for a single summary log line.
+ * Later calls, for example from datapack reloads or the stress harness, only emit JFR events.
+ */
+public final class StartupProfiler {
+    private static final List<String> SUMMARY = new ArrayList<>();
+    private static final long START = System.nanoTime();
+    /** Count of phases that register nothing countable; left out of the summary. */
+    private static final int NO_COUNT = -1;
+    private static boolean summarized;
+
+    private StartupProfiler() {}
+
+    /** Runs a phase that produces a value, counting its entries with {@code count}. */
+    public static <T> T phase(String name, Supplier<T> body, ToIntFunction<T> count) {
+        StartupPhaseEvent event = new StartupPhaseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        T result = body.get();
+        finish(event, name, count.applyAsInt(result), System.nanoTime() - start);
+        return result;
+    }
+
+    /** Runs a phase, reading the number of entries it registered from {@code count} afterwards. */
+    public static void phase(String name, Runnable body, IntSupplier count) {
+        StartupPhaseEvent event = new StartupPhaseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        body.run();
+        finish(event, name, count.getAsInt(), System.nanoTime() - start);
+    }
+
+    /** Runs a phase that has no entries worth counting. */
+    public static void phase(String name, Runnable body) {
+        phase(name, body, () -> NO_COUNT);
+    }
+
+    /** Starts timing the parse of one definition category such as {@code beverages}. */
+    public static CategoryTiming category(String category) {
+        return new CategoryTiming(category);
+    }
+
+    /** An in-progress category timing; call {@link #end} once parsing is done. */
+    public static final class CategoryTiming {
+        private final ContentCategoryEvent event = new ContentCategoryEvent();
+        private final String category;
+        private final long start = System.nanoTime();
+
+        private CategoryTiming(String category) {
+            this.category = category;
+            event.begin();
+        }
+
+        public void end(int files, int definitions, int failures) {
+            long nanos = System.nanoTime() - start;
+            event.end();
+            if (event.shouldCommit()) {
+                event.category = category;
+                event.files = files;
+                event.definitions = definitions;
+                event.failures = failures;
+                event.commit();
+            }
+            record(category + " " + definitions + "/" + files
+                    + (failures > 0 ? " (" + failures + " failed)" : "") + " " + millis(nanos)
+                    + " ms");
+        }
+    }
+
+    /** Logs the collected timings as one line and stops collecting. */
+    public static synchronized void logSummary() {
+        if (summarized) {
+            return;
+        }
+        summarized = true;
+        Alchemy.LOGGER.info("Startup in {} ms: {}", millis(System.nanoTime() - START),
+                String.join(", ", SUMMARY));
+        SUMMARY.clear();
+    }
+
+    private static void finish(StartupPhaseEvent event, String name, int count, long nanos) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = name;
+            event.count = count;
+            event.commit();
+        }
+        record(name + (count != NO_COUNT ? " " + count : "") + " " + millis(nanos) + " ms");
+    }
+
+    private static synchronized void record(String entry) {
+        if (!summarized) {
+            SUMMARY.add(entry);
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.1f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,273 @@
+package dk.mosberg.recipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import dk.mosberg.Alchemy;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.data.EquipmentData;
+import net.fabricmc.fabric.api.event.lifecycle.v1.CommonLifecycleEvents;
+import net.minecraft.block.Block;
+import net.minecraft.block.BlockState;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+
+/**
+ * Brewing recipes of one {@link BeverageManager.Snapshot}, indexed for lookup by inventory
+ * contents. Recipes are partitioned by station tag, and within a station keyed by the sorted set
+ * of their ingredient items, so resolving an inventory is one hash lookup per station of the
+ * machine followed by a count check of the few recipes sharing that item set. Inventories holding
+ * any item outside a recipe's ingredients do not match it.
+ *
+ * <p>A machine belongs to a station when its block is in the block tag of that name, or when the
+ * station is named after its function ({@code alchemy:fermentation_stations} for
+ * {@code fermentation}). Recipes without station tags are available at every station.
+ */
+public final class RecipeIndex {
+    /** Partition of recipes without station tags. */
+    static final Identifier ANY = Identifier.of(Alchemy.MOD_ID, "any_station");
+    private static volatile RecipeIndex current = new RecipeIndex(-1, List.of());
+
+    private final int generation;
+    private final Map<Identifier, Map<Contents, Recipe[]>> stations;
+    private final Map<Identifier, TagKey<Block>> stationTags = new HashMap<>();
+    /** Items used by any recipe. */
+    private final Set<Identifier> ingredients = new HashSet<>();
+    /** Stations of every block seen so far; cleared when tags reload. */
+    private final Map<Block, Identifier[]> blockStations = new ConcurrentHashMap<>();
+
+    /** One brewable beverage and its required counts, aligned with its key's items. */
+    private record Recipe(Identifier beverage, int[] counts, int total) {}
+
+    /** A beverage the contents can brew, and how many full batches they hold. */
+    public record Match(Identifier beverage, int batches) {
+        public static final Match NONE = new Match(null, 0);
+
+        public boolean matches() {
+            return beverage != null;
+        }
+    }
+
+    private RecipeIndex(int generation, Iterable<BeverageData> beverages) {
+        this.generation = generation;
+        Map<Identifier, Map<Contents, List<Recipe>>> building = new HashMap<>();
+        for (BeverageData data : beverages) {
+            List<BeverageData.Ingredient> ingredients = data.brewing().ingredients();
+            if (ingredients.isEmpty()) {
+                continue;
+            }
+            Contents.Builder builder = new Contents.Builder(ingredients.size());
+            for (BeverageData.Ingredient ingredient : ingredients) {
+                builder.add(ingredient.item(), ingredient.count());
+                this.ingredients.add(ingredient.item());
+            }
+            Contents key = builder.build();
+            Recipe recipe = new Recipe(data.id(), key.counts(), key.total());
+            List<Identifier> tags = data.brewing().stationTags();
+            for (Identifier station : tags.isEmpty() ? List.of(ANY) : tags) {
+                building.computeIfAbsent(station, s -> new HashMap<>())
+                        .computeIfAbsent(key.withoutCounts(), k -> new ArrayList<>()).add(recipe);
+                stationTags.computeIfAbsent(station, s -> TagKey.of(RegistryKeys.BLOCK, s));
+            }
+        }
+        Map<Identifier, Map<Contents, Recipe[]>> built = new HashMap<>();
+        for (Map.Entry<Identifier, Map<Contents, List<Recipe>>> station : building.entrySet()) {
+            Map<Contents, Recipe[]> recipes = new HashMap<>();
+            for (Map.Entry<Contents, List<Recipe>> entry : station.getValue().entrySet()) {
+                // Larger recipes first, so the most demanding recipe a batch satisfies wins
+                recipes.put(entry.getKey(), entry.getValue().stream()
+                        .sorted(Comparator.comparingInt(Recipe::total).reversed())
+                        .toArray(Recipe[]::new));
+            }
+            built.put(station.getKey(), recipes);
+        }
+        this.stations = built;
+        stationTags.remove(ANY);
+    }
+
+    /** Indexes the recipes of {@code beverages} outside any snapshot. */
+    static RecipeIndex of(Iterable<BeverageData> beverages) {
+        return new RecipeIndex(-1, beverages);
+    }
+
+    /** Drops cached block stations whenever tags are reloaded. */
+    public static void register() {
+        CommonLifecycleEvents.TAGS_LOADED
+                .register((registries, client) -> current.blockStations.clear());
+    }
+
+    /** Returns the index of the current beverage snapshot, rebuilding it when stale. */
+    public static RecipeIndex current() {
+        RecipeIndex index = current;
+        BeverageManager.Snapshot snapshot = BeverageManager.snapshot();
+        if (index.generation != snapshot.generation()) {
+            synchronized (RecipeIndex.class) {
+                index = current;
+                if (index.generation != snapshot.generation()) {
+                    index = new RecipeIndex(snapshot.generation(),
+                            snapshot.beverages().values());
+                    current = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /** Generation of the beverage snapshot this index was built from. */
+    public int generation() {
+        return generation;
+    }
+
+    /** Returns whether any recipe, at any station, uses {@code item}. */
+    public boolean isIngredient(Identifier item) {
+        return ingredients.contains(item);
+    }
+
+    /** Stations the machine block {@code state} of {@code equipment} belongs to. */
+    public Identifier[] stations(BlockState state, EquipmentData equipment) {
+        return blockStations.computeIfAbsent(state.getBlock(), block -> {
+            Set<Identifier> matched = new LinkedHashSet<>();
+            for (Map.Entry<Identifier, TagKey<Block>> station : stationTags.entrySet()) {
+                Identifier id = station.getKey();
+                if (state.isIn(station.getValue()) || equipment != null
+                        && id.getPath().equals(equipment.function() + "_stations")) {
+                    matched.add(id);
+                }
+            }
+            matched.add(ANY);
+            return matched.toArray(Identifier[]::new);
+        });
+    }
+
+    /** Finds the beverage {@code contents} brew at the first of {@code stations} that has one. */
+    public Match find(Identifier[] stations, Contents contents) {
+        if (contents.isEmpty()) {
+            return Match.NONE;
+        }
+        Contents key = contents.withoutCounts();
+        for (Identifier station : stations) {
+            Map<Contents, Recipe[]> recipes = this.stations.get(station);
+            Recipe[] candidates = recipes != null ? recipes.get(key) : null;
+            if (candidates == null) {
+                continue;
+            }
+            for (Recipe recipe : candidates) {
+                int batches = batches(recipe.counts(), contents.counts());
+                if (batches > 0) {
+                    return new Match(recipe.beverage(), batches);
+                }
+            }
+        }
+        return Match.NONE;
+    }
+
+    private static int batches(int[] required, int[] available) {
+        int batches = Integer.MAX_VALUE;
+        for (int i = 0; i < required.length; i++) {
+            batches = Math.min(batches, available[i] / required[i]);
+        }
+        return batches;
+    }
+
+    /**
+     * A multiset of items in canonical form: distinct item ids in sorted order with their total
+     * counts. Two inventories holding the same items in any slot order produce equal contents.
+     */
+    public static final class Contents {
+        private static final int[] NO_COUNTS = new int[0];
+
+        private final Identifier[] items;
+        private final int[] counts;
+        private final int hash;
+
+        private Contents(Identifier[] items, int[] counts) {
+            this.items = items;
+            this.counts = counts;
+            this.hash = 31 * Arrays.hashCode(items) + Arrays.hashCode(counts);
+        }
+
+        public boolean isEmpty() {
+            return items.length == 0;
+        }
+
+        int[] counts() {
+            return counts;
+        }
+
+        int total() {
+            int total = 0;
+            for (int count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /** The same items without counts, which is how recipes are keyed. */
+        Contents withoutCounts() {
+            return counts.length == 0 ? this : new Contents(items, NO_COUNTS);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Contents other && hash == other.hash
+                    && Arrays.equals(items, other.items) && Arrays.equals(counts, other.counts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        /** Collects item counts in any order; repeated items are summed. */
+        public static final class Builder {
+            private Identifier[] items;
+            private int[] counts;
+            private int size;
+
+            public Builder(int expected) {
+                this.items = new Identifier[Math.max(1, expected)];
+                this.counts = new int[items.length];
+            }
+
+            public Builder add(Identifier item, int count) {
+                for (int i = 0; i < size; i++) {
+                    if (items[i].equals(item)) {
+                        counts[i] += count;
+                        return this;
+                    }
+                }
+                if (size == items.length) {
+                    items = Arrays.copyOf(items, size * 2);
+                    counts = Arrays.copyOf(counts, size * 2);
+                }
+                items[size] = item;
+                counts[size++] = count;
+                return this;
+            }
+
+            public Contents build() {
+                Integer[] order = new Integer[size];
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, Comparator.comparing(i -> items[i]));
+                Identifier[] sortedItems = new Identifier[size];
+                int[] sortedCounts = new int[size];
+                for (int i = 0; i < size; i++) {
+                    sortedItems[i] = items[order[i]];
+                    sortedCounts[i] = counts[order[i]];
+                }
+                return new Contents(sortedItems, sortedCounts);
+            }
+        }
+    }
+}
@@ -4,7 +4,6 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
-import dk.mosberg.Alchemy;
 import dk.mosberg.block.ContainerBlock;
 import dk.mosberg.block.ContainerBlockEntity;
 import dk.mosberg.block.ContainerBlockItem;
@@ -34,6 +33,8 @@ public final class ModBlocks {
     private static final Map<Block, BlockEntityType<EquipmentBlockEntity>> EQUIPMENT_BE_TYPES =
             new LinkedHashMap<>();
     private static final Map<Identifier, Item> BLOCK_ITEMS = new LinkedHashMap<>();
+    private static final Map<Block, ContainerData> CONTAINER_DATA = new LinkedHashMap<>();
+    private static final Map<Block, EquipmentData> EQUIPMENT_DATA = new LinkedHashMap<>();
 
     private ModBlocks() {}
 
@@ -43,6 +44,21 @@ public final class ModBlocks {
         registerEquipmentBlocks(content);
     }
 
+    /** Number of registered container and equipment blocks. */
+    public static int blockCount() {
+        return CONTAINER_BLOCKS.size() + EQUIPMENT_BLOCKS.size();
+    }
+
+    /** Registered container blocks in registration order. */
+    public static Collection<Block> containerBlocks() {
+        return CONTAINER_BLOCKS.values();
+    }
+
+    /** Registered equipment blocks in registration order. */
+    public static Collection<Block> equipmentBlocks() {
+        return EQUIPMENT_BLOCKS.values();
+    }
+
     public static Collection<Item> blockItems() {
         return BLOCK_ITEMS.values();
     }
@@ -51,6 +67,16 @@ public final class ModBlocks {
         return CONTAINER_BE_TYPES.get(block);
     }
 
+    /** Returns the definition a container block was registered from, or null. */
+    public static ContainerData containerData(Block block) {
+        return CONTAINER_DATA.get(block);
+    }
+
+    /** Returns the definition an equipment block was registered from, or null. */
+    public static EquipmentData equipmentData(Block block) {
+        return EQUIPMENT_DATA.get(block);
+    }
+
     public static BlockEntityType<EquipmentBlockEntity> equipmentBlockEntityType(Block block) {
         return EQUIPMENT_BE_TYPES.get(block);
     }
@@ -69,6 +95,7 @@ public final class ModBlocks {
             Registry.register(Registries.BLOCK_ENTITY_TYPE, placed.blockEntityId(), type);
             CONTAINER_BE_TYPES.put(block, type);
             CONTAINER_BLOCKS.put(placed.blockId(), block);
+            CONTAINER_DATA.put(block, data);
 
             Item blockItem = new ContainerBlockItem(block, data);
             registerItem(placed.blockId(), blockItem);
@@ -89,6 +116,7 @@ public final class ModBlocks {
             Registry.register(Registries.BLOCK_ENTITY_TYPE, placement.blockEntityId(), type);
             EQUIPMENT_BE_TYPES.put(block, type);
             EQUIPMENT_BLOCKS.put(placement.blockId(), block);
+            EQUIPMENT_DATA.put(block, data);
 
             Item blockItem = new EquipmentBlockItem(block, data);
             registerItem(placement.blockId(), blockItem);
@@ -97,7 +125,6 @@ public final class ModBlocks {
 
     private static <T extends Block> void registerBlock(Identifier id, T block) {
         Registry.register(Registries.BLOCK, id, block);
-        Alchemy.LOGGER.info("Registered block {}", id);
     }
 
     private static <T extends Item> void registerItem(Identifier id, T item) {
@@ -0,0 +1,28 @@
+package dk.mosberg.registry;
+
+import dk.mosberg.Alchemy;
+import dk.mosberg.item.BeverageStamp;
+import net.minecraft.component.ComponentType;
+import net.minecraft.registry.Registries;
+import net.minecraft.registry.Registry;
+import net.minecraft.util.Identifier;
+
+/**
+ * Registry for the item data components added by the Alchemy mod.
+ */
+public final class ModComponents {
+    /** Brew and open times of a beverage stack; quality and spoilage are derived from it. */
+    public static final ComponentType<BeverageStamp> BEVERAGE_STAMP = Registry.register(
+            Registries.DATA_COMPONENT_TYPE, Identifier.of(Alchemy.MOD_ID, "beverage_stamp"),
+            ComponentType.<BeverageStamp>builder().codec(BeverageStamp.CODEC)
+                    .packetCodec(BeverageStamp.PACKET_CODEC).build());
+
+    private ModComponents() {}
+
+    /**
+     * Registers all data components. Called during mod initialization, before items are created.
+     */
+    public static void register() {
+        // Loading the class registers the components
+    }
+}
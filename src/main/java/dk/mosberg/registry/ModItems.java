@@ -35,10 +35,20 @@ public final class ModItems {
                 registerEquipment(content);
         }
 
+        /** Number of registered container, beverage and equipment items. */
+        public static int itemCount() {
+                return CONTAINER_ITEMS.size() + BEVERAGE_ITEMS.size() + EQUIPMENT_ITEMS.size();
+        }
+
         public static Collection<Item> beverages() {
                 return BEVERAGE_ITEMS.values();
         }
 
+        /** Returns the item registered for a beverage, or null. */
+        public static Item beverage(Identifier id) {
+                return BEVERAGE_ITEMS.get(id);
+        }
+
         public static Collection<Item> containers() {
                 return CONTAINER_ITEMS.values();
         }
@@ -0,0 +1,212 @@
+package dk.mosberg.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import dk.mosberg.Alchemy;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.minecraft.registry.RegistryKey;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.PersistentState;
+import net.minecraft.world.PersistentStateType;
+import net.minecraft.world.World;
+
+/**
+ * Server-wide deadline scheduler for machines. Machines register the game tick at which their
+ * current process stage completes; every server tick the {@link TimingWheel} is turned to the
+ * overworld time and only the machines whose deadline passed are woken, so idle and running
+ * machines alike cost nothing per tick.
+ *
+ * <p>Pending deadlines are saved with the overworld. A deadline that passes while its chunk is
+ * unloaded is parked and handed back to the wheel when the chunk loads again, which delivers it on
+ * the next tick. Deadlines that come due where no machine stands any more are dropped, and a
+ * broken machine {@link #cancel cancels} its own, so nothing is kept for positions that no longer
+ * hold a machine.
+ */
+public final class MachineScheduler extends PersistentState {
+    private static final Codec<Pending> PENDING_CODEC =
+            RecordCodecBuilder.create(instance -> instance.group(
+                    World.CODEC.fieldOf("dimension").forGetter(Pending::dimension),
+                    Codec.LONG.fieldOf("pos").forGetter(Pending::pos),
+                    Codec.LONG.fieldOf("tick").forGetter(Pending::tick),
+                    Codec.INT.fieldOf("tag").forGetter(Pending::tag))
+                    .apply(instance, Pending::new));
+
+    private static final Codec<MachineScheduler> CODEC =
+            RecordCodecBuilder.create(instance -> instance.group(
+                    Codec.LONG.fieldOf("now").forGetter(scheduler -> scheduler.wheel.now()),
+                    PENDING_CODEC.listOf().fieldOf("pending")
+                            .forGetter(MachineScheduler::pending))
+                    .apply(instance, MachineScheduler::new));
+
+    private static final PersistentStateType<MachineScheduler> TYPE = new PersistentStateType<>(
+            Alchemy.MOD_ID + "_machine_schedule", MachineScheduler::new, CODEC, null);
+
+    /** Scheduler of the running server, or null between servers. */
+    private static volatile MachineScheduler active;
+
+    private final TimingWheel<Target> wheel;
+    /** Deadlines that passed while their chunk was unloaded, by chunk. */
+    private final Map<Chunk, List<TimingWheel.Timer<Target>>> parked = new HashMap<>();
+
+    private record Location(RegistryKey<World> dimension, long pos) {
+        Chunk chunk() {
+            return new Chunk(dimension, ChunkPos.toLong(BlockPos.fromLong(pos)));
+        }
+    }
+
+    private record Chunk(RegistryKey<World> dimension, long pos) {}
+
+    private record Target(Location location, int tag) {}
+
+    /** Persisted form of a pending or parked deadline. */
+    private record Pending(RegistryKey<World> dimension, long pos, long tick, int tag) {}
+
+    private MachineScheduler() {
+        this.wheel = new TimingWheel<>(0L);
+    }
+
+    private MachineScheduler(long now, List<Pending> pending) {
+        this.wheel = new TimingWheel<>(now);
+        // Parked deadlines are saved with the rest; being due, they are parked again on the first
+        // tick if their chunk is still unloaded
+        for (Pending entry : pending) {
+            wheel.schedule(entry.tick(), new Target(
+                    new Location(entry.dimension(), entry.pos()), entry.tag()));
+        }
+    }
+
+    /** Hooks the scheduler into the server lifecycle, tick and chunk load events. */
+    public static void register() {
+        ServerLifecycleEvents.SERVER_STARTED.register(server -> active = server.getOverworld()
+                .getPersistentStateManager().getOrCreate(TYPE));
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> active = null);
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            MachineScheduler scheduler = active;
+            if (scheduler != null) {
+                scheduler.tick(server);
+            }
+        });
+        ServerChunkEvents.CHUNK_LOAD.register((world, chunk) -> {
+            MachineScheduler scheduler = active;
+            if (scheduler != null && !scheduler.parked.isEmpty()) {
+                scheduler.unpark(world, chunk.getPos());
+            }
+        });
+    }
+
+    /**
+     * Schedules a deadline for the machine at {@code pos} at game time {@code tick}; the machine
+     * gets {@code tag} back in {@link ScheduledMachine#onDeadline}. Logs and drops the deadline
+     * while no server is running.
+     */
+    public static void schedule(ServerWorld world, BlockPos pos, long tick, int tag) {
+        MachineScheduler scheduler = active;
+        if (scheduler == null) {
+            Alchemy.LOGGER.warn("Dropping machine deadline at {}: no server is running", pos);
+            return;
+        }
+        scheduler.wheel.schedule(tick,
+                new Target(new Location(world.getRegistryKey(), pos.asLong()), tag));
+        scheduler.markDirty();
+    }
+
+    /**
+     * Drops every pending deadline of the machine at {@code pos}. Called when the machine is
+     * broken; a machine that is only unloaded keeps its deadlines.
+     */
+    public static void cancel(ServerWorld world, BlockPos pos) {
+        MachineScheduler scheduler = active;
+        if (scheduler == null) {
+            return;
+        }
+        Location location = new Location(world.getRegistryKey(), pos.asLong());
+        int removed = scheduler.wheel.removeIf(target -> target.location().equals(location));
+        List<TimingWheel.Timer<Target>> timers = scheduler.parked.get(location.chunk());
+        if (timers != null) {
+            int before = timers.size();
+            timers.removeIf(timer -> timer.value().location().equals(location));
+            removed += before - timers.size();
+            if (timers.isEmpty()) {
+                scheduler.parked.remove(location.chunk());
+            }
+        }
+        if (removed > 0) {
+            scheduler.markDirty();
+        }
+    }
+
+    /** Number of deadlines waiting in the wheel or parked for unloaded machines. */
+    public static int pendingCount() {
+        MachineScheduler scheduler = active;
+        if (scheduler == null) {
+            return 0;
+        }
+        return scheduler.wheel.size()
+                + scheduler.parked.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void tick(MinecraftServer server) {
+        long now = server.getOverworld().getTime();
+        int before = wheel.size();
+        wheel.advance(now, timer -> deliver(server, timer, now));
+        if (wheel.size() != before) {
+            // Delivered, parked and dropped deadlines all change what is saved
+            markDirty();
+        }
+    }
+
+    private void deliver(MinecraftServer server, TimingWheel.Timer<Target> timer, long now) {
+        Location location = timer.value().location();
+        ServerWorld world = server.getWorld(location.dimension());
+        if (world == null) {
+            return;
+        }
+        BlockPos pos = BlockPos.fromLong(location.pos());
+        if (!world.isChunkLoaded(pos.getX() >> 4, pos.getZ() >> 4)) {
+            parked.computeIfAbsent(location.chunk(), key -> new ArrayList<>(1)).add(timer);
+            return;
+        }
+        // Without a machine at the position the deadline is simply dropped
+        if (world.getBlockEntity(pos) instanceof ScheduledMachine machine) {
+            machine.onDeadline(timer.value().tag(), now);
+        }
+    }
+
+    private void unpark(ServerWorld world, ChunkPos chunk) {
+        List<TimingWheel.Timer<Target>> timers =
+                parked.remove(new Chunk(world.getRegistryKey(), chunk.toLong()));
+        if (timers != null) {
+            // Already due, so the next tick delivers them once the chunk's block entities are in
+            timers.forEach(timer -> wheel.schedule(timer.deadline(), timer.value()));
+            markDirty();
+        }
+    }
+
+    private List<Pending> pending() {
+        List<Pending> pending = new ArrayList<>(wheel.size());
+        for (TimingWheel.Timer<Target> timer : wheel.timers()) {
+            pending.add(pending(timer));
+        }
+        for (List<TimingWheel.Timer<Target>> timers : parked.values()) {
+            for (TimingWheel.Timer<Target> timer : timers) {
+                pending.add(pending(timer));
+            }
+        }
+        return pending;
+    }
+
+    private static Pending pending(TimingWheel.Timer<Target> timer) {
+        Location location = timer.value().location();
+        return new Pending(location.dimension(), location.pos(), timer.deadline(),
+                timer.value().tag());
+    }
+}
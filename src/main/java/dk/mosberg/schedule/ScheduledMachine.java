@@ -0,0 +1,15 @@
+package dk.mosberg.schedule;
+
+/**
+ * A block entity that receives deadlines from the {@link MachineScheduler} instead of ticking.
+ */
+public interface ScheduledMachine {
+    /**
+     * Called on the server thread once the deadline registered with {@code tag} has passed. The
+     * machine must ignore tags it no longer expects, since deadlines are only cancelled when the
+     * machine is broken.
+     *
+     * @param now current game time, at or after the deadline
+     */
+    void onDeadline(int tag, long now);
+}
@@ -0,0 +1,194 @@
+package dk.mosberg.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical timing wheel over game ticks. Level {@code L} has 64 slots of {@code 64^L} ticks
+ * each, so six levels cover about 2^36 ticks and anything later waits in an overflow list. A timer
+ * is filed at the level of the highest 6-bit group in which its deadline differs from the current
+ * tick and moves down one or more levels each time the wheel turns past that group, which makes
+ * scheduling O(1) and a tick O(due timers) plus an amortised share of the cascades.
+ *
+ * <p>Not thread-safe; the server scheduler only touches it on the server thread.
+ *
+ * @param <T> payload delivered when a timer is due
+ */
+public final class TimingWheel<T> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int MASK = SLOTS - 1;
+    private static final int LEVELS = 6;
+    /** Jumps longer than this drain and refill the wheel instead of turning it tick by tick. */
+    private static final long MAX_STEPPED_JUMP = (long) SLOTS * SLOTS;
+
+    @SuppressWarnings("unchecked")
+    private final List<Timer<T>>[] slots = new List[LEVELS * SLOTS];
+    private final List<Timer<T>> overflow = new ArrayList<>();
+    private long now;
+    private int size;
+
+    /** A pending timer. */
+    public record Timer<T>(long deadline, T value) {
+    }
+
+    /** Creates an empty wheel whose current tick is {@code now}. */
+    public TimingWheel(long now) {
+        this.now = now;
+    }
+
+    /** Tick the wheel was last advanced to. */
+    public long now() {
+        return now;
+    }
+
+    /** Number of pending timers. */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Schedules {@code value} for {@code deadline}. Deadlines at or before the current tick are
+     * delivered by the next {@link #advance}.
+     */
+    public void schedule(long deadline, T value) {
+        size++;
+        insert(new Timer<>(deadline, value));
+    }
+
+    /**
+     * Turns the wheel to {@code target} and hands every timer whose deadline is at or before it to
+     * {@code due}, in deadline order per tick. Timers scheduled from {@code due} are kept for later
+     * calls, even if they are already due.
+     */
+    public void advance(long target, Consumer<Timer<T>> due) {
+        if (target <= now) {
+            return;
+        }
+        List<Timer<T>> fired = new ArrayList<>();
+        if (size == 0) {
+            now = target;
+        } else if (target - now > MAX_STEPPED_JUMP) {
+            List<Timer<T>> all = timers();
+            clear();
+            now = target;
+            all.sort(Comparator.comparingLong(Timer::deadline));
+            for (Timer<T> timer : all) {
+                if (timer.deadline() <= target) {
+                    fired.add(timer);
+                } else {
+                    insert(timer);
+                }
+            }
+        } else {
+            while (now < target && size > fired.size()) {
+                step(fired);
+            }
+            now = target;
+        }
+        size -= fired.size();
+        fired.forEach(due);
+    }
+
+    /**
+     * Removes every pending timer whose value matches {@code filter}. This walks all pending
+     * timers, so it is meant for rare cancellations rather than the per-tick path.
+     *
+     * @return the number of timers removed
+     */
+    public int removeIf(Predicate<? super T> filter) {
+        int removed = 0;
+        for (List<Timer<T>> slot : slots) {
+            if (slot != null) {
+                removed += removeIf(slot, filter);
+            }
+        }
+        removed += removeIf(overflow, filter);
+        size -= removed;
+        return removed;
+    }
+
+    private static <T> int removeIf(List<Timer<T>> timers, Predicate<? super T> filter) {
+        int before = timers.size();
+        timers.removeIf(timer -> filter.test(timer.value()));
+        return before - timers.size();
+    }
+
+    /** Returns a copy of all pending timers, in no particular order. */
+    public List<Timer<T>> timers() {
+        List<Timer<T>> all = new ArrayList<>(size);
+        for (List<Timer<T>> slot : slots) {
+            if (slot != null) {
+                all.addAll(slot);
+            }
+        }
+        all.addAll(overflow);
+        return all;
+    }
+
+    private void step(List<Timer<T>> fired) {
+        long tick = ++now;
+        // Cascade from the highest level whose slot boundary was crossed down to level 1, so
+        // timers moved down from a higher level are cascaded again in the same tick if needed
+        int top = 0;
+        while (top < LEVELS && (tick & ((1L << ((top + 1) * SLOT_BITS)) - 1)) == 0) {
+            top++;
+        }
+        if (top == LEVELS) {
+            top = LEVELS - 1;
+            refile(overflow, fired);
+        }
+        for (int level = top; level >= 1; level--) {
+            int index = level * SLOTS + (int) ((tick >>> (level * SLOT_BITS)) & MASK);
+            List<Timer<T>> slot = slots[index];
+            if (slot != null && !slot.isEmpty()) {
+                slots[index] = null;
+                refile(slot, fired);
+            }
+        }
+        List<Timer<T>> current = slots[(int) (tick & MASK)];
+        if (current != null && !current.isEmpty()) {
+            slots[(int) (tick & MASK)] = null;
+            current.sort(Comparator.comparingLong(Timer::deadline));
+            fired.addAll(current);
+        }
+    }
+
+    private void refile(List<Timer<T>> timers, List<Timer<T>> fired) {
+        List<Timer<T>> moved = new ArrayList<>(timers);
+        timers.clear();
+        for (Timer<T> timer : moved) {
+            if (timer.deadline() <= now) {
+                fired.add(timer);
+            } else {
+                insert(timer);
+            }
+        }
+    }
+
+    private void insert(Timer<T> timer) {
+        long effective = Math.max(timer.deadline(), now + 1);
+        int level = (63 - Long.numberOfLeadingZeros(effective ^ now)) / SLOT_BITS;
+        if (level >= LEVELS) {
+            overflow.add(timer);
+            return;
+        }
+        int index = level * SLOTS + (int) ((effective >>> (level * SLOT_BITS)) & MASK);
+        List<Timer<T>> slot = slots[index];
+        if (slot == null) {
+            slot = new ArrayList<>(2);
+            slots[index] = slot;
+        }
+        slot.add(timer);
+    }
+
+    /** Empties the slots and overflow; {@link #size} still counts the removed timers. */
+    private void clear() {
+        Arrays.fill(slots, null);
+        overflow.clear();
+    }
+}
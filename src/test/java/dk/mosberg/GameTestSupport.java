@@ -0,0 +1,38 @@
+package dk.mosberg;
+
+import java.nio.file.Path;
+import net.minecraft.Bootstrap;
+import net.minecraft.SharedConstants;
+
+/**
+ * Shared setup for tests that touch vanilla registries or registered mod content. Both steps run at
+ * most once per test JVM, since registries cannot be bootstrapped or registered into twice.
+ */
+public final class GameTestSupport {
+    /** The shipped definitions, relative to the project directory Gradle runs tests in. */
+    public static final Path SHIPPED_DATA =
+            Path.of("src", "main", "resources", "data", Alchemy.MOD_ID);
+
+    private static boolean bootstrapped;
+    private static boolean initialized;
+
+    private GameTestSupport() {}
+
+    /** Bootstraps the vanilla registries, which status effect lookups during parsing need. */
+    public static synchronized void bootstrap() {
+        if (!bootstrapped) {
+            SharedConstants.createGameVersion();
+            Bootstrap.initialize();
+            bootstrapped = true;
+        }
+    }
+
+    /** Bootstraps and runs the mod initializer, so blocks, items and beverages are registered. */
+    public static synchronized void initialize() {
+        bootstrap();
+        if (!initialized) {
+            new Alchemy().onInitialize();
+            initialized = true;
+        }
+    }
+}
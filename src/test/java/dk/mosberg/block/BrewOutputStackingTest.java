@@ -0,0 +1,73 @@
+package dk.mosberg.block;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import dk.mosberg.GameTestSupport;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.item.BeverageFreshness;
+import dk.mosberg.item.BeverageItem;
+import dk.mosberg.registry.ModBlocks;
+import dk.mosberg.registry.ModItems;
+import net.minecraft.block.Block;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.registry.Registries;
+import net.minecraft.util.math.BlockPos;
+
+class BrewOutputStackingTest {
+    @BeforeAll
+    static void initialize() {
+        GameTestSupport.initialize();
+    }
+
+    @Test
+    void batchesBrewedOnDifferentTicksShareAnOutputSlot() {
+        for (Block block : ModBlocks.equipmentBlocks()) {
+            for (Item item : ModItems.beverages()) {
+                EquipmentBlockEntity equipment =
+                        new EquipmentBlockEntity(BlockPos.ORIGIN, block.getDefaultState());
+                if (!(item instanceof BeverageItem beverage) || !loadTwoBatches(equipment,
+                        beverage.getData())) {
+                    continue;
+                }
+                long morning = 3 * BeverageFreshness.TICKS_PER_DAY + 100L;
+                assertTrue(equipment.finishBrewing(morning));
+                assertTrue(equipment.finishBrewing(morning + 12_345L));
+
+                int slots = 0;
+                int count = 0;
+                for (int slot = 0; slot < equipment.size(); slot++) {
+                    ItemStack stack = equipment.getStack(slot);
+                    if (stack.isOf(beverage)) {
+                        slots++;
+                        count += stack.getCount();
+                    }
+                }
+                assertEquals(2, count, "Both batches should have been brewed");
+                assertEquals(1, slots, "Same-day batches should stack in one slot");
+                return;
+            }
+        }
+        fail("The shipped content has no equipment that brews a beverage");
+    }
+
+    /** Puts the ingredients of two batches of {@code data} into {@code equipment}. */
+    private static boolean loadTwoBatches(EquipmentBlockEntity equipment, BeverageData data) {
+        if (data.brewing().ingredients().isEmpty()) {
+            return false;
+        }
+        for (BeverageData.Ingredient ingredient : data.brewing().ingredients()) {
+            ItemStack stack =
+                    new ItemStack(Registries.ITEM.get(ingredient.item()), 2 * ingredient.count());
+            if (!equipment.quickMove(stack) || !stack.isEmpty()) {
+                return false;
+            }
+        }
+        return equipment.brewingMatch().matches()
+                && data.id().equals(equipment.brewingMatch().beverage());
+    }
+}
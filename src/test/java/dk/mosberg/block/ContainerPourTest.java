@@ -0,0 +1,84 @@
+package dk.mosberg.block;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import dk.mosberg.GameTestSupport;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.ContainerData;
+import dk.mosberg.item.BeverageFreshness;
+import dk.mosberg.item.BeverageItem;
+import dk.mosberg.item.BeverageStamp;
+import dk.mosberg.registry.ModBlocks;
+import dk.mosberg.registry.ModComponents;
+import dk.mosberg.registry.ModItems;
+import net.minecraft.block.Block;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.util.math.BlockPos;
+
+class ContainerPourTest {
+    private static final long DAYS = 30L;
+
+    @BeforeAll
+    static void initialize() {
+        GameTestSupport.initialize();
+    }
+
+    @Test
+    void pouredServingKeepsBarrelAgedQuality() {
+        ContainerBlockEntity barrel = null;
+        BeverageItem beverage = null;
+        for (Block block : ModBlocks.containerBlocks()) {
+            ContainerData data = ModBlocks.containerData(block);
+            if (data == null || !data.barrel().ages()) {
+                continue;
+            }
+            ContainerBlockEntity candidate =
+                    new ContainerBlockEntity(BlockPos.ORIGIN, block.getDefaultState());
+            beverage = agingBeverage(candidate);
+            if (beverage != null) {
+                barrel = candidate;
+                break;
+            }
+        }
+        assertNotNull(barrel, "The shipped content has no aging barrel for a bottled beverage");
+
+        BeverageData data = beverage.getData();
+        ContainerData vessel = beverage.containerData();
+        int serving = vessel.liquid().servingMb();
+        float onBrew = data.freshness().quality().onBrew();
+        assertEquals(serving,
+                barrel.fillServing(beverage.beverageIndex(), serving, onBrew, 0L, 0L));
+
+        long now = DAYS * BeverageFreshness.TICKS_PER_DAY;
+        float aged = barrel.quality(now);
+        assertTrue(aged > onBrew, "The barrel did not age its contents: " + aged);
+
+        ItemStack poured = ContainerBlock.pour(barrel, vessel, now);
+        assertFalse(poured.isEmpty(), "Nothing was poured");
+        BeverageStamp stamp = poured.get(ModComponents.BEVERAGE_STAMP);
+        assertNotNull(stamp, "The poured serving is not stamped");
+        assertEquals(0L, stamp.brewedAt());
+        // Stamped qualities are rounded to whole percent
+        assertEquals(aged, BeverageFreshness.quality(data, stamp, now), 0.005f + 1e-6f);
+    }
+
+    /** A beverage with quality that comes in a vessel and that {@code barrel} can hold. */
+    private static BeverageItem agingBeverage(ContainerBlockEntity barrel) {
+        for (Item item : ModItems.beverages()) {
+            if (item instanceof BeverageItem beverage && beverage.containerData() != null
+                    && beverage.containerData().liquid().servingMb() > 0
+                    && beverage.getData().freshness().quality().supported()
+                    && barrel.canHold(beverage.beverageIndex())
+                    && barrel.capacityMb() >= beverage.containerData().liquid().servingMb()) {
+                return beverage;
+            }
+        }
+        return null;
+    }
+}
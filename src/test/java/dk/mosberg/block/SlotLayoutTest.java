@@ -0,0 +1,113 @@
+package dk.mosberg.block;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+import dk.mosberg.data.EquipmentData;
+import net.minecraft.item.Item;
+import net.minecraft.registry.RegistryKeys;
+import net.minecraft.registry.tag.TagKey;
+import net.minecraft.util.Identifier;
+
+class SlotLayoutTest {
+    private static final Identifier INGREDIENTS = Identifier.of("alchemy", "ingredients");
+    private static final Identifier CATALYST = Identifier.of("alchemy", "catalyst");
+    private static final Identifier CURSED = Identifier.of("alchemy", "cursed");
+
+    /** Roles in first-mention order: input 0, catalyst 1, output 2, fuel 3. */
+    private static final EquipmentData.Inventory BREWERY = new EquipmentData.Inventory(70, 64,
+            List.of(INGREDIENTS, CATALYST), List.of(CURSED),
+            List.of(new EquipmentData.SlotRole("input", 0, 3),
+                    new EquipmentData.SlotRole("catalyst", 4, 4),
+                    new EquipmentData.SlotRole("output", 5, 6),
+                    new EquipmentData.SlotRole("input", 60, 66),
+                    new EquipmentData.SlotRole("fuel", 67, 67)),
+            true, List.of("catalyst", "missing", "input", "catalyst", "fuel"));
+
+    @Test
+    void roleMasksCoverTheirSlotRanges() {
+        SlotLayout layout = new SlotLayout(BREWERY);
+        assertArrayEquals(new long[] {0b1111L | 0b1111L << 60, 0b111L}, layout.slots(0));
+        assertArrayEquals(new long[] {1L << 4, 0L}, layout.slots(1));
+        assertArrayEquals(new long[] {0b11L << 5, 0L}, layout.slots(2));
+        assertArrayEquals(new long[] {0L, 1L << 3}, layout.slots(3));
+        assertArrayEquals(layout.slots(0), layout.inputSlots());
+        assertArrayEquals(layout.slots(2), layout.outputSlots());
+
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4, 60, 61, 62, 63, 64, 65, 66, 67},
+                layout.insertSlots());
+        assertArrayEquals(new int[] {5, 6}, layout.extractSlots());
+        for (int slot = -1; slot <= layout.capacity(); slot++) {
+            assertEquals(slot == 5 || slot == 6, layout.isOutput(slot), "Slot " + slot);
+        }
+    }
+
+    @Test
+    void layoutWithoutRolesHasEmptyMasks() {
+        SlotLayout layout = new SlotLayout(new EquipmentData.Inventory(3, 16, List.of(),
+                List.of(), List.of(), false, List.of()));
+        assertArrayEquals(new long[1], layout.inputSlots());
+        assertArrayEquals(new long[1], layout.outputSlots());
+        assertEquals(0, layout.insertSlots().length);
+        assertEquals(0, layout.extractSlots().length);
+        assertEquals(0, layout.resolve(tags(), true));
+    }
+
+    @Test
+    void rejectedTagsTakeNoRole() {
+        SlotLayout layout = new SlotLayout(BREWERY);
+        assertEquals(0, layout.resolve(tags(INGREDIENTS, CURSED), false));
+        assertEquals(0, layout.resolve(tags(CATALYST, CURSED), false));
+        assertEquals(0, layout.resolve(tags(CURSED), true), "Rejects win over recipes");
+    }
+
+    @Test
+    void roleNamedTagsOnlyFillTheirRole() {
+        SlotLayout layout = new SlotLayout(BREWERY);
+        // Output is never insertable, and only catalysts enter the catalyst role
+        assertEquals(0b1001, layout.resolve(tags(INGREDIENTS), false));
+        assertEquals(0b1011, layout.resolve(tags(CATALYST), false));
+        assertEquals(0, layout.resolve(tags(), false));
+        assertEquals(0b0001, layout.resolve(tags(), true), "Recipe ingredients enter input");
+        assertEquals(0b1001, layout.resolve(tags(INGREDIENTS), true));
+    }
+
+    @Test
+    void withoutAcceptedTagsEveryInsertableRoleTakesItems() {
+        SlotLayout layout = new SlotLayout(new EquipmentData.Inventory(3, 64, List.of(),
+                List.of(CURSED), List.of(new EquipmentData.SlotRole("output", 0, 0),
+                        new EquipmentData.SlotRole("input", 1, 2)),
+                true, List.of()));
+        assertEquals(0b10, layout.resolve(tags(), false));
+        assertEquals(0, layout.resolve(tags(CURSED), true));
+    }
+
+    @Test
+    void quickMovePriorityFollowsTheDataOrder() {
+        SlotLayout layout = new SlotLayout(BREWERY);
+        assertTrue(layout.quickMove());
+        // Unknown roles are skipped and repeats keep their first place
+        assertArrayEquals(new int[] {1, 0, 3}, layout.priority());
+
+        SlotLayout none = new SlotLayout(new EquipmentData.Inventory(70, 64, List.of(),
+                List.of(), BREWERY.slotRoles(), false, List.of()));
+        assertFalse(none.quickMove());
+        assertEquals(0, none.priority().length);
+    }
+
+    /** Tag membership of an item in exactly {@code ids}. */
+    private static Predicate<TagKey<Item>> tags(Identifier... ids) {
+        Set<TagKey<Item>> tags = new HashSet<>();
+        for (Identifier id : ids) {
+            tags.add(TagKey.of(RegistryKeys.ITEM, id));
+        }
+        return tags::contains;
+    }
+}
@@ -0,0 +1,48 @@
+package dk.mosberg.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class BarrelAgingTest {
+    private static final ContainerData.Barrel OAK =
+            new ContainerData.Barrel(true, 2.0f, 0.01f, 0.05f);
+
+    @Test
+    void qualityMatchesDailySteps() {
+        float stepped = 0.4f;
+        for (int day = 0; day < 30; day++) {
+            stepped = OAK.qualityAfter(stepped, 0.9f, 1.0);
+        }
+        assertEquals(stepped, OAK.qualityAfter(0.4f, 0.9f, 30.0), 1e-5f);
+    }
+
+    @Test
+    void agingSplitsAtAnyPoint() {
+        float whole = OAK.qualityAfter(0.2f, 1.0f, 7.5);
+        float split = OAK.qualityAfter(OAK.qualityAfter(0.2f, 1.0f, 2.25), 1.0f, 5.25);
+        assertEquals(whole, split, 1e-6f);
+    }
+
+    @Test
+    void qualityApproachesTargetWithoutOvershooting() {
+        float rising = OAK.qualityAfter(0.2f, 0.8f, 1_000.0);
+        float falling = OAK.qualityAfter(0.95f, 0.8f, 1_000.0);
+        assertTrue(rising <= 0.8f && rising > 0.79f, "rising quality " + rising);
+        assertTrue(falling >= 0.8f && falling < 0.81f, "falling quality " + falling);
+    }
+
+    @Test
+    void amountEvaporatesGeometrically() {
+        assertEquals((int) (10_000 * Math.pow(1.0 - 0.01f, 10)), OAK.amountAfter(10_000, 10.0));
+        assertEquals(10_000, OAK.amountAfter(10_000, 0.0));
+        assertEquals(0, new ContainerData.Barrel(true, 1.0f, 1.0f, 0.0f).amountAfter(500, 1.0));
+    }
+
+    @Test
+    void containersWithoutBarrelLogicDoNotAge() {
+        assertEquals(0.3f, ContainerData.Barrel.NONE.qualityAfter(0.3f, 1.0f, 100.0));
+        assertEquals(750, ContainerData.Barrel.NONE.amountAfter(750, 100.0));
+    }
+}
@@ -0,0 +1,78 @@
+package dk.mosberg.data;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import dk.mosberg.GameTestSupport;
+
+class ContentPackCacheTest {
+    private static ContentPack shipped;
+
+    @BeforeAll
+    static void load() {
+        GameTestSupport.bootstrap();
+        shipped = DataLoader.load(List.of(GameTestSupport.SHIPPED_DATA), false);
+    }
+
+    private static byte[] key(int seed) {
+        byte[] key = new byte[32];
+        Arrays.fill(key, (byte) seed);
+        return key;
+    }
+
+    @Test
+    void roundTripReproducesTheParsedPack(@TempDir Path dir) {
+        Path file = dir.resolve("content-pack.bin");
+        ContentPackCache.write(file, key(1), shipped);
+        ContentPack cached = ContentPackCache.read(file, key(1));
+
+        assertNotNull(cached);
+        assertFalse(shipped.beverages().isEmpty());
+        assertEquals(shipped.beverages(), cached.beverages());
+        assertEquals(shipped.containers(), cached.containers());
+        assertEquals(shipped.equipment(), cached.equipment());
+        assertEquals(List.copyOf(shipped.beverages().keySet()),
+                List.copyOf(cached.beverages().keySet()), "Beverage order decides indices");
+    }
+
+    @Test
+    void cacheForOtherInputsIsIgnored(@TempDir Path dir) {
+        Path file = dir.resolve("content-pack.bin");
+        ContentPackCache.write(file, key(1), shipped);
+        assertNull(ContentPackCache.read(file, key(2)));
+    }
+
+    @Test
+    void truncatedCacheIsIgnored(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("content-pack.bin");
+        ContentPackCache.write(file, key(1), shipped);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length / 2));
+        assertNull(ContentPackCache.read(file, key(1)));
+    }
+
+    @Test
+    void keyFollowsFileContents(@TempDir Path dir) throws IOException {
+        Path root = dir.resolve("data");
+        Path file = root.resolve("beverages").resolve("test.json");
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "{\"id\": \"alchemy:test\"}");
+        List<List<Path>> groups = List.of(List.of(file));
+
+        byte[] first = ContentPackCache.key(groups, List.of(root));
+        assertArrayEquals(first, ContentPackCache.key(groups, List.of(root)));
+        Files.writeString(file, "{\"id\": \"alchemy:test2\"}");
+        assertFalse(Arrays.equals(first, ContentPackCache.key(groups, List.of(root))));
+    }
+}
@@ -0,0 +1,128 @@
+package dk.mosberg.data;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import dk.mosberg.GameTestSupport;
+import net.minecraft.util.Identifier;
+
+class TagIndexTest {
+    private static ContentPack shipped;
+
+    @BeforeAll
+    static void load() {
+        GameTestSupport.bootstrap();
+        shipped = DataLoader.load(List.of(GameTestSupport.SHIPPED_DATA), false);
+    }
+
+    @Test
+    void shippedMatrixMatchesSetIntersection() {
+        assertMatchesSets(shipped.beverageValues(), shipped.containerValues());
+    }
+
+    @Test
+    void widePacksSpanSeveralWords() {
+        // More than 64 tags and beverages, so bitsets and rows need several words
+        SplittableRandom random = new SplittableRandom(11);
+        BeverageData beverageTemplate = shipped.beverageValues().iterator().next();
+        ContainerData containerTemplate = shipped.containerValues().iterator().next();
+        List<BeverageData> beverages = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            beverages.add(beverage(beverageTemplate, "beverage_" + i, tags(random, 3)));
+        }
+        List<ContainerData> containers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            containers.add(container(containerTemplate, "container_" + i,
+                    i % 10 == 0 ? List.of() : tags(random, 1 + random.nextInt(12))));
+        }
+        TagIndex index = assertMatchesSets(beverages, containers);
+        assertTrue(index.size() > Long.SIZE, "Only " + index.size() + " tags");
+    }
+
+    @Test
+    void unknownIdsHoldNothing() {
+        TagIndex index = TagIndex.of(shipped.beverageValues(), shipped.containerValues());
+        Identifier unknown = Identifier.of("test", "unknown");
+        Identifier beverage = shipped.beverageValues().iterator().next().id();
+        Identifier container = shipped.containerValues().iterator().next().id();
+        assertEquals(-1, index.index(unknown));
+        assertEquals(-1, index.container(unknown));
+        assertEquals(0, index.compatibleBeverages(unknown).length);
+        assertFalse(index.canHold(unknown, beverage));
+        assertFalse(index.canHold(container, unknown));
+        assertFalse(index.canHold(-1, 0));
+        assertFalse(index.canHold(index.container(container), -1));
+    }
+
+    /** Checks every container and beverage pair against plain set logic. */
+    private static TagIndex assertMatchesSets(Collection<BeverageData> beverages,
+            Collection<ContainerData> containers) {
+        TagIndex index = TagIndex.of(beverages, containers);
+        Set<Integer> numbers = new HashSet<>();
+        for (BeverageData beverage : beverages) {
+            for (Identifier tag : beverage.tags()) {
+                numbers.add(index.index(tag));
+            }
+        }
+        for (ContainerData container : containers) {
+            for (Identifier tag : container.liquid().acceptedTags()) {
+                numbers.add(index.index(tag));
+            }
+        }
+        assertEquals(index.size(), numbers.size());
+        assertFalse(numbers.contains(-1), "A named tag has no index");
+
+        for (ContainerData container : containers) {
+            List<Identifier> accepted = container.liquid().acceptedTags();
+            int number = index.container(container.id());
+            int column = 0;
+            for (BeverageData beverage : beverages) {
+                Set<Identifier> shared = new HashSet<>(beverage.tags());
+                shared.retainAll(accepted);
+                String pair = container.id() + " / " + beverage.id();
+                assertEquals(!shared.isEmpty(), TagIndex.intersects(
+                        index.acceptedTags(container.id()), index.beverageTags(beverage.id())),
+                        pair);
+                boolean holds = accepted.isEmpty() || !shared.isEmpty();
+                assertEquals(holds, index.canHold(container.id(), beverage.id()), pair);
+                assertEquals(holds, index.canHold(number, column), pair);
+                column++;
+            }
+        }
+        return index;
+    }
+
+    private static List<Identifier> tags(SplittableRandom random, int count) {
+        Set<Identifier> tags = new HashSet<>();
+        while (tags.size() < count) {
+            tags.add(Identifier.of("test", "tag_" + random.nextInt(200)));
+        }
+        return List.copyOf(tags);
+    }
+
+    private static BeverageData beverage(BeverageData t, String path, List<Identifier> tags) {
+        return new BeverageData(Identifier.of("test", path), t.category(), t.style(),
+                t.container(), t.rarity(), t.stackSize(), t.stats(), t.effects(), t.textKeys(),
+                t.config(), t.freshness(), t.brewing(), tags, t.loot(), t.visuals());
+    }
+
+    private static ContainerData container(ContainerData t, String path,
+            List<Identifier> accepted) {
+        ContainerData.Liquid l = t.liquid();
+        ContainerData.Liquid liquid = new ContainerData.Liquid(l.canContainLiquid(),
+                l.capacityMb(), l.defaultFillMb(), l.fillRateMbPerTick(), l.pourRateMbPerTick(),
+                l.allowPartial(), accepted, l.pipeSides());
+        return new ContainerData(Identifier.of("test", path), t.containerKind(), t.stackSize(),
+                t.rarity(), t.durability(), t.interaction(), t.seal(), t.stateStorage(), liquid,
+                t.barrel());
+    }
+}
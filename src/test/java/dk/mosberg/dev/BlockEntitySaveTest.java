@@ -0,0 +1,132 @@
+package dk.mosberg.dev;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.DeflaterOutputStream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import dk.mosberg.Alchemy;
+import dk.mosberg.GameTestSupport;
+import dk.mosberg.block.ContainerBlockEntity;
+import dk.mosberg.data.BeverageManager;
+import dk.mosberg.data.ContainerData;
+import dk.mosberg.registry.ModBlocks;
+import net.minecraft.block.Block;
+import net.minecraft.nbt.NbtCompound;
+import net.minecraft.nbt.NbtIo;
+import net.minecraft.registry.BuiltinRegistries;
+import net.minecraft.registry.RegistryWrapper;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Measures block entity save size and time. Runs only with
+ * {@code -Dalchemy.stress.blockEntities=N}; {@code N} filled containers are created off-world and
+ * serialized with the keyed layout used before the compact save format and with the current
+ * layout, both cold (after a change) and warm (unchanged since the last save). Sizes are
+ * uncompressed NBT and deflated, as chunks are stored. Results are logged, and the test fails when
+ * the compact layout is not smaller than the keyed one.
+ */
+class BlockEntitySaveTest {
+    private static final int ROUNDS = 5;
+
+    @BeforeAll
+    static void initialize() {
+        GameTestSupport.initialize();
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "alchemy.stress.blockEntities", matches = "\\s*\\d+\\s*")
+    void compactLayoutIsSmallerThanKeyed() {
+        int count = Integer.parseInt(System.getProperty("alchemy.stress.blockEntities").trim());
+        RegistryWrapper.WrapperLookup registries = BuiltinRegistries.createWrapperLookup();
+        Block block = null;
+        for (Block candidate : ModBlocks.containerBlocks()) {
+            ContainerData data = ModBlocks.containerData(candidate);
+            if (data != null && data.liquid().canContainLiquid()
+                    && data.liquid().capacityMb() > 0) {
+                block = candidate;
+                break;
+            }
+        }
+        assertNotNull(block, "The shipped content has no liquid container");
+        assertNotNull(BeverageManager.idAt(0), "The shipped content has no beverage");
+
+        List<ContainerBlockEntity> containers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ContainerBlockEntity container =
+                    new ContainerBlockEntity(new BlockPos(i, 64, 0), block.getDefaultState());
+            container.fill(0, container.capacityMb(), 0.5f + (i % 50) / 100.0f, 1000L + i, i);
+            if (i % 2 == 0) {
+                container.pour(1, i + 1L);
+            }
+            containers.add(container);
+        }
+
+        Result legacy = measure(containers, BlockEntitySaveTest::legacyNbt, false);
+        Result cold = measure(containers, container -> container.createNbt(registries), true);
+        Result warm = measure(containers, container -> container.createNbt(registries), false);
+        Alchemy.LOGGER.info("Block entity saves, {} containers: keyed {} B ({} B deflated) "
+                + "{} ns/be; compact {} B ({} B deflated) {} ns/be changed, {} ns/be unchanged",
+                count, legacy.bytes(), legacy.deflated(), legacy.nanosPerEntity(), cold.bytes(),
+                cold.deflated(), cold.nanosPerEntity(), warm.nanosPerEntity());
+        assertTrue(cold.bytes() < legacy.bytes(), "Compact saves are not smaller than keyed");
+    }
+
+    private record Result(long bytes, long deflated, long nanosPerEntity) {}
+
+    /**
+     * Serializes every container {@link #ROUNDS} times and keeps the fastest round. With
+     * {@code invalidate} each round first marks all contents as changed, as after a fill.
+     */
+    private static Result measure(List<ContainerBlockEntity> containers,
+            Function<ContainerBlockEntity, NbtCompound> save, boolean invalidate) {
+        long best = Long.MAX_VALUE;
+        List<NbtCompound> saved = new ArrayList<>(containers.size());
+        for (int round = 0; round < ROUNDS; round++) {
+            if (invalidate) {
+                containers.forEach(container -> container.setPayload(null));
+            }
+            saved.clear();
+            long start = System.nanoTime();
+            for (ContainerBlockEntity container : containers) {
+                saved.add(save.apply(container));
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        ByteArrayOutputStream raw = new ByteArrayOutputStream();
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream();
+        try (DataOutputStream rawOut = new DataOutputStream(raw);
+                DataOutputStream deflatedOut =
+                        new DataOutputStream(new DeflaterOutputStream(deflated))) {
+            for (NbtCompound nbt : saved) {
+                NbtIo.write(nbt, rawOut);
+                NbtIo.write(nbt, deflatedOut);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not measure NBT size", e);
+        }
+        int entities = Math.max(1, containers.size());
+        return new Result(raw.size(), deflated.size(), best / entities);
+    }
+
+    /** The keyed layout written before the compact save format. */
+    private static NbtCompound legacyNbt(ContainerBlockEntity container) {
+        NbtCompound nbt = new NbtCompound();
+        nbt.putString("beverage", container.beverageId().toString());
+        nbt.putInt("amount_mb", container.amountMb());
+        nbt.putFloat("quality", container.quality());
+        nbt.putLong("brewed_at", container.brewedAt());
+        if (container.openedAt() != ContainerBlockEntity.SEALED) {
+            nbt.putLong("opened_at", container.openedAt());
+        }
+        return nbt;
+    }
+}
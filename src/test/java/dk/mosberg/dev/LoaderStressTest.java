@@ -0,0 +1,254 @@
+package dk.mosberg.dev;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.ref.Reference;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import dk.mosberg.Alchemy;
+import dk.mosberg.GameTestSupport;
+import dk.mosberg.data.ContentPack;
+import dk.mosberg.data.DataLoader;
+import dk.mosberg.data.ExternalContentPacks;
+import dk.mosberg.registry.ModBlocks;
+import dk.mosberg.registry.ModItems;
+
+/**
+ * Scale and memory stress test for {@link DataLoader}. Runs only with
+ * {@code -Dalchemy.stress.scales=1000,10000,50000}; for every scale a synthetic pack is generated,
+ * loaded serially, and the wall time, allocated bytes and retained heap per definition are
+ * recorded. The test fails when the per-definition cost at the largest scale exceeds the smallest
+ * scale by more than {@code alchemy.stress.linearity} (default 2.0), or when retained heap per
+ * definition exceeds {@code alchemy.stress.budgetBytes} (default 16384).
+ *
+ * <p>Every scale is also packed into a zip archive and loaded through {@link ExternalContentPacks};
+ * the test fails when reading from the archive costs more per definition than the directory load
+ * by more than {@code alchemy.stress.zipTolerance} (default 1.10).
+ *
+ * <p>With {@code -Dalchemy.stress.synthetic=N} a synthetic pack of {@code N} beverages is also
+ * registered through {@code ModBlocks}/{@code ModItems} and the registration cost per definition
+ * is logged. Registration cannot be undone, so this runs once per test JVM.
+ */
+class LoaderStressTest {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    @BeforeAll
+    static void bootstrap() {
+        GameTestSupport.bootstrap();
+    }
+
+    /** One measured scale. */
+    public record Sample(int definitions, long wallNanos, long allocatedBytes,
+            long retainedBytes, long zipWallNanos) {
+        public double nanosPerDefinition() {
+            return (double) wallNanos / definitions;
+        }
+
+        public double zipNanosPerDefinition() {
+            return (double) zipWallNanos / definitions;
+        }
+
+        public double allocatedPerDefinition() {
+            return (double) allocatedBytes / definitions;
+        }
+
+        public double retainedPerDefinition() {
+            return (double) retainedBytes / definitions;
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "alchemy.stress.scales", matches = ".*\\d.*")
+    void loadCostScalesLinearly() {
+        String scales = System.getProperty("alchemy.stress.scales");
+        int[] parsed = Arrays.stream(scales.split(",")).map(String::trim)
+                .filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt).sorted().toArray();
+        List<Sample> samples = run(parsed);
+        verify(samples, Double.parseDouble(System.getProperty("alchemy.stress.linearity", "2.0")),
+                Long.parseLong(System.getProperty("alchemy.stress.budgetBytes", "16384")),
+                Double.parseDouble(System.getProperty("alchemy.stress.zipTolerance", "1.10")));
+    }
+
+    /**
+     * Generates and loads one synthetic pack per scale. The smallest scale is loaded once before
+     * measuring so JIT warm-up does not skew the linearity check.
+     */
+    private static List<Sample> run(int[] beverageScales) {
+        List<Sample> samples = new ArrayList<>();
+        if (beverageScales.length == 0) {
+            return samples;
+        }
+        Path workDir = null;
+        try {
+            workDir = Files.createTempDirectory("alchemy-stress");
+            List<Path> templates = List.of(GameTestSupport.SHIPPED_DATA);
+
+            Path warmUp = workDir.resolve("warmup");
+            SyntheticContentPack.write(warmUp, templates,
+                    SyntheticContentPack.Counts.forBeverages(beverageScales[0]), 0);
+            DataLoader.load(List.of(warmUp), false);
+            Path warmUpZip = zip(warmUp, workDir.resolve("warmup.zip"));
+            try (ExternalContentPacks packs = ExternalContentPacks.mount(warmUpZip.getParent())) {
+                DataLoader.load(packs.dataRoots(), false);
+            }
+            Files.delete(warmUpZip);
+
+            for (int beverages : beverageScales) {
+                SyntheticContentPack.Counts counts =
+                        SyntheticContentPack.Counts.forBeverages(beverages);
+                Path root = workDir.resolve("n" + beverages);
+                SyntheticContentPack.write(root, templates, counts, beverages);
+                Path archive = zip(root, workDir.resolve("zip-" + beverages).resolve("pack.zip"));
+                Sample sample = measure(root, archive.getParent());
+                assertEquals(counts.total(), sample.definitions(),
+                        "Synthetic pack definitions loaded");
+                samples.add(sample);
+                Alchemy.LOGGER.info(
+                        "Stress {} definitions: {} ms, {} ns/def, {} B allocated/def, "
+                                + "{} B retained/def, {} ns/def from zip",
+                        sample.definitions(), sample.wallNanos() / 1_000_000,
+                        Math.round(sample.nanosPerDefinition()),
+                        Math.round(sample.allocatedPerDefinition()),
+                        Math.round(sample.retainedPerDefinition()),
+                        Math.round(sample.zipNanosPerDefinition()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write synthetic packs", e);
+        } finally {
+            delete(workDir);
+        }
+        return samples;
+    }
+
+    /**
+     * Fails when scaling is worse than linear within {@code linearity}, when retained heap per
+     * definition exceeds {@code budgetBytes}, or when loading from a zip pack is slower per
+     * definition than the directory load by more than {@code zipTolerance}.
+     */
+    private static void verify(List<Sample> samples, double linearity, long budgetBytes,
+            double zipTolerance) {
+        if (samples.isEmpty()) {
+            return;
+        }
+        Sample smallest = samples.getFirst();
+        Sample largest = samples.getLast();
+        double ratio = largest.nanosPerDefinition() / smallest.nanosPerDefinition();
+        if (samples.size() > 1 && ratio > linearity) {
+            fail(String.format(
+                    "Loader scaling is not linear: %.0f ns/def at %d definitions vs %.0f ns/def"
+                            + " at %d (x%.2f > x%.2f)",
+                    largest.nanosPerDefinition(), largest.definitions(),
+                    smallest.nanosPerDefinition(), smallest.definitions(), ratio, linearity));
+        }
+        for (Sample sample : samples) {
+            if (sample.retainedPerDefinition() > budgetBytes) {
+                fail(String.format(
+                        "Loader retains %.0f B per definition at %d definitions, budget is %d B",
+                        sample.retainedPerDefinition(), sample.definitions(), budgetBytes));
+            }
+            double zipRatio = sample.zipNanosPerDefinition() / sample.nanosPerDefinition();
+            if (zipRatio > zipTolerance) {
+                fail(String.format(
+                        "Zip packs load at %.0f ns/def vs %.0f ns/def from directories at %d"
+                                + " definitions (x%.2f > x%.2f)",
+                        sample.zipNanosPerDefinition(), sample.nanosPerDefinition(),
+                        sample.definitions(), zipRatio, zipTolerance));
+            }
+        }
+        Alchemy.LOGGER.info("Loader stress passed: x{} cost growth across {} scales",
+                String.format("%.2f", ratio), samples.size());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "alchemy.stress.synthetic", matches = "\\s*\\d+\\s*")
+    void registrationCost(@TempDir Path root) throws IOException {
+        SyntheticContentPack.Counts counts = SyntheticContentPack.Counts.forBeverages(
+                Integer.parseInt(System.getProperty("alchemy.stress.synthetic").trim()));
+        SyntheticContentPack.write(root, List.of(GameTestSupport.SHIPPED_DATA), counts,
+                counts.beverages());
+        ContentPack content = DataLoader.load(List.of(root), false);
+        assertEquals(counts.total(), content.size(), "Synthetic pack definitions loaded");
+
+        long start = System.nanoTime();
+        ModBlocks.register(content);
+        ModItems.register(content);
+        long nanos = System.nanoTime() - start;
+        int definitions = content.size();
+        Alchemy.LOGGER.info("Stress registration of {} definitions: {} ms, {} ns/def", definitions,
+                nanos / 1_000_000, nanos / definitions);
+    }
+
+    private static Sample measure(Path root, Path packDirectory) {
+        long heapBefore = usedHeapAfterGc();
+        long allocatedBefore = THREADS.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        ContentPack pack = DataLoader.load(List.of(root), false);
+        long wall = System.nanoTime() - start;
+        long allocated = THREADS.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        long retained = Math.max(0, usedHeapAfterGc() - heapBefore);
+        Reference.reachabilityFence(pack);
+
+        long zipWall;
+        try (ExternalContentPacks packs = ExternalContentPacks.mount(packDirectory)) {
+            long zipStart = System.nanoTime();
+            DataLoader.load(packs.dataRoots(), false);
+            zipWall = System.nanoTime() - zipStart;
+        }
+
+        return new Sample(pack.size(), wall, allocated, retained, zipWall);
+    }
+
+    /** Packs the contents of {@code root} into a new zip archive at {@code archive}. */
+    private static Path zip(Path root, Path archive) throws IOException {
+        Files.createDirectories(archive.getParent());
+        try (FileSystem zip = FileSystems.newFileSystem(archive, Map.of("create", "true"));
+                var paths = Files.walk(root)) {
+            for (Path path : (Iterable<Path>) paths.sorted()::iterator) {
+                Path target = zip.getPath("/", root.relativize(path).toString().replace('\\', '/'));
+                if (Files.isDirectory(path)) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.copy(path, target);
+                }
+            }
+        }
+        return archive;
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        System.gc();
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    private static void delete(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (var paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            Alchemy.LOGGER.warn("Could not clean up stress test directory {}", dir, e);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package dk.mosberg.dev;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import dk.mosberg.Alchemy;
+import dk.mosberg.loot.AliasSampler;
+
+/**
+ * Measures the per-roll cost of beverage loot injection. Runs only with
+ * {@code -Dalchemy.stress.lootBeverages=1000,10000}; for every size a table of that many beverages
+ * with random weights is sampled {@value #ROLLS} times through {@link AliasSampler} and through a
+ * cumulative-weight scan, the selection the sampler replaces. The best of {@value #ROUNDS}
+ * rounds is logged for both, together with the sampler's build time.
+ */
+class LootSamplingTest {
+    private static final int ROLLS = 1_000_000;
+    private static final int ROUNDS = 5;
+
+    @Test
+    @EnabledIfSystemProperty(named = "alchemy.stress.lootBeverages", matches = ".*\\d.*")
+    void aliasSamplingCost() {
+        int[] sizes = Arrays.stream(System.getProperty("alchemy.stress.lootBeverages").split(","))
+                .map(String::trim).filter(s -> !s.isEmpty()).mapToInt(Integer::parseInt)
+                .toArray();
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        SplittableRandom random = new SplittableRandom(size);
+        int[] weights = new int[size];
+        int[] cumulative = new int[size];
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = 1 + random.nextInt(20);
+            total += weights[i];
+            cumulative[i] = total;
+        }
+
+        long buildStart = System.nanoTime();
+        AliasSampler sampler = new AliasSampler(weights);
+        long buildNanos = System.nanoTime() - buildStart;
+
+        long aliasBest = Long.MAX_VALUE;
+        long scanBest = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            SplittableRandom rolls = new SplittableRandom(round);
+            long start = System.nanoTime();
+            for (int i = 0; i < ROLLS; i++) {
+                sink += sampler.sample(rolls.nextInt(size), (float) rolls.nextDouble());
+            }
+            aliasBest = Math.min(aliasBest, System.nanoTime() - start);
+
+            rolls = new SplittableRandom(round);
+            start = System.nanoTime();
+            for (int i = 0; i < ROLLS; i++) {
+                sink += scan(cumulative, rolls.nextInt(total));
+            }
+            scanBest = Math.min(scanBest, System.nanoTime() - start);
+        }
+        Alchemy.LOGGER.info("Loot sampling, {} beverages: alias {} ns/roll, cumulative scan {} "
+                + "ns/roll, sampler built in {} us (checksum {})", size,
+                String.format("%.1f", (double) aliasBest / ROLLS),
+                String.format("%.1f", (double) scanBest / ROLLS), buildNanos / 1_000, sink);
+    }
+
+    /** Index of the first cumulative weight above {@code roll}, as a weighted pool scan does. */
+    private static int scan(int[] cumulative, int roll) {
+        for (int i = 0; i < cumulative.length; i++) {
+            if (roll < cumulative[i]) {
+                return i;
+            }
+        }
+        return cumulative.length - 1;
+    }
+}
@@ -0,0 +1,197 @@
+package dk.mosberg.dev;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import dk.mosberg.Alchemy;
+
+/**
+ * Generates large, schema-shaped content packs for scale testing. The shipped definitions are used
+ * as templates: each synthetic file is a copy of a real beverage, container or equipment JSON with
+ * a fresh id, rewritten text keys and block ids, and randomized numeric stats. Because only values
+ * that the schemas allow to vary are touched, the generated files stay valid against
+ * {@code data/alchemy/schema/*.schema.json}.
+ */
+public final class SyntheticContentPack {
+    private static final Gson GSON = new GsonBuilder().disableHtmlEscaping().create();
+    private static final String PREFIX = "synthetic_";
+    private static final String[] RARITIES = {"common", "uncommon", "rare", "epic", "legendary"};
+
+    private SyntheticContentPack() {}
+
+    /** Definition counts for one generated pack; containers and equipment scale with beverages. */
+    public record Counts(int beverages, int containers, int equipment) {
+        public static Counts forBeverages(int beverages) {
+            return new Counts(beverages, Math.max(1, beverages / 10), Math.max(1, beverages / 25));
+        }
+
+        public int total() {
+            return beverages + containers + equipment;
+        }
+    }
+
+    /**
+     * Writes a synthetic pack below {@code dataRoot} using the definitions found in
+     * {@code templateRoots} as templates.
+     */
+    public static void write(Path dataRoot, List<Path> templateRoots, Counts counts, long seed)
+            throws IOException {
+        Random random = new Random(seed);
+        List<JsonObject> containerTemplates = templates(templateRoots, "containers");
+        List<JsonObject> beverageTemplates = templates(templateRoots, "beverages");
+        List<JsonObject> equipmentTemplates = templates(templateRoots, "equipment");
+
+        String[] containerIds = new String[counts.containers()];
+        for (int i = 0; i < counts.containers(); i++) {
+            String path = PREFIX + "container_" + i;
+            containerIds[i] = Alchemy.MOD_ID + ":" + path;
+            JsonObject json = container(pick(containerTemplates, i), path, random);
+            save(dataRoot.resolve("containers").resolve(path + ".json"), json);
+        }
+        for (int i = 0; i < counts.beverages(); i++) {
+            String path = PREFIX + "beverage_" + i;
+            JsonObject json = beverage(pick(beverageTemplates, i), path,
+                    containerIds[i % containerIds.length], random);
+            save(dataRoot.resolve("beverages").resolve(path + ".json"), json);
+        }
+        for (int i = 0; i < counts.equipment(); i++) {
+            String path = PREFIX + "equipment_" + i;
+            JsonObject json = equipment(pick(equipmentTemplates, i), path);
+            save(dataRoot.resolve("equipment").resolve(path + ".json"), json);
+        }
+    }
+
+    private static JsonObject beverage(JsonObject template, String path, String container,
+            Random random) {
+        JsonObject json = template.deepCopy();
+        String oldPath = path(json);
+        json.addProperty("id", Alchemy.MOD_ID + ":" + path);
+        json.addProperty("container", container);
+        json.addProperty("rarity", RARITIES[random.nextInt(RARITIES.length)]);
+        json.addProperty("stack_size", 1 + random.nextInt(64));
+
+        JsonObject stats = child(json, "stats");
+        if (stats != null) {
+            stats.addProperty("alcohol_by_volume", Math.round(random.nextDouble() * 600) / 10.0);
+            stats.addProperty("strength", Math.round(random.nextDouble() * 100) / 100.0);
+        }
+        JsonObject visuals = child(json, "visuals");
+        if (visuals != null) {
+            visuals.addProperty("liquid_color", random.nextInt(0x1000000));
+        }
+        JsonObject loot = child(json, "loot");
+        if (loot != null) {
+            loot.addProperty("weight", random.nextInt(20));
+        }
+
+        JsonObject text = child(json, "text");
+        rewriteStrings(text != null ? text : json, oldPath, path);
+        return json;
+    }
+
+    private static JsonObject container(JsonObject template, String path, Random random) {
+        JsonObject json = template.deepCopy();
+        String oldPath = path(json);
+        String id = Alchemy.MOD_ID + ":" + path;
+        json.addProperty("id", id);
+        json.addProperty("rarity", RARITIES[random.nextInt(RARITIES.length)]);
+
+        JsonObject interaction = child(json, "interaction");
+        if (interaction != null) {
+            interaction.addProperty("return_item_id", id);
+        }
+        JsonObject stateStorage = child(json, "state_storage");
+        JsonObject placed = stateStorage != null ? child(stateStorage, "placed_block") : null;
+        if (placed != null) {
+            placed.addProperty("block_id", id + "_block");
+            placed.addProperty("block_entity_id", id);
+        }
+        JsonObject text = child(json, "text");
+        if (text != null) {
+            rewriteStrings(text, oldPath, path);
+        }
+        return json;
+    }
+
+    private static JsonObject equipment(JsonObject template, String path) {
+        JsonObject json = template.deepCopy();
+        String id = Alchemy.MOD_ID + ":" + path;
+        json.addProperty("id", id);
+        json.addProperty("name_key", "block." + Alchemy.MOD_ID + "." + path);
+
+        JsonObject placement = child(json, "placement");
+        if (placement != null) {
+            placement.addProperty("block_id", id);
+            placement.addProperty("block_entity_id", id);
+        }
+        return json;
+    }
+
+    private static void rewriteStrings(JsonObject object, String oldPath, String newPath) {
+        for (Map.Entry<String, JsonElement> entry : object.entrySet()) {
+            JsonElement value = entry.getValue();
+            if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+                entry.setValue(new JsonPrimitive(value.getAsString().replace(oldPath, newPath)));
+            }
+        }
+    }
+
+    private static List<JsonObject> templates(List<Path> roots, String dir) throws IOException {
+        List<JsonObject> templates = new ArrayList<>();
+        for (Path root : roots) {
+            Path path = root.resolve(dir);
+            if (!Files.isDirectory(path)) {
+                continue;
+            }
+            try (var files = Files.walk(path)) {
+                for (Path file : (Iterable<Path>) files
+                        .filter(p -> p.toString().endsWith(".json")).sorted()::iterator) {
+                    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                        JsonElement element = JsonParser.parseReader(reader);
+                        if (element.isJsonObject() && element.getAsJsonObject().has("id")) {
+                            templates.add(element.getAsJsonObject());
+                        }
+                    }
+                }
+            }
+        }
+        if (templates.isEmpty()) {
+            throw new IOException("No " + dir + " templates found in " + roots);
+        }
+        return templates;
+    }
+
+    private static JsonObject pick(List<JsonObject> templates, int index) {
+        return templates.get(index % templates.size());
+    }
+
+    private static JsonObject child(JsonObject parent, String key) {
+        JsonElement element = parent.get(key);
+        return element != null && element.isJsonObject() ? element.getAsJsonObject() : null;
+    }
+
+    private static String path(JsonObject json) {
+        String id = json.get("id").getAsString();
+        return id.substring(id.indexOf(':') + 1);
+    }
+
+    private static void save(Path file, JsonObject json) throws IOException {
+        Files.createDirectories(file.getParent());
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            GSON.toJson(json, writer);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package dk.mosberg.effect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import dk.mosberg.GameTestSupport;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.ContentPack;
+import dk.mosberg.data.DataLoader;
+import net.minecraft.entity.effect.StatusEffectInstance;
+import net.minecraft.util.math.random.LocalRandom;
+import net.minecraft.util.math.random.Random;
+
+class EffectProgramTest {
+    /** Rolls that sit below, on and above the shipped chances, plus both ends of the range. */
+    private static final float[] ROLLS = {0.0f, 0.05f, 0.1f, 0.25f, 0.3f, 0.5f, 0.8f, 0.95f,
+            0.999f};
+
+    private static ContentPack shipped;
+
+    @BeforeAll
+    static void load() {
+        GameTestSupport.bootstrap();
+        shipped = DataLoader.load(List.of(GameTestSupport.SHIPPED_DATA), false);
+    }
+
+    @Test
+    void programAppliesWhatTheDefinitionApplies() {
+        boolean gated = false;
+        for (BeverageData data : shipped.beverageValues()) {
+            EffectProgram program = EffectProgram.compile(data);
+            assertEquals(data.effects().size(), program.size(), data.id().toString());
+            for (BeverageData.EffectEntry entry : data.effects()) {
+                gated |= entry.chance() < 1.0f;
+            }
+            for (float roll : ROLLS) {
+                List<StatusEffectInstance> expected = new ArrayList<>();
+                data.applyEffects(expected::add, fixed(roll));
+                List<StatusEffectInstance> actual = new ArrayList<>();
+                program.apply(actual::add, fixed(roll), 1.0f);
+                assertEquals(expected, actual, data.id() + " at roll " + roll);
+            }
+        }
+        assertTrue(gated, "The shipped content has no chance-gated effect");
+    }
+
+    @Test
+    void certainEntriesDrawNothing() {
+        for (BeverageData data : shipped.beverageValues()) {
+            int gated = 0;
+            for (BeverageData.EffectEntry entry : data.effects()) {
+                gated += entry.chance() < 1.0f ? 1 : 0;
+            }
+            CountingRandom random = new CountingRandom();
+            EffectProgram.compile(data).apply(new ArrayList<StatusEffectInstance>()::add, random,
+                    1.0f);
+            assertEquals(gated, random.draws, data.id().toString());
+        }
+    }
+
+    @Test
+    void durationScaleLeavesInfiniteDurationsAlone() {
+        for (BeverageData data : shipped.beverageValues()) {
+            List<StatusEffectInstance> scaled = new ArrayList<>();
+            EffectProgram.compile(data).apply(scaled::add, fixed(0.0f), 0.5f);
+            List<StatusEffectInstance> full = new ArrayList<>();
+            data.applyEffects(full::add, fixed(0.0f));
+            assertEquals(full.size(), scaled.size(), data.id().toString());
+            for (int i = 0; i < full.size(); i++) {
+                int duration = full.get(i).getDuration();
+                int expected = duration > 0 ? Math.max(1, Math.round(duration * 0.5f)) : duration;
+                assertEquals(expected, scaled.get(i).getDuration(), data.id() + " entry " + i);
+            }
+        }
+    }
+
+    /** A random source whose every float draw is {@code roll}. */
+    private static Random fixed(float roll) {
+        return new LocalRandom(0L) {
+            @Override
+            public float nextFloat() {
+                return roll;
+            }
+        };
+    }
+
+    private static final class CountingRandom extends LocalRandom {
+        int draws;
+
+        CountingRandom() {
+            super(0L);
+        }
+
+        @Override
+        public float nextFloat() {
+            draws++;
+            return 0.0f;
+        }
+    }
+}
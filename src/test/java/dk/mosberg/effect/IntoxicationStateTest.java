@@ -0,0 +1,76 @@
+package dk.mosberg.effect;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class IntoxicationStateTest {
+    @Test
+    void levelDecaysLinearlyInClosedForm() {
+        IntoxicationState state = new IntoxicationState(7.5f, 0.013f, 1_000L);
+        float stepped = state.level();
+        for (long now = 1_001L; now <= 1_700L; now++) {
+            stepped = Math.max(0.0f, stepped - state.decayPerTick());
+            assertEquals(stepped, state.levelAt(now), 1e-3f, "Level at tick " + now);
+        }
+        assertEquals(0.0f, state.levelAt(1_000_000L));
+    }
+
+    @Test
+    void levelBeforeTheRecordedTimeIsTheRecordedLevel() {
+        IntoxicationState state = new IntoxicationState(3.0f, 0.1f, 500L);
+        assertEquals(3.0f, state.levelAt(500L));
+        assertEquals(3.0f, state.levelAt(0L));
+    }
+
+    @Test
+    void ticksAtOrAboveCountsEveryTickFromNow() {
+        // Values that float arithmetic represents exactly, so counting ticks is exact too
+        IntoxicationState state = new IntoxicationState(10.0f, 0.5f, 0L);
+        for (float threshold : new float[] {0.5f, 2.0f, 7.25f, 10.0f}) {
+            for (long now : new long[] {0L, 3L, 11L}) {
+                long counted = 0;
+                while (state.levelAt(now + counted) >= threshold) {
+                    counted++;
+                }
+                assertEquals(counted, state.ticksAtOrAbove(threshold, now),
+                        "Ticks at or above " + threshold + " from " + now);
+            }
+        }
+        assertEquals(0L, state.ticksAtOrAbove(10.5f, 0L));
+        assertEquals(0L, state.ticksAtOrAbove(1.0f, 19L));
+    }
+
+    @Test
+    void drinkBlendsDecayRatesByLevel() {
+        IntoxicationState state = new IntoxicationState(4.0f, 0.1f, 0L);
+        IntoxicationState drunk = state.drink(0L, 6.0f, 0.2f, 100.0f);
+        assertEquals(10.0f, drunk.level(), 1e-6f);
+        assertEquals((4.0f * 0.1f + 6.0f * 0.2f) / 10.0f, drunk.decayPerTick(), 1e-6f);
+        assertEquals(0L, drunk.time());
+    }
+
+    @Test
+    void drinkDecaysTheCurrentLevelFirst() {
+        IntoxicationState state = new IntoxicationState(4.0f, 0.1f, 0L);
+        IntoxicationState drunk = state.drink(20L, 1.0f, 0.3f, 100.0f);
+        float remaining = 4.0f - 0.1f * 20;
+        assertEquals(remaining + 1.0f, drunk.level(), 1e-5f);
+        assertEquals((remaining * 0.1f + 0.3f) / (remaining + 1.0f), drunk.decayPerTick(), 1e-6f);
+        assertEquals(20L, drunk.time());
+    }
+
+    @Test
+    void drinkAfterFullDecayUsesTheDrinksRate() {
+        IntoxicationState state = new IntoxicationState(1.0f, 0.1f, 0L);
+        IntoxicationState drunk = state.drink(1_000L, 2.0f, 0.05f, 100.0f);
+        assertEquals(2.0f, drunk.level());
+        assertEquals(0.05f, drunk.decayPerTick());
+    }
+
+    @Test
+    void drinkIsCappedAtTheMaximumLevel() {
+        IntoxicationState state = new IntoxicationState(8.0f, 0.1f, 0L);
+        assertEquals(10.0f, state.drink(0L, 5.0f, 0.1f, 10.0f).level());
+    }
+}
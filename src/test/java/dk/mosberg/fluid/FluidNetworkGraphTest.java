@@ -0,0 +1,99 @@
+package dk.mosberg.fluid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.Direction;
+
+class FluidNetworkGraphTest {
+    private static final int ALL_SIDES = (1 << Direction.values().length) - 1;
+
+    private final FluidNetworkGraph graph = new FluidNetworkGraph();
+
+    private FluidNetworkGraph.Node add(int x, int y, int z, int sides) {
+        FluidNetworkGraph.Node node =
+                new FluidNetworkGraph.Node(BlockPos.asLong(x, y, z), sides, null);
+        graph.add(node);
+        return node;
+    }
+
+    private FluidNetworkGraph.Node add(int x, int y, int z) {
+        return add(x, y, z, ALL_SIDES);
+    }
+
+    @Test
+    void adjacentNodesShareANetwork() {
+        FluidNetworkGraph.Node a = add(0, 0, 0);
+        FluidNetworkGraph.Node b = add(1, 0, 0);
+        FluidNetworkGraph.Node c = add(5, 0, 0);
+        assertSame(a.network, b.network);
+        assertNotSame(a.network, c.network);
+        assertEquals(2, a.network.size());
+    }
+
+    @Test
+    void bridgingNodeMergesNetworks() {
+        FluidNetworkGraph.Node a = add(0, 0, 0);
+        FluidNetworkGraph.Node c = add(2, 0, 0);
+        FluidNetworkGraph.Node d = add(3, 0, 0);
+        assertNotSame(a.network, c.network);
+
+        FluidNetworkGraph.Node b = add(1, 0, 0);
+        assertSame(a.network, b.network);
+        assertSame(a.network, c.network);
+        assertSame(a.network, d.network);
+        assertEquals(4, a.network.size());
+    }
+
+    @Test
+    void removingABridgeSplitsTheNetwork() {
+        FluidNetworkGraph.Node a = add(0, 0, 0);
+        FluidNetworkGraph.Node b = add(1, 0, 0);
+        FluidNetworkGraph.Node c = add(2, 0, 0);
+        FluidNetworkGraph.Node d = add(2, 1, 0);
+
+        graph.remove(b.pos);
+        assertNotSame(a.network, c.network);
+        assertSame(c.network, d.network);
+        assertEquals(1, a.network.size());
+        assertEquals(2, c.network.size());
+    }
+
+    @Test
+    void removingFromALoopKeepsOneNetwork() {
+        FluidNetworkGraph.Node a = add(0, 0, 0);
+        FluidNetworkGraph.Node b = add(1, 0, 0);
+        FluidNetworkGraph.Node c = add(1, 0, 1);
+        FluidNetworkGraph.Node d = add(0, 0, 1);
+
+        graph.remove(b.pos);
+        assertSame(a.network, c.network);
+        assertSame(a.network, d.network);
+        assertEquals(3, a.network.size());
+    }
+
+    @Test
+    void removingTheLastNodeEmptiesTheGraph() {
+        FluidNetworkGraph.Node a = add(0, 0, 0);
+        graph.remove(a.pos);
+        assertTrue(graph.isEmpty());
+    }
+
+    @Test
+    void onlyFacesExposedOnBothSidesConnect() {
+        int east = 1 << Direction.EAST.ordinal();
+        int west = 1 << Direction.WEST.ordinal();
+        FluidNetworkGraph.Node a = add(0, 0, 0, east);
+        FluidNetworkGraph.Node b = add(1, 0, 0, west);
+        FluidNetworkGraph.Node above = add(0, 1, 0);
+        FluidNetworkGraph.Node behind = add(-1, 0, 0, east);
+
+        assertSame(a.network, b.network);
+        assertNotSame(a.network, above.network);
+        assertNotSame(a.network, behind.network);
+    }
+}
@@ -0,0 +1,104 @@
+package dk.mosberg.loot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class AliasSamplerTest {
+    /** Coins per column when walking the unit interval in {@link #distribution}. */
+    private static final int COINS = 10_000;
+
+    @Test
+    void columnsSplitExactlyInProportionToWeights() {
+        int[] weights = {1, 7, 0, 3, 12, 0, 5, 1};
+        double[] expected = normalize(weights);
+        double[] actual = distribution(new AliasSampler(weights));
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(expected[i], actual[i], 1.0 / COINS, "Share of index " + i);
+        }
+    }
+
+    @Test
+    void sampleFrequenciesFollowWeights() {
+        int[] weights = {40, 0, 25, 5, 0, 30};
+        AliasSampler sampler = new AliasSampler(weights);
+        SplittableRandom random = new SplittableRandom(23);
+        int rolls = 1_000_000;
+        int[] counts = new int[weights.length];
+        for (int i = 0; i < rolls; i++) {
+            counts[sampler.sample(random.nextInt(sampler.size()), (float) random.nextDouble())]++;
+        }
+        double[] expected = normalize(weights);
+        for (int i = 0; i < weights.length; i++) {
+            // Five standard deviations of a binomial share at this many rolls
+            double tolerance = 5 * Math.sqrt(expected[i] * (1 - expected[i]) / rolls);
+            assertEquals(expected[i], (double) counts[i] / rolls, tolerance,
+                    "Frequency of index " + i);
+        }
+    }
+
+    @Test
+    void zeroWeightsAreNeverSampled() {
+        SplittableRandom random = new SplittableRandom(5);
+        for (int trial = 0; trial < 200; trial++) {
+            int[] weights = new int[1 + random.nextInt(64)];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextInt(3) == 0 ? 0 : random.nextInt(1_000);
+            }
+            weights[random.nextInt(weights.length)] = 1 + random.nextInt(1_000);
+            AliasSampler sampler = new AliasSampler(weights);
+            for (int column = 0; column < sampler.size(); column++) {
+                for (float coin : new float[] {0.0f, 0.5f, Math.nextDown(1.0f)}) {
+                    int index = sampler.sample(column, coin);
+                    assertTrue(weights[index] > 0,
+                            "Sampled zero-weight index " + index + " from column " + column);
+                }
+            }
+        }
+    }
+
+    @Test
+    void singlePositiveWeightIsAlwaysSampled() {
+        AliasSampler sampler = new AliasSampler(new int[] {0, 0, 9, 0});
+        for (int column = 0; column < sampler.size(); column++) {
+            assertEquals(2, sampler.sample(column, 0.0f));
+            assertEquals(2, sampler.sample(column, Math.nextDown(1.0f)));
+        }
+    }
+
+    @Test
+    void rejectsNegativeOrAllZeroWeights() {
+        assertThrows(IllegalArgumentException.class, () -> new AliasSampler(new int[] {3, -1}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasSampler(new int[] {0, 0}));
+        assertThrows(IllegalArgumentException.class, () -> new AliasSampler(new int[0]));
+    }
+
+    private static double[] normalize(int[] weights) {
+        long total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        double[] shares = new double[weights.length];
+        for (int i = 0; i < weights.length; i++) {
+            shares[i] = (double) weights[i] / total;
+        }
+        return shares;
+    }
+
+    /** Share of each index over all columns and evenly spaced coins, exact up to 1/COINS. */
+    private static double[] distribution(AliasSampler sampler) {
+        double[] shares = new double[sampler.size()];
+        for (int column = 0; column < sampler.size(); column++) {
+            for (int coin = 0; coin < COINS; coin++) {
+                shares[sampler.sample(column, (coin + 0.5f) / COINS)]++;
+            }
+        }
+        for (int i = 0; i < shares.length; i++) {
+            shares[i] /= (double) sampler.size() * COINS;
+        }
+        return shares;
+    }
+}
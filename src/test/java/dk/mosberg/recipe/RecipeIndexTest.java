@@ -0,0 +1,133 @@
+package dk.mosberg.recipe;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import dk.mosberg.GameTestSupport;
+import dk.mosberg.data.BeverageData;
+import dk.mosberg.data.DataLoader;
+import net.minecraft.util.Identifier;
+
+class RecipeIndexTest {
+    private static final Identifier WHEAT = Identifier.ofVanilla("wheat");
+    private static final Identifier SUGAR = Identifier.ofVanilla("sugar");
+    private static final Identifier HONEY = Identifier.ofVanilla("honey_bottle");
+    private static final Identifier STICK = Identifier.ofVanilla("stick");
+    private static final Identifier FERMENTING = Identifier.of("alchemy", "fermentation_stations");
+    private static final Identifier DISTILLING = Identifier.of("alchemy", "distillation_stations");
+
+    /** A shipped definition whose other fields the test beverages copy. */
+    private static BeverageData template;
+
+    @BeforeAll
+    static void load() {
+        GameTestSupport.bootstrap();
+        template = DataLoader.load(List.of(GameTestSupport.SHIPPED_DATA), false).beverageValues()
+                .iterator().next();
+    }
+
+    @Test
+    void contentsAreMultisetsInAnyOrder() {
+        RecipeIndex.Contents split = new RecipeIndex.Contents.Builder(2).add(SUGAR, 1)
+                .add(WHEAT, 2).add(SUGAR, 2).build();
+        RecipeIndex.Contents whole = new RecipeIndex.Contents.Builder(2).add(WHEAT, 2)
+                .add(SUGAR, 3).build();
+        assertEquals(whole, split);
+        assertEquals(whole.hashCode(), split.hashCode());
+        assertFalse(whole.equals(contents(WHEAT, 2, SUGAR, 2)));
+        assertTrue(new RecipeIndex.Contents.Builder(0).build().isEmpty());
+    }
+
+    @Test
+    void recipesAreFoundOnlyAtTheirStations() {
+        RecipeIndex index = RecipeIndex.of(List.of(
+                beverage("ale", List.of(FERMENTING), WHEAT, 2, SUGAR, 1),
+                beverage("schnapps", List.of(DISTILLING), WHEAT, 2, SUGAR, 1),
+                beverage("mead", List.of(), HONEY, 3)));
+        RecipeIndex.Contents malt = contents(WHEAT, 2, SUGAR, 1);
+
+        assertEquals(id("ale"), index.find(stations(FERMENTING), malt).beverage());
+        assertEquals(id("schnapps"), index.find(stations(DISTILLING), malt).beverage());
+        assertFalse(index.find(stations(), malt).matches());
+        assertEquals(id("mead"), index.find(stations(FERMENTING), contents(HONEY, 3)).beverage());
+        assertEquals(id("mead"), index.find(stations(), contents(HONEY, 3)).beverage());
+    }
+
+    @Test
+    void largerRecipeWinsWhenTheContentsHoldIt() {
+        RecipeIndex index = RecipeIndex.of(List.of(
+                beverage("light", List.of(), WHEAT, 1, SUGAR, 1),
+                beverage("strong", List.of(), WHEAT, 3, SUGAR, 1)));
+
+        RecipeIndex.Match strong = index.find(stations(), contents(WHEAT, 6, SUGAR, 2));
+        assertEquals(id("strong"), strong.beverage());
+        assertEquals(2, strong.batches());
+
+        RecipeIndex.Match light = index.find(stations(), contents(WHEAT, 2, SUGAR, 2));
+        assertEquals(id("light"), light.beverage());
+        assertEquals(2, light.batches());
+    }
+
+    @Test
+    void extraOrMissingItemsDoNotMatch() {
+        RecipeIndex index = RecipeIndex.of(List.of(
+                beverage("ale", List.of(), WHEAT, 2, SUGAR, 1)));
+
+        assertTrue(index.find(stations(), contents(WHEAT, 2, SUGAR, 1)).matches());
+        assertFalse(index.find(stations(), contents(WHEAT, 2, SUGAR, 1, STICK, 1)).matches());
+        assertFalse(index.find(stations(), contents(WHEAT, 2)).matches());
+        assertFalse(index.find(stations(), contents(WHEAT, 1, SUGAR, 1)).matches());
+        assertFalse(index.find(stations(), contents()).matches());
+    }
+
+    @Test
+    void ingredientsOfEveryStationAreKnown() {
+        RecipeIndex index = RecipeIndex.of(List.of(
+                beverage("ale", List.of(FERMENTING), WHEAT, 2, SUGAR, 1),
+                beverage("mead", List.of(), HONEY, 3)));
+        assertTrue(index.isIngredient(WHEAT));
+        assertTrue(index.isIngredient(HONEY));
+        assertFalse(index.isIngredient(STICK));
+    }
+
+    /** {@code stations} of a machine, followed by the partition every machine belongs to. */
+    private static Identifier[] stations(Identifier... stations) {
+        Identifier[] all = new Identifier[stations.length + 1];
+        System.arraycopy(stations, 0, all, 0, stations.length);
+        all[stations.length] = RecipeIndex.ANY;
+        return all;
+    }
+
+    /** Contents of alternating item ids and counts. */
+    private static RecipeIndex.Contents contents(Object... itemsAndCounts) {
+        RecipeIndex.Contents.Builder builder = new RecipeIndex.Contents.Builder(4);
+        for (int i = 0; i < itemsAndCounts.length; i += 2) {
+            builder.add((Identifier) itemsAndCounts[i], (Integer) itemsAndCounts[i + 1]);
+        }
+        return builder.build();
+    }
+
+    private static Identifier id(String path) {
+        return Identifier.of("test", path);
+    }
+
+    /** The template brewed from alternating item ids and counts at {@code stations}. */
+    private static BeverageData beverage(String path, List<Identifier> stations,
+            Object... itemsAndCounts) {
+        List<BeverageData.Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < itemsAndCounts.length; i += 2) {
+            ingredients.add(new BeverageData.Ingredient((Identifier) itemsAndCounts[i],
+                    (Integer) itemsAndCounts[i + 1]));
+        }
+        BeverageData t = template;
+        return new BeverageData(id(path), t.category(), t.style(), t.container(), t.rarity(),
+                t.stackSize(), t.stats(), t.effects(), t.textKeys(), t.config(), t.freshness(),
+                new BeverageData.Brewing(ingredients, stations, 100), t.tags(), t.loot(),
+                t.visuals());
+    }
+}
@@ -0,0 +1,109 @@
+package dk.mosberg.schedule;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class TimingWheelTest {
+    @Test
+    void firesEveryTimerOnItsDeadlineTick() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(0L);
+        SplittableRandom random = new SplittableRandom(1);
+        int count = 2_000;
+        long horizon = 64L * 64 * 3;
+        for (int i = 0; i < count; i++) {
+            wheel.schedule(1 + random.nextLong(horizon), i);
+        }
+        List<Long> fired = new ArrayList<>();
+        for (long tick = 1; tick <= horizon; tick++) {
+            long now = tick;
+            wheel.advance(tick, timer -> {
+                assertEquals(now, timer.deadline(), "Timer fired off its deadline");
+                fired.add(timer.deadline());
+            });
+        }
+        assertEquals(count, fired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void deliversInDeadlineOrderAcrossCascades() {
+        TimingWheel<Integer> wheel = new TimingWheel<>(10L);
+        long[] deadlines = {5_000, 70, 4_097, 64, 262_200, 11, 4_096, 300_000};
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.schedule(deadlines[i], i);
+        }
+        List<Long> fired = new ArrayList<>();
+        // Steps short enough to turn the wheel rather than drain and refill it
+        for (long target = 4_010L; target < 304_000L; target += 4_000L) {
+            wheel.advance(target, timer -> fired.add(timer.deadline()));
+        }
+        assertEquals(List.of(11L, 64L, 70L, 4_096L, 4_097L, 5_000L, 262_200L, 300_000L), fired);
+    }
+
+    @Test
+    void longJumpsDeliverOverflowTimersInOrder() {
+        TimingWheel<String> wheel = new TimingWheel<>(0L);
+        long far = 1L << 40;
+        wheel.schedule(far + 5, "later");
+        wheel.schedule(far, "first");
+        wheel.schedule(3, "soon");
+        wheel.schedule(far * 4, "pending");
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(far + 5, timer -> fired.add(timer.value()));
+        assertEquals(List.of("soon", "first", "later"), fired);
+        assertEquals(1, wheel.size());
+
+        fired.clear();
+        wheel.advance(far * 4, timer -> fired.add(timer.value()));
+        assertEquals(List.of("pending"), fired);
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(1_000L);
+        wheel.schedule(10, "overdue");
+        wheel.schedule(1_000, "now");
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1_001L, timer -> fired.add(timer.value()));
+        assertEquals(2, fired.size());
+        assertTrue(fired.containsAll(List.of("overdue", "now")));
+    }
+
+    @Test
+    void removedTimersNeverFire() {
+        TimingWheel<String> wheel = new TimingWheel<>(0L);
+        wheel.schedule(5, "kept");
+        wheel.schedule(5, "removed");
+        wheel.schedule(10_000, "removed");
+        wheel.schedule(1L << 40, "removed");
+        assertEquals(3, wheel.removeIf("removed"::equals));
+        assertEquals(1, wheel.size());
+
+        List<String> fired = new ArrayList<>();
+        wheel.advance(1L << 41, timer -> fired.add(timer.value()));
+        assertEquals(List.of("kept"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void timersScheduledWhileFiringWaitForTheNextAdvance() {
+        TimingWheel<String> wheel = new TimingWheel<>(0L);
+        wheel.schedule(5, "parent");
+        List<String> fired = new ArrayList<>();
+        wheel.advance(5L, timer -> {
+            fired.add(timer.value());
+            wheel.schedule(5, "child");
+        });
+        assertEquals(List.of("parent"), fired);
+        assertEquals(1, wheel.size());
+
+        wheel.advance(6L, timer -> fired.add(timer.value()));
+        assertEquals(List.of("parent", "child"), fired);
+    }
+}